@@ -0,0 +1,142 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark comparing {@code InventoryItemCodec} with the SDK's reflective mapper, reached
+ * through the public {@code DataSnapshot.getValue(Class)}.
+ * <p>
+ * Both decode the same real snapshots, written to an offline database and read back from its
+ * local cache. The mapper cannot construct the immutable {@code InventoryItem}, so the reflective
+ * path maps into a field-for-field mirror class and builds the item from it, as the app would have
+ * to. The SDK has no public entry point for its reflective encoder, so encoding is measured for the
+ * codec only. Run with {@code ./gradlew :app:connectedAndroidTest} on a physical device for
+ * representative results.
+ */
+@RunWith(AndroidJUnit4.class)
+public class InventoryItemCodecBenchmark {
+
+    private static final int ITEM_COUNT = 1_000;
+
+
+    /**
+     * Field-for-field mirror of a stored item, populated by the reflective mapper.
+     */
+    public static class StoredItem {
+        public String id;
+        public String name;
+        public String description;
+        public int quantity;
+        public String tag;
+    }
+
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private FirebaseDatabase database;
+    private List<InventoryItem> items;
+    private List<DataSnapshot> snapshots;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        // Building a synthetic catalogue and reading it back as snapshots, without touching the network.
+        database = FirebaseDatabase.getInstance();
+        database.goOffline();
+
+        items = new ArrayList<>(ITEM_COUNT);
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            InventoryItem item = new InventoryItem("Item" + i, "Item " + i, "Description " + i, i % 50, "Tag" + (i % 20));
+            items.add(item);
+            values.put(item.getId(), InventoryItemCodec.toMap(item));
+        }
+        database.getReference("benchmark/codec").setValue(values);
+
+        snapshots = new ArrayList<>(ITEM_COUNT);
+        CountDownLatch loaded = new CountDownLatch(1);
+        database.getReference("benchmark/codec").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    snapshots.add(child);
+                }
+                loaded.countDown();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                loaded.countDown();
+            }
+        });
+        loaded.await(10, TimeUnit.SECONDS);
+        assertEquals(ITEM_COUNT, snapshots.size());
+    }
+
+
+    @After
+    public void tearDown() {
+        // The catalogue was only ever meant for the local cache
+        database.purgeOutstandingWrites();
+        database.goOnline();
+    }
+
+
+    @Test
+    public void decodeWithCodec() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (DataSnapshot snapshot : snapshots) {
+                InventoryItemCodec.decode(snapshot.getKey(), snapshot.getValue());
+            }
+        }
+    }
+
+
+    @Test
+    public void decodeWithReflection() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (DataSnapshot snapshot : snapshots) {
+                StoredItem stored = snapshot.getValue(StoredItem.class);
+                new InventoryItem(snapshot.getKey(), stored.name, stored.description, stored.quantity, stored.tag);
+            }
+        }
+    }
+
+
+    @Test
+    public void encodeWithCodec() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                InventoryItemCodec.toMap(items.get(i));
+            }
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import android.content.Context;
 import android.view.LayoutInflater;
@@ -30,6 +31,7 @@ public class InventoryAdapterTest {
     private Context testContext;
     private InventoryAdapter adapter;
     private List<InventoryItem> mockInventoryList;
+    private FirebaseDatabaseHelper mockFirebaseDatabaseHelper;
 
     @Before
     public void setUp() {
@@ -42,7 +44,7 @@ public class InventoryAdapterTest {
         mockInventoryList.add(new InventoryItem("Item2","Test Item2", "Some Description", 10, "Tag2"));
         mockInventoryList.add(new InventoryItem("Item3", "Test Item3", "Some Description", 15, "Tag3"));
 
-        FirebaseDatabaseHelper mockFirebaseDatabaseHelper = mock(FirebaseDatabaseHelper.class);
+        mockFirebaseDatabaseHelper = mock(FirebaseDatabaseHelper.class);
         doNothing().when(mockFirebaseDatabaseHelper).updateItem(anyString(), any(InventoryItem.class));
 
         adapter = new InventoryAdapter(mockInventoryList, true, mockFirebaseDatabaseHelper);
@@ -69,7 +71,7 @@ public class InventoryAdapterTest {
 
         // Verify the UI components within the ViewHolder reflect the bound data
         InventoryItem boundItem = mockInventoryList.get(0);
-        boundItem.setId(boundItem.getName());
+        boundItem = boundItem.withId(boundItem.getName());
         assertThat(mockViewHolder.itemNameTextView.getText().toString(), is(boundItem.getName()));
         assertThat(mockViewHolder.itemQuantityTextView.getText().toString(), is(String.valueOf(boundItem.getQuantity())));
     }
@@ -86,7 +88,7 @@ public class InventoryAdapterTest {
 
         // Verify the UI components within the ViewHolder reflect the bound data
         InventoryItem boundItem = mockInventoryList.get(0);
-        boundItem.setId("");
+        boundItem = boundItem.withId("");
         assertThat(mockViewHolder.itemNameTextView.getText().toString(), is(boundItem.getName()));
         assertThat(mockViewHolder.itemQuantityTextView.getText().toString(), is(String.valueOf(boundItem.getQuantity())));
     }
@@ -102,11 +104,11 @@ public class InventoryAdapterTest {
 
         // Simulate increment button click
         mockViewHolder.itemAddButton.performClick();
-        assertThat(mockInventoryList.get(0).getQuantity(), is(6)); // Quantity should increment by 1
+        verify(mockFirebaseDatabaseHelper).adjustQuantity("Item1", 1); // Quantity should increment by 1
 
         // Simulate decrement button click
         mockViewHolder.itemSubtractButton.performClick();
-        assertThat(mockInventoryList.get(0).getQuantity(), is(5)); // Quantity should decrement by 1
+        verify(mockFirebaseDatabaseHelper).adjustQuantity("Item1", -1); // Quantity should decrement by 1
     }
 
     @Test
@@ -120,10 +122,10 @@ public class InventoryAdapterTest {
 
         // Simulate increment button click
         mockViewHolder.itemAddButton.performClick();
-        assertThat(mockInventoryList.get(0).getQuantity(), is(6)); // Quantity should increment by 1
+        verify(mockFirebaseDatabaseHelper).adjustQuantity("Item1", 1); // Quantity should increment by 1
 
         // Simulate decrement button click
         mockViewHolder.itemSubtractButton.performClick();
-        assertThat(mockInventoryList.get(0).getQuantity(), is(5)); // Quantity should decrement by 1
+        verify(mockFirebaseDatabaseHelper).adjustQuantity("Item1", -1); // Quantity should decrement by 1
     }
 }
\ No newline at end of file
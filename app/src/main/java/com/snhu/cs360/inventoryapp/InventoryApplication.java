@@ -0,0 +1,33 @@
+package com.snhu.cs360.inventoryapp;
+
+import android.app.Application;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.FirebaseDatabase;
+
+
+/**
+ * Application entry point.
+ * <p>
+ * In builds with {@code BuildConfig.USE_LOCAL_BACKEND} set (the {@code benchmark} build type),
+ * Firebase Authentication and the Realtime Database are pointed at the local Firebase emulator
+ * suite before any activity touches them, so benchmarks run against seeded, reproducible data
+ * instead of the production project.
+ */
+public class InventoryApplication extends Application {
+
+    static final int AUTH_EMULATOR_PORT = 9099;
+    static final int DATABASE_EMULATOR_PORT = 9000;
+
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        if (BuildConfig.USE_LOCAL_BACKEND) {
+            FirebaseAuth.getInstance().useEmulator(BuildConfig.LOCAL_BACKEND_HOST, AUTH_EMULATOR_PORT);
+            FirebaseDatabase.getInstance().useEmulator(BuildConfig.LOCAL_BACKEND_HOST, DATABASE_EMULATOR_PORT);
+        }
+    }
+
+}
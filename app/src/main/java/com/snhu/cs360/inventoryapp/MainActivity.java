@@ -2,14 +2,16 @@ package com.snhu.cs360.inventoryapp;
 
 import android.Manifest;
 import android.animation.ObjectAnimator;
-import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.content.pm.PackageManager;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.os.Bundle;
+import android.provider.OpenableColumns;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
@@ -21,7 +23,10 @@ import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
@@ -35,20 +40,40 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.appbar.MaterialToolbar;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.snhu.cs360.inventoryapp.auth.LoginActivity;
 import com.snhu.cs360.inventoryapp.firebase.FirebaseDatabaseHelper;
+import com.snhu.cs360.inventoryapp.firebase.InventoryPager;
+import com.snhu.cs360.inventoryapp.firebase.InventorySyncEngine;
+import com.snhu.cs360.inventoryapp.firebase.PendingWriteTracker;
+import com.snhu.cs360.inventoryapp.firebase.QuantityWriteCoalescer;
+import com.snhu.cs360.inventoryapp.firebase.SubscriptionManager;
+import com.snhu.cs360.inventoryapp.importer.ImportCheckpointStore;
+import com.snhu.cs360.inventoryapp.importer.InventoryImporter;
 import com.snhu.cs360.inventoryapp.inventory.InventoryAdapter;
+import com.snhu.cs360.inventoryapp.inventory.InventoryFuzzyIndex;
 import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
-
+import com.snhu.cs360.inventoryapp.inventory.InventorySearchIndex;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+import com.snhu.cs360.inventoryapp.inventory.InventoryViewPool;
+import com.snhu.cs360.inventoryapp.inventory.LiveInventoryView;
+import com.snhu.cs360.inventoryapp.local.LocalInventoryStore;
+import com.snhu.cs360.inventoryapp.metrics.MetricsOverlay;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -64,13 +89,43 @@ public class MainActivity extends AppCompatActivity {
 
     protected RecyclerView recyclerView;
     protected InventoryAdapter inventoryAdapter;
-    private List<InventoryItem> inventoryItemList;
-    private List<String> tagList;
+    private InventorySyncEngine inventorySyncEngine;
+    private LiveInventoryView liveInventoryView;
+    private ArrayAdapter<String> tagSpinnerAdapter;
+    // The tag the filter was last applied for, which the Spinner is kept on as tags come and go
+    private String selectedSpinnerTag;
     private FirebaseDatabaseHelper firebaseDbHelper;
+    private LocalInventoryStore localInventoryStore;
+    private QuantityWriteCoalescer quantityWriteCoalescer;
+    private PendingWriteTracker pendingWriteTracker;
+    private InventoryPager inventoryPager;
+    private SubscriptionManager.Subscription filterSubscription;
+    private InventorySyncEngine filterSyncEngine;
+    private ExecutorService snapshotDecodeExecutor;
+    private ExecutorService importExecutor;
+    private InventoryImporter inventoryImporter;
+    private AlertDialog importProgressDialog;
+    private MetricsOverlay metricsOverlay;
+    private boolean fullyDrawnReported;
+
+    // Lets the user pick a CSV or JSON file to import
+    private final ActivityResultLauncher<String[]> importFilePicker =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) {
+                    startImport(uri);
+                }
+            });
 
     private ItemTouchHelper itemTouchHelper;
+    private LinearLayoutManager listLayoutManager;
+    private GridLayoutManager gridLayoutManager;
+    private InventoryViewPool inventoryViewPool;
     public static boolean sortAscending = false;
 
+    // How close to the end of the list, in rows, the next page starts loading
+    private static final int PAGE_PREFETCH_DISTANCE = 10;
+    private static final int GRID_SPAN_COUNT = 2;
+
     protected boolean isListView = true;
 
 
@@ -95,24 +150,53 @@ public class MainActivity extends AppCompatActivity {
         // Initialize search toolbar
         initSearchView();
 
-        // Instantiate database helper to interact with FB Realtime databases for inventory
+        // Instantiate database helper to interact with FB Realtime databases for inventory,
+        // writing every change through to the local store used for offline-first startup
         DatabaseReference databaseReference = FirebaseDatabase.getInstance().getReference("inventory");
-        firebaseDbHelper = new FirebaseDatabaseHelper(databaseReference);
+        localInventoryStore = new LocalInventoryStore(this);
+        firebaseDbHelper = new FirebaseDatabaseHelper(databaseReference, localInventoryStore);
+        // Live listeners are detached while the activity is stopped and removed when it is destroyed
+        firebaseDbHelper.getSubscriptions().bindTo(getLifecycle());
 
         // Set RecyclerView and lists
         recyclerView = findViewById(R.id.recyclerView);
-        inventoryItemList = new ArrayList<>();
-        tagList = new ArrayList<>();
-
-        // Initial layout manager and adapter setup
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        inventoryAdapter = new InventoryAdapter(inventoryItemList, isListView, firebaseDbHelper);
+        // Decode incoming snapshots off the main thread; only decoded items are handed back to it
+        snapshotDecodeExecutor = Executors.newSingleThreadExecutor();
+        inventorySyncEngine = newSyncEngine();
+
+        // Edits, quantity taps, and deletes are shown at once and rolled back if the write is rejected
+        pendingWriteTracker = new PendingWriteTracker(firebaseDbHelper, inventorySyncEngine);
+        pendingWriteTracker.setListener(this::onWriteRolledBack);
+        quantityWriteCoalescer = new QuantityWriteCoalescer(pendingWriteTracker);
+
+        liveInventoryView = new LiveInventoryView();
+
+        // Initial layout manager and adapter setup. The adapter, both layout managers, and the
+        // view pool live as long as the activity, so switching layouts only rebinds rows
+        listLayoutManager = new LinearLayoutManager(this);
+        gridLayoutManager = new GridLayoutManager(this, GRID_SPAN_COUNT);
+        inventoryViewPool = new InventoryViewPool(this, GRID_SPAN_COUNT);
+        recyclerView.setHasFixedSize(true);
+        recyclerView.setRecycledViewPool(inventoryViewPool);
+        setLayoutManager();
+        inventoryAdapter = new InventoryAdapter(new ArrayList<>(), isListView, firebaseDbHelper);
+        inventoryAdapter.setQuantityWriteCoalescer(quantityWriteCoalescer);
+        inventoryAdapter.setPendingWriteTracker(pendingWriteTracker);
         recyclerView.setAdapter(inventoryAdapter);
+        // Search, tag filter, and sort order are applied together by the live view, which passes
+        // each change to the displayed list on to the adapter
+        liveInventoryView.setListener(newLiveViewListener());
+        // Inflate the other layout's rows while the main thread is idle, ahead of the first switch
+        inventoryViewPool.prewarm(recyclerView, inventoryAdapter,
+                isListView ? InventoryAdapter.VIEW_TYPE_GRID : InventoryAdapter.VIEW_TYPE_LIST);
 
         // Initial populate
+        initSpinner();
         loadInventory();
         // Setup swipe-to-delete functionality
         setUpItemTouchHelper();
+        // Fetch further pages as the user scrolls towards the end of the list
+        setUpInfiniteScroll();
 
         // On FAB press, show dialogue to add item to inventory
         findViewById(R.id.fab_main).setOnClickListener(v -> showAddItemDialog());
@@ -120,6 +204,46 @@ public class MainActivity extends AppCompatActivity {
     }
 
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+
+        // Write any buffered quantity taps before the activity leaves the foreground
+        if (quantityWriteCoalescer != null) {
+            quantityWriteCoalescer.flush();
+        }
+    }
+
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (inventoryPager != null) {
+            inventoryPager.stop();
+        }
+        stopFilterQuery();
+        if (metricsOverlay != null) {
+            metricsOverlay.hide();
+        }
+        if (snapshotDecodeExecutor != null) {
+            snapshotDecodeExecutor.shutdownNow();
+        }
+        // An unfinished import keeps its checkpoint and resumes when the file is imported again
+        if (inventoryImporter != null) {
+            inventoryImporter.cancel();
+            inventoryImporter = null;
+            importProgressDialog.dismiss();
+            importProgressDialog = null;
+        }
+        if (importExecutor != null) {
+            importExecutor.shutdown();
+        }
+        if (localInventoryStore != null) {
+            localInventoryStore.close();
+        }
+    }
+
+
     /**
      * Inflates the options menu and customizes the menu item icons. This includes
      * setting up the menu layout and applying a white tint to the specified menu item icon.
@@ -140,6 +264,10 @@ public class MainActivity extends AppCompatActivity {
         DrawableCompat.setTint(drawable, ContextCompat.getColor(this, R.color.white));
         menu.findItem(R.id.activity_main_menu).setIcon(drawable);
 
+        // The metrics tools are only offered in debug builds
+        menu.findItem(R.id.action_metrics_overlay).setVisible(BuildConfig.DEBUG);
+        menu.findItem(R.id.action_dump_metrics).setVisible(BuildConfig.DEBUG);
+
         return super.onCreateOptionsMenu(menu);
     }
 
@@ -169,10 +297,31 @@ public class MainActivity extends AppCompatActivity {
                 setSortOrder(sortAscending);
                 break;
 
+            case "Fuzzy Search":
+                item.setChecked(!item.isChecked());
+                liveInventoryView.setFuzzy(item.isChecked());
+                break;
+
+            case "Import Items":
+                importFilePicker.launch(new String[] { "text/csv", "text/comma-separated-values",
+                        "application/json", "text/plain" });
+                break;
+
             case "Switch Layouts":
                 toggleLayoutManager();
                 break;
 
+            case "Performance Overlay":
+                if (metricsOverlay == null) {
+                    metricsOverlay = new MetricsOverlay(this, OperationMetrics.getInstance());
+                }
+                metricsOverlay.toggle();
+                break;
+
+            case "Dump Metrics":
+                dumpMetrics();
+                break;
+
             case "Logout":
                 logout();
                 break;
@@ -183,85 +332,424 @@ public class MainActivity extends AppCompatActivity {
 
 
     /**
-     * Loads the inventory data from the Firebase database.
-     * <p>
-     * This method fetches inventory items from the Firebase database using the
-     * FirebaseDbHelper class. The data is retrieved asynchronously through a
-     * ValueEventListener. It populates the inventory item list and updates the
-     * associated adapter upon successful data retrieval. If the data loading
-     * process fails, an error message is displayed to the user via a Toast.
-     * <p>
-     * The following tasks are performed within the method: <p>
-     * - Clears the current inventory item list to avoid duplicated entries. <p>
-     * - Iterates through the data snapshot returned from the Firebase database. <p>
-     * - Converts each snapshot to an InventoryItem instance and assigns the
-     *   snapshot key as the item ID. <p>
-     * - Adds the populated InventoryItem objects to the inventory list. <p>
-     * - Refreshes the associated adapter to display the updated data in the UI. <p>
+     * Loads the inventory data from the local store and the Firebase database.
+     * <p>
+     * The items of the first page persisted by the {@link LocalInventoryStore} are read first and
+     * seeded into the sync engine, so rows appear without waiting on the network. This method then subscribes the {@link InventorySyncEngine} to child-level events on the
+     * inventory node through the FirebaseDbHelper class. Rather than receiving the whole node
+     * on every change, each added, changed, or removed item is delivered individually and
+     * applied to the adapter as a single-row update. If the data loading process fails, an
+     * error message is displayed to the user via a Toast.
+     * <p>
+     * Each added, changed, or removed item is passed to the {@link LiveInventoryView}, which indexes
+     * it for search and tag filtering and inserts, moves, updates, or removes its row according to
+     * the active search, filter, and sort order. <p>
+     * The remote node is read one page at a time through an {@link InventoryPager}; further pages
+     * are fetched as the user scrolls, and loaded pages keep receiving live updates. Once the last
+     * page has been loaded, cached items that no longer exist remotely are removed, and the local
+     * store keeps applying every remote delta as it arrives. <p>
      * Displays an error notification if there is a failure to fetch data from the
      * database.
      */
     private void loadInventory() {
-        firebaseDbHelper.fetchItems(new ValueEventListener() {
-            @SuppressLint("NotifyDataSetChanged")
+        inventorySyncEngine.addListener(new InventorySyncEngine.Listener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                inventoryItemList.clear();
-                tagList.clear();
-                for (DataSnapshot itemSnapshot : snapshot.getChildren()) {
-                    InventoryItem item = itemSnapshot.getValue(InventoryItem.class);
-                    if (item != null) {
-                        // Set item id from key to populate missing id data
-                        item.setId(itemSnapshot.getKey());
-                        if (!tagList.contains(item.getTag())) {
-                            tagList.add(item.getTag());
-                        }
-                        inventoryItemList.add(item);
-                    }
+            public void onItemAdded(@NonNull InventoryItem item) {
+                liveInventoryView.addItem(item);
+            }
+
+            @Override
+            public void onItemChanged(@NonNull InventoryItem previous, @NonNull InventoryItem item) {
+                liveInventoryView.addItem(item);
+            }
+
+            @Override
+            public void onItemRemoved(@NonNull InventoryItem item) {
+                liveInventoryView.removeItem(item.getId());
+            }
+
+            @Override
+            public void onSyncCancelled(@NonNull DatabaseError error) {
+                Toast.makeText(MainActivity.this, "Failed to load data", Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        // Reconcile the local copy with every remote delta
+        inventorySyncEngine.addListener(localInventoryStore);
+
+        // Render the cached rows of the first page immediately, then let the remote node confirm or replace them
+        localInventoryStore.loadItems(InventoryPager.DEFAULT_PAGE_SIZE, inventorySyncEngine::seedItems);
+        inventoryPager = firebaseDbHelper.pageItems(inventorySyncEngine, InventoryPager.DEFAULT_PAGE_SIZE);
+        reportFullyDrawnWhenListed();
+        loadNextPage();
+    }
+
+
+    /**
+     * Reports the activity as fully drawn once the first inventory rows have been inserted into the
+     * list. Startup benchmarks use this as the time-to-full-display mark. An inventory whose first
+     * page is empty is reported from {@link #loadNextPage()} instead.
+     */
+    private void reportFullyDrawnWhenListed() {
+        inventoryAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                inventoryAdapter.unregisterAdapterDataObserver(this);
+                recyclerView.post(MainActivity.this::reportFullyDrawnOnce);
+            }
+        });
+    }
+
+
+    /**
+     * Calls {@link #reportFullyDrawn()} the first time it is invoked.
+     */
+    private void reportFullyDrawnOnce() {
+        if (!fullyDrawnReported) {
+            fullyDrawnReported = true;
+            reportFullyDrawn();
+        }
+    }
+
+
+    /**
+     * Tells the user that a change could not be saved. The item has already been restored to its
+     * previous state by the {@link PendingWriteTracker}.
+     * <p>
+     * @param write the rejected write
+     * @param error the error reported by the database
+     */
+    private void onWriteRolledBack(@NonNull PendingWriteTracker.PendingWrite write, @NonNull DatabaseError error) {
+        InventoryItem item = write.getBefore();
+        String name = item != null && item.getName() != null ? "\"" + item.getName() + "\"" : "item";
+        String action = write.getKind() == PendingWriteTracker.PendingWrite.Kind.DELETE ? "delete" : "save changes to";
+        Toast.makeText(this, "Couldn't " + action + " " + name + ": " + error.getMessage(), Toast.LENGTH_LONG).show();
+    }
+
+
+    /**
+     * Writes the current {@link OperationMetrics} report to a timestamped file in the app's external
+     * files directory, where it can be pulled with {@code adb pull}, and shows where it was written.
+     */
+    private void dumpMetrics() {
+        File directory = getExternalFilesDir("metrics");
+        if (directory == null) {
+            directory = new File(getFilesDir(), "metrics");
+        }
+
+        try {
+            File file = OperationMetrics.getInstance().dumpToFile(directory);
+            Toast.makeText(this, "Metrics written to " + file.getPath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Couldn't write metrics", Toast.LENGTH_SHORT).show();
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Imports the items in a CSV or JSON file chosen by the user, showing progress in a dialog that
+     * lets the user cancel.
+     * <p>
+     * The file is streamed and written in chunks by an {@link InventoryImporter}, so files of any
+     * size are imported without being held in memory. Imported items arrive in the list through
+     * the live sync like any other change. If the import stops early, choosing the same file
+     * again resumes it after the last chunk that was written.
+     * <p>
+     * @param uri the content URI of the chosen file
+     */
+    private void startImport(@NonNull Uri uri) {
+        if (inventoryImporter != null) {
+            Toast.makeText(this, "An import is already running", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        String fileName = null;
+        long fileSize = -1;
+        try (Cursor cursor = getContentResolver().query(uri,
+                new String[] { OpenableColumns.DISPLAY_NAME, OpenableColumns.SIZE }, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                fileName = cursor.getString(0);
+                fileSize = cursor.isNull(1) ? -1 : cursor.getLong(1);
+            }
+        }
+
+        InputStream input;
+        try {
+            input = getContentResolver().openInputStream(uri);
+        } catch (IOException e) {
+            input = null;
+        }
+        if (input == null) {
+            Toast.makeText(this, "Couldn't open the file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        if (importExecutor == null) {
+            importExecutor = Executors.newSingleThreadExecutor();
+        }
+        InventoryImporter importer = new InventoryImporter(firebaseDbHelper, new ImportCheckpointStore(this),
+                importExecutor, ContextCompat.getMainExecutor(this));
+        inventoryImporter = importer;
+
+        long totalBytes = fileSize;
+        importProgressDialog = new AlertDialog.Builder(this)
+                .setTitle("Importing " + (fileName != null ? fileName : "items"))
+                .setMessage("Reading file...")
+                .setCancelable(false)
+                .setNegativeButton("Cancel", (dialog, which) -> importer.cancel())
+                .show();
+
+        // The size tells apart different files behind a reused URI
+        String sourceKey = uri + ":" + fileSize;
+        InventoryImporter.Format format = InventoryImporter.Format.detect(getContentResolver().getType(uri), fileName);
+        importer.start(sourceKey, input, format, new InventoryImporter.Listener() {
+            @Override
+            public void onProgress(@NonNull InventoryImporter.Progress progress) {
+                if (importProgressDialog != null) {
+                    importProgressDialog.setMessage(describeImportProgress(progress, totalBytes));
                 }
+            }
 
-                inventoryAdapter.setItems(new ArrayList<>(inventoryItemList));
-                initSpinner();
+            @Override
+            public void onComplete(@NonNull InventoryImporter.Progress progress) {
+                finishImport(importer, "Import complete", progress, null);
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onFailed(@NonNull InventoryImporter.Progress progress, @NonNull String reason) {
+                finishImport(importer, "Import stopped", progress,
+                        reason + "\n\nImport the same file again to continue where this import stopped.");
+            }
+        });
+    }
+
+
+    /**
+     * Describes the progress of an import for the progress dialog.
+     * <p>
+     * @param progress the progress of the import
+     * @param totalBytes the size of the file, or {@code -1} if unknown
+     * @return the description
+     */
+    private static String describeImportProgress(@NonNull InventoryImporter.Progress progress, long totalBytes) {
+        StringBuilder message = new StringBuilder();
+        if (totalBytes > 0) {
+            long percent = Math.min(100, progress.getBytesRead() * 100 / totalBytes);
+            message.append(percent).append("% read\n");
+        }
+        message.append(String.format(Locale.getDefault(), "%,d items imported", progress.getImportedCount()));
+        if (progress.getRejectedCount() > 0) {
+            message.append(String.format(Locale.getDefault(), ", %,d rows skipped", progress.getRejectedCount()));
+        }
+        return message.toString();
+    }
+
+
+    /**
+     * Closes the progress dialog of an import and shows a summary of its outcome, listing the first
+     * rows that were skipped and why.
+     * <p>
+     * @param importer the importer that finished
+     * @param title the title of the summary
+     * @param progress the final progress of the import
+     * @param note a note explaining why the import stopped, or {@code null} if it completed
+     */
+    private void finishImport(@NonNull InventoryImporter importer, @NonNull String title,
+                              @NonNull InventoryImporter.Progress progress, String note) {
+        if (inventoryImporter != importer) {
+            return;
+        }
+        inventoryImporter = null;
+        if (importProgressDialog != null) {
+            importProgressDialog.dismiss();
+            importProgressDialog = null;
+        }
+
+        StringBuilder message = new StringBuilder(describeImportProgress(progress, -1));
+        if (progress.getResumedAfter() > 0) {
+            message.append(String.format(Locale.getDefault(), "\nResumed after row %,d", progress.getResumedAfter()));
+        }
+        for (String rejection : progress.getRejections()) {
+            message.append("\n").append(rejection);
+        }
+        if (progress.getRejectedCount() > progress.getRejections().size()) {
+            message.append("\n...");
+        }
+        if (note != null) {
+            message.append("\n\n").append(note);
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setMessage(message.toString())
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
+
+    /**
+     * Creates a sync engine that decodes snapshots on the shared background executor and applies
+     * the decoded items on the main thread.
+     * <p>
+     * @return the new {@link InventorySyncEngine}
+     */
+    private InventorySyncEngine newSyncEngine() {
+        return new InventorySyncEngine(snapshotDecodeExecutor, ContextCompat.getMainExecutor(this));
+    }
+
+
+    /**
+     * Requests the next page of the inventory from the pager.
+     * <p>
+     * As each page arrives, cached items in its key range that it did not deliver are removed. When
+     * the final page arrives, the initial sync is complete and the remaining stale cached rows are
+     * dropped from the local store.
+     * Otherwise, if the loaded rows do not yet fill the screen, the following page is requested
+     * straight away, since no scroll event would trigger it.
+     */
+    private void loadNextPage() {
+        inventoryPager.loadNextPage(new InventoryPager.PageCallback() {
+            @Override
+            public void onRangeLoaded(@Nullable String startAfterKey, @Nullable String endKey) {
+                // Cached rows the page did not deliver were deleted remotely
+                inventorySyncEngine.completeKeyRange(startAfterKey, endKey);
+            }
+
+            @Override
+            public void onPageLoaded(int itemCount, boolean reachedEnd) {
+                if (itemCount == 0 && inventorySyncEngine.size() == 0) {
+                    reportFullyDrawnOnce();
+                }
+                if (reachedEnd) {
+                    completeInitialSync();
+                } else {
+                    recyclerView.post(MainActivity.this::loadNextPageIfNearEnd);
+                }
+            }
+
+            @Override
+            public void onPageFailed(@NonNull DatabaseError error) {
                 Toast.makeText(MainActivity.this, "Failed to load data", Toast.LENGTH_SHORT).show();
             }
         });
     }
 
 
+    /**
+     * Removes the cached items that no longer exist remotely, once every page has been loaded. Seeded
+     * items are removed by the sync engine; the local store then drops the rows that were never seeded.
+     */
+    private void completeInitialSync() {
+        if (inventorySyncEngine.isInitialSyncComplete()) {
+            return;
+        }
+        inventorySyncEngine.completeInitialSync();
+
+        Set<String> itemIds = new HashSet<>();
+        for (InventoryItem item : inventorySyncEngine.getItems()) {
+            itemIds.add(item.getId());
+        }
+        localInventoryStore.retainItems(itemIds);
+    }
+
+
+    /**
+     * Attaches a scroll listener to the RecyclerView that fetches the next page of the inventory
+     * once the user scrolls within {@link #PAGE_PREFETCH_DISTANCE} rows of the end of the list.
+     */
+    private void setUpInfiniteScroll() {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) {
+                    loadNextPageIfNearEnd();
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Loads the next page if more pages remain and the last visible row is close to the end of the
+     * displayed list. Both the list and grid layout managers are {@link LinearLayoutManager}s.
+     */
+    private void loadNextPageIfNearEnd() {
+        // While a tag filter is active, the narrowed query supplies every matching item
+        if (filterSubscription != null) {
+            return;
+        }
+        if (inventoryPager == null || !inventoryPager.hasMorePages() || inventoryPager.isLoading()) {
+            return;
+        }
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager == null) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible + PAGE_PREFETCH_DISTANCE >= inventoryAdapter.getItemCount()) {
+            loadNextPage();
+        }
+    }
+
+
     /**
      * Toggles the layout mode of the `RecyclerView` between list view and grid view.
      * <p>
-     * This method switches the current layout manager and updates the adapter to reflect
-     * the selected layout mode. It also stores the user's layout preference persistently
-     * in shared preferences to retain the selection across application sessions.
+     * This method switches the current layout manager and the view type of the existing adapter,
+     * keeping the first visible item at the same place on screen. It also stores the user's layout
+     * preference persistently in shared preferences to retain the selection across application sessions.
      * <p>
      * The method performs the following steps: <p>
      * 1. Toggles the `isListView` field, indicating the current layout mode. <p>
      * 2. Updates the shared preferences with the new layout mode. <p>
-     * 3. Calls the `setLayoutManager` method to adjust the `RecyclerView`'s layout manager
+     * 3. Records the first visible item and its offset from the top of the list. <p>
+     * 4. Switches the adapter to the view type of the new layout mode. <p>
+     * 5. Calls the `setLayoutManager` method to adjust the `RecyclerView`'s layout manager
      *    based on the updated `isListView` value. <p>
-     * 4. Instantiates a new `InventoryAdapter` with the updated layout mode and sets it
-     *    to the `RecyclerView`. <p>
+     * 6. Scrolls the new layout manager back to the recorded item and offset. <p>
      * <p>
      * Note:
      * - Shared preferences key `view_preference` is used to save and retrieve the user's layout preference.
-     * - The `InventoryAdapter` requires the inventory data and current layout mode to initialize.
+     * - The rows being replaced go back to the shared `InventoryViewPool`, and the rows of the new
+     *   layout are taken from it, so no ViewHolders are inflated once the pool has been prewarmed.
      */
     protected void toggleLayoutManager() {
-        isListView = !isListView;
+        TraceSection.begin("MainActivity.toggleLayoutManager");
+        try {
+            isListView = !isListView;
+
+            SharedPreferences sharedPreferences = getSharedPreferences("user_session", MODE_PRIVATE);
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            editor.putBoolean("view_preference", isListView);
+            editor.apply();
+
+            // Both layout managers are LinearLayoutManagers, so the scroll position carries over directly
+            LinearLayoutManager previousLayoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+            int firstVisible = RecyclerView.NO_POSITION;
+            int firstVisibleOffset = 0;
+            if (previousLayoutManager != null) {
+                firstVisible = previousLayoutManager.findFirstVisibleItemPosition();
+                View firstVisibleView = previousLayoutManager.findViewByPosition(firstVisible);
+                if (firstVisibleView != null) {
+                    firstVisibleOffset = firstVisibleView.getTop() - recyclerView.getPaddingTop();
+                }
+            }
 
-        SharedPreferences sharedPreferences = getSharedPreferences("user_session", MODE_PRIVATE);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean("view_preference", isListView);
-        editor.apply();
+            // The adapter must be switched to the new view type before the new layout manager lays out rows
+            if (inventoryAdapter != null) {
+                inventoryAdapter.setListView(isListView);
+            }
+            setLayoutManager();
 
-        setLayoutManager();
-        inventoryAdapter = new InventoryAdapter(inventoryItemList, isListView, firebaseDbHelper);
-        recyclerView.setAdapter(inventoryAdapter);
+            if (firstVisible != RecyclerView.NO_POSITION) {
+                ((LinearLayoutManager) recyclerView.getLayoutManager())
+                        .scrollToPositionWithOffset(firstVisible, firstVisibleOffset);
+            }
+        } finally {
+            TraceSection.end();
+        }
     }
 
 
@@ -269,14 +757,17 @@ public class MainActivity extends AppCompatActivity {
      * Configures the layout manager for the RecyclerView based on the current layout mode.
      * <p>
      * This method checks the `isListView` field to determine whether the RecyclerView
-     * should use a linear or grid layout. It then sets an appropriate instance of
-     * `LinearLayoutManager` or `GridLayoutManager` to the RecyclerView.
+     * should use a linear or grid layout. It then sets the activity's single instance of
+     * `LinearLayoutManager` or `GridLayoutManager` to the RecyclerView, and sizes the
+     * RecyclerView's off-screen view cache for that layout.
      * <p>
      * Behavior:
      * - If `isListView` is true, the RecyclerView is configured with a `LinearLayoutManager`
      *   to display items in a vertical list format.
      * - If `isListView` is false, a `GridLayoutManager` is applied with 2 columns to display
      *   items in a grid format.
+     * - Both layout managers prefetch the rows about to scroll into view while the main thread
+     *   is idle between frames.
      * <p>
      * Dependencies:
      * - `recyclerView` is the RecyclerView instance associated with the activity.
@@ -287,11 +778,15 @@ public class MainActivity extends AppCompatActivity {
      * invoking this method.
      */
     private void setLayoutManager() {
-        if (isListView) {
-            recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        } else {
-            recyclerView.setLayoutManager(new GridLayoutManager(this, 2));
+        LinearLayoutManager layoutManager = isListView ? listLayoutManager : gridLayoutManager;
+        if (recyclerView.getLayoutManager() == layoutManager) {
+            return;
         }
+
+        layoutManager.setItemPrefetchEnabled(true);
+        recyclerView.setItemViewCacheSize(inventoryViewPool.getItemViewCacheSize(
+                isListView ? InventoryAdapter.VIEW_TYPE_LIST : InventoryAdapter.VIEW_TYPE_GRID));
+        recyclerView.setLayoutManager(layoutManager);
     }
 
 
@@ -306,13 +801,17 @@ public class MainActivity extends AppCompatActivity {
      * <p>
      * Behavior:
      * - The {@link android.widget.SearchView.OnQueryTextChange} callback is triggered as the user types. <p>
-     * - The method performs a case-insensitive comparison between the input text and the names of
-     *   inventory items to determine matching items. <p>
-     * - A new {@link InventoryAdapter} instance is created with the filtered list and is set to the
-     *   RecyclerView to display the matching results immediately. <p>
+     * - The query is answered by the {@link InventorySearchIndex}, which matches each typed word as a
+     *   case-insensitive prefix of a word in an item's name, description, or tag, and only returns
+     *   items matching every word. No per-keystroke scan of the inventory is performed. <p>
+     * - With "Fuzzy Search" checked in the menu, the query is answered by the
+     *   {@link InventoryFuzzyIndex} instead, which also finds item names and tags with typos and,
+     *   until a sort order is chosen, lists the closest matches first. <p>
+     * - The query is set on the {@link LiveInventoryView}, so the active tag filter and sort order
+     *   stay in effect, and later remote changes keep being matched against the query. <p>
      * <p>
      * Note:
-     * - This method assumes that `recyclerView` and `inventoryItemList` are properly initialized
+     * - This method assumes that `recyclerView` and `liveInventoryView` are properly initialized
      *   before invocation. It uses these fields to update the list dynamically in response to the
      *   search query. <p>
      * - The search functionality does not depend on whether the layout mode is a list or grid, as
@@ -328,13 +827,12 @@ public class MainActivity extends AppCompatActivity {
 
             @Override
             public boolean onQueryTextChange(String search) {
-                ArrayList<InventoryItem> seachedItemList = new ArrayList<>();
-                for (InventoryItem item : inventoryItemList) {
-                    if (item.getName().toLowerCase().contains(search.toLowerCase())) {
-                        seachedItemList.add(item);
-                    }
+                TraceSection.begin("MainActivity.search");
+                try {
+                    liveInventoryView.setQuery(search);
+                } finally {
+                    TraceSection.end();
                 }
-                inventoryAdapter.setItems(seachedItemList);
                 return false;
             }
         });
@@ -346,66 +844,157 @@ public class MainActivity extends AppCompatActivity {
      * utilizes the inventory adapter to display only the inventory items that match
      * the specified category criteria.
      * <p>
+     * The tag is set on the {@link LiveInventoryView}, which shows the loaded items carrying it
+     * straight away from its {@link InventoryTagIndex} bucket, keeping the active search and sort
+     * order in effect. The filter is also pushed down to the database through
+     * {@link FirebaseDatabaseHelper#syncItemsByTag}, so matching items on pages that have not been
+     * loaded yet are downloaded and added to the view as well.
+     * <p>
      * @param category The category to filter the inventory items by. Only items
      *                 belonging to this category will be displayed.
      */
     private void applyFilter(String category) {
-        if (category.equals("All")) {
-            resetFilter();
-            return;
+        TraceSection.begin("MainActivity.applyFilter");
+        try {
+            stopFilterQuery();
+            if (category.equals("All")) {
+                resetFilter();
+                return;
+            }
+
+            liveInventoryView.setTag(category);
+
+            // Items already loaded are kept up to date by the main sync engine; the narrowed query
+            // only supplies the matches that have not been paged in
+            filterSyncEngine = newSyncEngine();
+            filterSyncEngine.addListener(new InventorySyncEngine.Listener() {
+                @Override
+                public void onItemAdded(@NonNull InventoryItem item) {
+                    if (inventorySyncEngine.getItem(item.getId()) == null) {
+                        liveInventoryView.addItem(item);
+                    }
+                }
+
+                @Override
+                public void onItemChanged(@NonNull InventoryItem previous, @NonNull InventoryItem item) {
+                    onItemAdded(item);
+                }
+
+                @Override
+                public void onItemRemoved(@NonNull InventoryItem item) {
+                    if (inventorySyncEngine.getItem(item.getId()) == null) {
+                        liveInventoryView.removeItem(item.getId());
+                    }
+                }
+
+                @Override
+                public void onSyncCancelled(@NonNull DatabaseError error) {
+                    Toast.makeText(MainActivity.this, "Failed to load data", Toast.LENGTH_SHORT).show();
+                }
+            });
+            filterSubscription = firebaseDbHelper.syncItemsByTag(category, filterSyncEngine, null);
+        } finally {
+            TraceSection.end();
         }
+    }
+
 
-        ArrayList<InventoryItem> filteredItemList = new ArrayList<>();
-        for (InventoryItem item : inventoryItemList) {
-            if (item.getTag() != null && item.getTag().equalsIgnoreCase(category)) {
-                filteredItemList.add(item);
+    /**
+     * Detaches the listener on the narrowed tag query, if a filter is active, so that no further
+     * filtered results are delivered, and removes the items it supplied that were never loaded
+     * through the main sync engine.
+     */
+    private void stopFilterQuery() {
+        if (filterSubscription != null) {
+            filterSubscription.close();
+            filterSubscription = null;
+            for (InventoryItem item : filterSyncEngine.getItems()) {
+                if (inventorySyncEngine.getItem(item.getId()) == null) {
+                    liveInventoryView.removeItem(item.getId());
+                }
             }
+            filterSyncEngine = null;
         }
-        inventoryAdapter.setItems(filteredItemList);
     }
 
 
     /**
-     * Resets the inventory filter and displays the full list of inventory items in the RecyclerView.
-     * <p>
-     * This method creates a new instance of the {@code InventoryAdapter} with the full inventory data and
-     * the current layout mode. The adapter is then set to the {@code recyclerView}, effectively clearing
-     * any applied filters or search results.
+     * Resets the inventory filter and displays every loaded inventory item that matches the active
+     * search, in the active sort order.
      * <p>
      * Behavior:
-     * - Utilizes the {@code InventoryAdapter} to rebind the complete inventory list. <p>
-     * - Maintains the current layout mode (list or grid) as indicated by the {@code isListView} parameter. <p>
-     * <p>
-     * Dependencies:
-     * - {@code recyclerView}: The RecyclerView instance to display inventory items. <p>
-     * - {@code inventoryItemList}: The list containing all inventory items to be displayed. <p>
-     * - {@code isListView}: A boolean determining the current layout mode. <p>
+     * - Detaches the narrowed tag query, if one is active. <p>
+     * - Clears the tag of the {@link LiveInventoryView}, which passes the widened list on to the
+     *   {@code InventoryAdapter} to be diffed against the displayed rows. <p>
      * <p>
      * Note:
      * - This method should be called when the filter has to be cleared and the entire inventory needs to
      *   be displayed. <p>
      */
     public void resetFilter() {
-        inventoryAdapter.setItems(new ArrayList<>(inventoryItemList));
+        TraceSection.begin("MainActivity.resetFilter");
+        try {
+            stopFilterQuery();
+            liveInventoryView.setTag(null);
+        } finally {
+            TraceSection.end();
+        }
     }
 
 
     /**
-     * Sets the sort order for the inventory list and updates the adapter with the sorted order.
+     * Sets the sort order for the inventory list. The {@link LiveInventoryView} keeps the order of
+     * the displayed items by their precomputed name keys, and switching between ascending and
+     * descending only reverses the displayed list; the active search and filter stay in effect.
      *
      * @param ascending a boolean indicating whether the inventory list should be sorted
      *                  in ascending order (true) or descending order (false)
      */
     private void setSortOrder(boolean ascending) {
-
-        ArrayList<InventoryItem> sortedItemList = new ArrayList<>();
-        if (ascending) {
-            sortedItemList.addAll(inventoryItemList.stream().sorted().collect(Collectors.toList()));
-        } else {
-            sortedItemList.addAll(inventoryItemList.stream().sorted(Collections.reverseOrder()).collect(Collectors.toList()));
+        TraceSection.begin("MainActivity.setSortOrder");
+        try {
+            liveInventoryView.setSortOrder(ascending
+                    ? LiveInventoryView.SortOrder.ASCENDING
+                    : LiveInventoryView.SortOrder.DESCENDING);
+        } finally {
+            TraceSection.end();
         }
+    }
+
+
+    /**
+     * Creates the listener applying each change of the {@link LiveInventoryView} to the adapter.
+     * Single-item changes are applied at their position; a replaced list is diffed by the adapter.
+     * <p>
+     * @return the listener for the live view
+     */
+    private LiveInventoryView.Listener newLiveViewListener() {
+        return new LiveInventoryView.Listener() {
+            @Override
+            public void onItemInserted(int position, @NonNull InventoryItem item) {
+                inventoryAdapter.insertItem(position, item);
+            }
 
-        inventoryAdapter.setItems(sortedItemList);
+            @Override
+            public void onItemRemoved(int position, @NonNull InventoryItem item) {
+                inventoryAdapter.removeItemAt(position);
+            }
+
+            @Override
+            public void onItemMoved(int fromPosition, int toPosition, @NonNull InventoryItem item) {
+                inventoryAdapter.moveItem(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onItemChanged(int position, @NonNull InventoryItem previous, @NonNull InventoryItem item) {
+                inventoryAdapter.setItemAt(position, item);
+            }
+
+            @Override
+            public void onListReplaced(@NonNull List<InventoryItem> items) {
+                inventoryAdapter.setItems(items);
+            }
+        };
     }
 
 
@@ -446,9 +1035,8 @@ public class MainActivity extends AppCompatActivity {
                 builder.setMessage("Are you sure you want to delete \"" + itemToDelete.getName() + "\"?");
 
                 builder.setPositiveButton("Yes", (dialog, which) -> {
-                    firebaseDbHelper.deleteItem(itemToDelete.getId());
-                    inventoryItemList.removeIf( v -> v.getId().equals(itemToDelete.getId()));
-                    inventoryAdapter.removeItem(itemToDelete);
+                    // The row is removed at once through the sync engine, and restored if the delete is rejected
+                    pendingWriteTracker.deleteItem(itemToDelete.getId());
                 });
 
                 builder.setNegativeButton("No", (dialog, which) -> {
@@ -590,7 +1178,7 @@ public class MainActivity extends AppCompatActivity {
             try {
                 dialog.dismiss();
 
-                InventoryItem newItem = new InventoryItem();
+                InventoryItem.Builder newItem = InventoryItem.builder();
                 newItem.setName(inputName.getText().toString());
                 newItem.setQuantity(Integer.parseInt(inputQuantity.getText().toString()));
                 newItem.setTag(inputTag.getText().toString());
@@ -603,10 +1191,8 @@ public class MainActivity extends AppCompatActivity {
                 if (!inputTag.getText().toString().isEmpty()) { itemTag = inputTag.getText().toString(); }
                 newItem.setDescription(itemTag);
 
-                firebaseDbHelper.addItem(newItem);
-                inventoryItemList.add(newItem);
-
-                inventoryAdapter.notifyItemInserted(inventoryItemList.size() - 1);
+                // The new row is inserted by the sync engine's onItemAdded event
+                firebaseDbHelper.addItem(newItem.build());
 
                 Toast.makeText(this, "Item added successfully", Toast.LENGTH_SHORT).show();
             } catch (Exception e) {
@@ -636,31 +1222,57 @@ public class MainActivity extends AppCompatActivity {
      * - Selecting a specific tag filters the inventory to match the selected category. <p>
      * <p>
      * Steps: <p>
-     * - The tag list is first updated with the "All" option at index 0. <p>
-     * - An {@link ArrayAdapter} is configured with tagList and applied to the {@link Spinner}. <p>
+     * - An {@link ArrayAdapter} is configured with the "All" option at index 0 and applied to the
+     *   {@link Spinner}. It is created once and updated in place by the {@link InventoryTagIndex},
+     *   which adds a tag when its first item arrives and removes it when its last item is gone.
+     *   Adding or removing an entry shifts the positions after it without a selection event, so
+     *   the selected tag is re-selected by name after each change, falling back to "All" if it
+     *   was removed. <p>
      * - An {@link android.widget.AdapterView.OnItemSelectedListener} is set to listen and respond
      * to item selection events. It calls {@code applyFilter()} with the selected tag to filter
-     * the inventory list. <p>
+     * the inventory list, unless that tag is already applied. <p>
      * <p>
-     * Note: Ensure that `tagList` contains the relevant tags and the {@code Spinner} component
+     * Note: Ensure that `liveInventoryView` is initialized and the {@code Spinner} component
      * is properly initialized in the corresponding layout resource.
      */
     private void initSpinner() {
         Spinner spinner = findViewById(R.id.tagListSpinner);
-        tagList.add(0, "All");
+        List<String> spinnerTags = new ArrayList<>();
+        spinnerTags.add("All");
+        spinnerTags.addAll(liveInventoryView.getTagIndex().getTags());
 
         // Create ArrayAdapter for Spinner
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, tagList);
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        tagSpinnerAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, spinnerTags);
+        tagSpinnerAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+
+        // Keep the Spinner entries in step with the tag index
+        liveInventoryView.getTagIndex().setListener(new InventoryTagIndex.Listener() {
+            @Override
+            public void onTagAdded(@NonNull String tag) {
+                tagSpinnerAdapter.add(tag);
+                reselectSpinnerTag(spinner);
+            }
+
+            @Override
+            public void onTagRemoved(@NonNull String tag) {
+                tagSpinnerAdapter.remove(tag);
+                reselectSpinnerTag(spinner);
+            }
+        });
 
         // Set adapter to the Spinner
-        spinner.setAdapter(adapter);
+        spinner.setAdapter(tagSpinnerAdapter);
 
         // Implement logic when an item is selected from the Spinner to filter the inventory
         spinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 String selectedTag = parent.getItemAtPosition(position).toString();
+                if (selectedTag.equals(selectedSpinnerTag)) {
+                    // Re-selected after the entries shifted; the filter is already applied
+                    return;
+                }
+                selectedSpinnerTag = selectedTag;
                 applyFilter(selectedTag);
             }
 
@@ -669,4 +1281,27 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+
+    /**
+     * Moves the Spinner selection back onto the applied tag after an entry was added or removed.
+     * If the tag itself was removed, the filter falls back to "All" explicitly, since the Spinner
+     * does not report a selection change when its selected entry disappears.
+     * <p>
+     * @param spinner the tag Spinner
+     */
+    private void reselectSpinnerTag(Spinner spinner) {
+        int position = selectedSpinnerTag == null ? -1 : tagSpinnerAdapter.getPosition(selectedSpinnerTag);
+        if (position < 0) {
+            spinner.setSelection(0, false);
+            if (selectedSpinnerTag != null && !selectedSpinnerTag.equals("All")) {
+                selectedSpinnerTag = "All";
+                applyFilter("All");
+            }
+            return;
+        }
+        if (spinner.getSelectedItemPosition() != position) {
+            spinner.setSelection(position, false);
+        }
+    }
+
 }
\ No newline at end of file
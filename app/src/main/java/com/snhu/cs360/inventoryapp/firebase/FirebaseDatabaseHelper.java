@@ -1,14 +1,35 @@
 package com.snhu.cs360.inventoryapp.firebase;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+import com.snhu.cs360.inventoryapp.local.LocalInventoryStore;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.util.Map;
 
 
 public class FirebaseDatabaseHelper {
 
 
+    // Subscription key of the whole inventory node
+    static final String KEY_INVENTORY = "inventory";
+
     private final DatabaseReference databaseReference;
+    private final LocalInventoryStore localStore;
+    private final OperationMetrics metrics = OperationMetrics.getInstance();
+    private final SubscriptionManager subscriptions = new SubscriptionManager();
 
 
     /**
@@ -17,7 +38,32 @@ public class FirebaseDatabaseHelper {
      * such as adding, updating, fetching, and deleting inventory items.
      */
     public FirebaseDatabaseHelper(DatabaseReference reference) {
+        this(reference, null);
+    }
+
+
+    /**
+     * Initializes a FirebaseDatabaseHelper instance that also writes every add, update, and delete
+     * through to a local persistent store, so the local copy reflects edits made while offline.
+     * <p>
+     * @param reference the "inventory" node in the Firebase Realtime Database
+     * @param localStore the local store to write through to, or {@code null} for none
+     */
+    public FirebaseDatabaseHelper(DatabaseReference reference, LocalInventoryStore localStore) {
         this.databaseReference = reference;
+        this.localStore = localStore;
+    }
+
+
+    /**
+     * Returns the manager owning every live listener registered through this helper. Binding it to
+     * the lifecycle of the screen using the helper detaches the listeners while the screen is stopped
+     * and removes them when it is destroyed.
+     * <p>
+     * @return the {@link SubscriptionManager} of this helper
+     */
+    public SubscriptionManager getSubscriptions() {
+        return subscriptions;
     }
 
 
@@ -26,24 +72,105 @@ public class FirebaseDatabaseHelper {
      * for the item and storing it under the "inventory" node.
      * <p>
      * @param item the inventory item to be added to the database
+     * @return a copy of the item carrying its generated ID, or {@code null} if no ID could be generated
      */
-    public void addItem(InventoryItem item) {
+    public InventoryItem addItem(InventoryItem item) {
         String itemId = databaseReference.push().getKey(); // Auto-generate unique ID
-        if (itemId != null) {
-            databaseReference.child(itemId).setValue(item);
+        if (itemId == null) {
+            return null;
         }
+        InventoryItem storedItem = item.withId(itemId);
+        Map<String, Object> values = InventoryItemCodec.toMap(storedItem);
+        databaseReference.child(itemId).setValue(values,
+                timed(OperationMetrics.Operation.ADD_ITEM, values, null));
+        if (localStore != null) {
+            localStore.saveItem(storedItem);
+        }
+        return storedItem;
+    }
+
+
+    /**
+     * Starts a new batch of writes on the inventory node. Adds, updates, field changes, and
+     * deletes recorded on the batch are sent together as multi-location updates when it is
+     * committed, rather than as one round trip per item.
+     * <p>
+     * @return an empty {@link InventoryBatch}
+     */
+    public InventoryBatch batch() {
+        return new InventoryBatch(databaseReference, localStore, InventoryBatch.DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+
+    /**
+     * Generates a new unique, chronologically ordered key on the inventory node without writing
+     * anything.
+     * <p>
+     * @return the key, or {@code null} if no key could be generated
+     */
+    public String newItemId() {
+        return databaseReference.push().getKey();
     }
 
 
     /**
      * Fetches all items from the Firebase database and listens for real-time updates.
-     * This method adds a ValueEventListener to the database reference, which triggers
-     * the provided listener whenever the data changes.
+     * This method subscribes the provided listener to the value of the inventory node, which
+     * is delivered whenever the data changes, until the returned subscription is closed.
      * <p>
      * @param listener the ValueEventListener to handle database events and updates
+     * @return the subscription, closed to stop listening
+     */
+    public SubscriptionManager.Subscription fetchItems(ValueEventListener listener) {
+        return subscriptions.subscribe(KEY_INVENTORY, databaseReference, listener);
+    }
+
+
+    /**
+     * Starts a paged subscription to the inventory node. Nothing is fetched until
+     * {@link InventoryPager#loadNextPage} is called; each loaded page then delivers its items, and
+     * later changes to them, to the provided listener.
+     * <p>
+     * @param listener the ChildEventListener to receive per-item events for loaded pages
+     * @param pageSize the number of items fetched per page
+     * @return the {@link InventoryPager} controlling which pages are loaded
      */
-    public void fetchItems(ValueEventListener listener) {
-        databaseReference.addValueEventListener(listener);
+    public InventoryPager pageItems(ChildEventListener listener, int pageSize) {
+        return new InventoryPager(databaseReference, listener, pageSize, subscriptions);
+    }
+
+
+    /**
+     * Returns a query matching only the items carrying the given tag, evaluated by the database so
+     * that non-matching items are never downloaded. Tags are matched on the normalized
+     * {@code tagKey} field, ignoring case and surrounding spaces just like
+     * {@link com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex}. Relies on the
+     * {@code .indexOn} rule for {@code tagKey} in {@code database.rules.json}.
+     * <p>
+     * @param tag the tag to match
+     * @return the narrowed query
+     */
+    public Query queryItemsByTag(String tag) {
+        return databaseReference.orderByChild(InventoryItemCodec.FIELD_TAG_KEY)
+                .equalTo(InventoryTagIndex.normalize(tag));
+    }
+
+
+    /**
+     * Subscribes to child-level events for the items carrying the given tag, using the query of
+     * {@link #queryItemsByTag}. Subscriptions for the same tag, in any case, share one database
+     * listener.
+     * <p>
+     * @param tag the tag to match
+     * @param listener the ChildEventListener to receive per-item events for matching items
+     * @param initialLoadCallback run once every item matching at subscription time has been delivered;
+     *                            may be {@code null}
+     * @return the subscription, closed to stop listening
+     */
+    public SubscriptionManager.Subscription syncItemsByTag(String tag, ChildEventListener listener,
+                                                           @Nullable Runnable initialLoadCallback) {
+        return subscriptions.subscribe(KEY_INVENTORY + "?tag=" + InventoryTagIndex.normalize(tag), queryItemsByTag(tag),
+                listener, initialLoadCallback);
     }
 
 
@@ -54,10 +181,93 @@ public class FirebaseDatabaseHelper {
      * @param updatedItem the updated inventory item data to replace the existing item in the database
      */
     public void updateItem(String itemId, InventoryItem updatedItem) {
+        updateItem(itemId, updatedItem, null);
+    }
+
+
+    /**
+     * Updates an existing inventory item and reports the outcome once the write has been committed
+     * or rejected by the server.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to be updated
+     * @param updatedItem the updated inventory item data to replace the existing item in the database
+     * @param completionListener called with {@code null} on success or the error on failure; may be {@code null}
+     */
+    public void updateItem(String itemId, InventoryItem updatedItem, @Nullable DatabaseReference.CompletionListener completionListener) {
         if (updatedItem.getId() == null) {
-            updatedItem.setId(itemId);
+            updatedItem = updatedItem.withId(itemId);
         }
-        databaseReference.child(itemId).setValue(updatedItem);
+        Map<String, Object> values = InventoryItemCodec.toMap(updatedItem);
+        databaseReference.child(itemId).setValue(values,
+                timed(OperationMetrics.Operation.UPDATE_ITEM, values, completionListener));
+        if (localStore != null) {
+            localStore.saveItem(updatedItem);
+        }
+    }
+
+
+    /**
+     * Atomically adjusts the quantity of an inventory item by the given amount.
+     * <p>
+     * Only the item's {@code quantity} child is touched, inside a Firebase transaction, so
+     * concurrent adjustments from several devices are all applied instead of overwriting each
+     * other, and the result is clamped at zero on the server side of the read-modify-write.
+     * Items that no longer exist are left untouched.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to adjust
+     * @param delta the amount to add to the quantity; negative values subtract
+     */
+    public void adjustQuantity(String itemId, int delta) {
+        adjustQuantity(itemId, delta, null);
+    }
+
+
+    /**
+     * Atomically adjusts the quantity of an inventory item by the given amount and reports the
+     * outcome once the transaction has been committed or has failed.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to adjust
+     * @param delta the amount to add to the quantity; negative values subtract
+     * @param completionListener called with {@code null} on success or the error on failure; may be {@code null}
+     */
+    public void adjustQuantity(String itemId, int delta, @Nullable DatabaseReference.CompletionListener completionListener) {
+        long startNanos = OperationMetrics.startTimer();
+        String traceName = OperationMetrics.Operation.ADJUST_QUANTITY.getLabel();
+        int traceCookie = TraceSection.nextCookie();
+        TraceSection.beginAsync(traceName, traceCookie);
+        DatabaseReference quantityReference = databaseReference.child(itemId).child("quantity");
+        quantityReference.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Long quantity = currentData.getValue(Long.class);
+                if (quantity != null) {
+                    currentData.setValue(clampQuantity(quantity, delta));
+                }
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot currentData) {
+                TraceSection.endAsync(traceName, traceCookie);
+                metrics.record(OperationMetrics.Operation.ADJUST_QUANTITY, startNanos, 0, error != null);
+                if (completionListener != null) {
+                    completionListener.onComplete(error, quantityReference);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Applies a quantity adjustment without letting the result drop below zero.
+     * <p>
+     * @param quantity the current quantity
+     * @param delta the amount to add; negative values subtract
+     * @return the adjusted quantity, never negative
+     */
+    static long clampQuantity(long quantity, long delta) {
+        return Math.max(0, quantity + delta);
     }
 
 
@@ -67,8 +277,51 @@ public class FirebaseDatabaseHelper {
      * @param itemId the unique identifier of the item to be deleted from the database
      */
     public void deleteItem(String itemId) {
-        databaseReference.child(itemId).removeValue()
-                .addOnFailureListener(Throwable::printStackTrace);
+        deleteItem(itemId, null);
+    }
+
+
+    /**
+     * Deletes an item and reports the outcome once the removal has been committed or rejected by
+     * the server. Without a listener, failures are only counted in the operation metrics; deletes
+     * made from the UI go through {@link PendingWriteTracker}, which restores the item and tells
+     * the user.
+     * <p>
+     * @param itemId the unique identifier of the item to be deleted from the database
+     * @param completionListener called with {@code null} on success or the error on failure; may be {@code null}
+     */
+    public void deleteItem(String itemId, @Nullable DatabaseReference.CompletionListener completionListener) {
+        databaseReference.child(itemId).removeValue(
+                timed(OperationMetrics.Operation.DELETE_ITEM, null, completionListener));
+        if (localStore != null) {
+            localStore.deleteItem(itemId);
+        }
+    }
+
+
+    /**
+     * Wraps a completion listener so the round trip of a write is recorded in the
+     * {@link OperationMetrics}, and marked as an asynchronous {@link TraceSection}, before the
+     * listener is called. The timer starts immediately.
+     * <p>
+     * @param operation the kind of write
+     * @param payload the raw value being written, or {@code null} for a deletion
+     * @param completionListener the listener to call afterwards; may be {@code null}
+     * @return the wrapping listener
+     */
+    private DatabaseReference.CompletionListener timed(OperationMetrics.Operation operation, @Nullable Object payload,
+                                                       @Nullable DatabaseReference.CompletionListener completionListener) {
+        long startNanos = OperationMetrics.startTimer();
+        long payloadBytes = payload == null ? 0 : InventoryItemCodec.estimateEncodedSize(payload);
+        int traceCookie = TraceSection.nextCookie();
+        TraceSection.beginAsync(operation.getLabel(), traceCookie);
+        return (error, reference) -> {
+            TraceSection.endAsync(operation.getLabel(), traceCookie);
+            metrics.record(operation, startNanos, payloadBytes, error != null);
+            if (completionListener != null) {
+                completionListener.onComplete(error, reference);
+            }
+        };
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,275 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+import com.snhu.cs360.inventoryapp.local.LocalInventoryStore;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Builder that accumulates inventory adds, updates, field changes, and deletes and commits them
+ * as multi-location updates on the inventory node, instead of one round trip per item.
+ * <p>
+ * Every write is recorded as a path relative to the inventory node ({@code <itemId>} for a whole
+ * item, {@code <itemId>/<field>} for a single field). On {@link #commit}, the paths are sent with
+ * {@link DatabaseReference#updateChildren}, which applies all of them atomically. Batches larger
+ * than the chunk size are split into several atomic updates, and the completion listener is
+ * called once, after the last chunk finishes, with the first error encountered (if any).
+ * <p>
+ * Whole-item writes reach the local store only once the chunk holding them has been accepted by
+ * the database, so a rejected chunk never leaves changes on disk that the server does not have.
+ * <p>
+ * Instances are obtained from {@link FirebaseDatabaseHelper#batch()} and are not thread-safe.
+ */
+public class InventoryBatch {
+
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 500;
+
+    private final DatabaseReference databaseReference;
+    private final LocalInventoryStore localStore;
+    private final int maxChunkSize;
+
+    private final Map<String, Object> pendingWrites = new LinkedHashMap<>();
+
+
+    /**
+     * Creates an empty batch against the given inventory node.
+     * <p>
+     * @param reference the "inventory" node in the Firebase Realtime Database
+     * @param localStore the local store to write whole-item changes through to, or {@code null}
+     * @param maxChunkSize the maximum number of paths sent in one atomic update
+     */
+    InventoryBatch(DatabaseReference reference, @Nullable LocalInventoryStore localStore, int maxChunkSize) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("maxChunkSize must be positive");
+        }
+        this.databaseReference = reference;
+        this.localStore = localStore;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+
+    /**
+     * Adds a new item under a freshly generated unique ID. The item is written with that ID in place
+     * of its own.
+     * <p>
+     * @param item the inventory item to add
+     * @return this batch, for chaining
+     */
+    public InventoryBatch add(@NonNull InventoryItem item) {
+        String itemId = databaseReference.push().getKey(); // Auto-generate unique ID
+        if (itemId != null) {
+            putWholeItem(itemId, item.withId(itemId));
+        }
+        return this;
+    }
+
+
+    /**
+     * Replaces an existing item with the given details.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to replace
+     * @param updatedItem the new item data
+     * @return this batch, for chaining
+     */
+    public InventoryBatch update(@NonNull String itemId, @NonNull InventoryItem updatedItem) {
+        putWholeItem(itemId, updatedItem.getId() == null ? updatedItem.withId(itemId) : updatedItem);
+        return this;
+    }
+
+
+    /**
+     * Sets a single field of an item, such as its tag or quantity, leaving the other fields as they
+     * are. If the same item is also being written whole in this batch, the field is merged into it.
+     * Setting the tag also sets the normalized tag that tag queries match on.
+     * <p>
+     * @param itemId the unique identifier of the inventory item
+     * @param field the name of the field, e.g. {@code "tag"}
+     * @param value the new value of the field
+     * @return this batch, for chaining
+     */
+    public InventoryBatch setField(@NonNull String itemId, @NonNull String field, @Nullable Object value) {
+        if (InventoryItemCodec.FIELD_TAG.equals(field)) {
+            String tagKey = InventoryTagIndex.normalize(value == null ? null : String.valueOf(value));
+            putField(itemId, InventoryItemCodec.FIELD_TAG_KEY, tagKey);
+        }
+        putField(itemId, field, value);
+        return this;
+    }
+
+
+    /**
+     * Records a single-field write, merging it into a whole-item write of the same item if there
+     * is one.
+     * <p>
+     * @param itemId the unique identifier of the inventory item
+     * @param field the name of the field
+     * @param value the new value of the field
+     */
+    @SuppressWarnings("unchecked")
+    private void putField(String itemId, String field, @Nullable Object value) {
+        if (pendingWrites.containsKey(itemId)) {
+            Object wholeItem = pendingWrites.get(itemId);
+            if (wholeItem != null) {
+                ((Map<String, Object>) wholeItem).put(field, value);
+            }
+            // Setting a field on an item deleted in this batch has no effect
+            return;
+        }
+
+        pendingWrites.put(itemId + "/" + field, value);
+    }
+
+
+    /**
+     * Deletes an item, discarding any other write to it in this batch.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to delete
+     * @return this batch, for chaining
+     */
+    public InventoryBatch delete(@NonNull String itemId) {
+        removeFieldWrites(itemId);
+        pendingWrites.put(itemId, null);
+        return this;
+    }
+
+
+    /**
+     * Returns the number of paths that will be written by this batch.
+     * <p>
+     * @return the number of pending path writes
+     */
+    public int size() {
+        return pendingWrites.size();
+    }
+
+
+    /**
+     * Commits every accumulated write as one or more atomic multi-location updates and clears
+     * the batch.
+     * <p>
+     * @param completionListener called once after every chunk has completed, with {@code null} on
+     *                           success or the first error encountered; may be {@code null}
+     */
+    public void commit(@Nullable DatabaseReference.CompletionListener completionListener) {
+        List<Map<String, Object>> chunks = buildChunks();
+        pendingWrites.clear();
+
+        if (chunks.isEmpty()) {
+            if (completionListener != null) {
+                completionListener.onComplete(null, databaseReference);
+            }
+            return;
+        }
+
+        int[] remaining = { chunks.size() };
+        DatabaseError[] firstError = { null };
+
+        OperationMetrics metrics = OperationMetrics.getInstance();
+        for (Map<String, Object> chunk : chunks) {
+            long startNanos = OperationMetrics.startTimer();
+            long payloadBytes = InventoryItemCodec.estimateEncodedSize(chunk);
+            int traceCookie = TraceSection.nextCookie();
+            TraceSection.beginAsync(OperationMetrics.Operation.BATCH_COMMIT.getLabel(), traceCookie);
+            databaseReference.updateChildren(chunk, (error, reference) -> {
+                TraceSection.endAsync(OperationMetrics.Operation.BATCH_COMMIT.getLabel(), traceCookie);
+                metrics.record(OperationMetrics.Operation.BATCH_COMMIT, startNanos, payloadBytes, error != null);
+                if (error == null) {
+                    writeThroughToLocalStore(chunk);
+                } else if (firstError[0] == null) {
+                    firstError[0] = error;
+                }
+                if (--remaining[0] == 0 && completionListener != null) {
+                    completionListener.onComplete(firstError[0], databaseReference);
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Splits the pending writes into chunks of at most {@code maxChunkSize} paths.
+     * <p>
+     * @return the chunks, in insertion order
+     */
+    private List<Map<String, Object>> buildChunks() {
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        Map<String, Object> chunk = new HashMap<>();
+
+        for (Map.Entry<String, Object> write : pendingWrites.entrySet()) {
+            chunk.put(write.getKey(), write.getValue());
+            if (chunk.size() == maxChunkSize) {
+                chunks.add(chunk);
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+
+    /**
+     * Applies the whole-item writes and deletes of a committed chunk to the local store.
+     * Single-field writes are left for the sync engine to deliver, since the rest of the item is
+     * not known here.
+     * <p>
+     * @param chunk the paths of a chunk the database has accepted
+     */
+    private void writeThroughToLocalStore(Map<String, Object> chunk) {
+        if (localStore == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Object> write : chunk.entrySet()) {
+            String path = write.getKey();
+            if (path.indexOf('/') >= 0) {
+                continue;
+            }
+
+            if (write.getValue() == null) {
+                localStore.deleteItem(path);
+            } else {
+                localStore.saveItem(InventoryItemCodec.decode(path, write.getValue()));
+            }
+        }
+    }
+
+
+    /**
+     * Records a whole-item write, replacing any earlier field writes to the same item.
+     * <p>
+     * @param itemId the unique identifier of the inventory item
+     * @param item the item to write
+     */
+    private void putWholeItem(String itemId, InventoryItem item) {
+        removeFieldWrites(itemId);
+        pendingWrites.put(itemId, InventoryItemCodec.toMap(item));
+    }
+
+
+    /**
+     * Drops any pending single-field writes under an item, so they never conflict with a write
+     * to the item itself (Firebase rejects updates containing both a path and its ancestor).
+     * <p>
+     * @param itemId the unique identifier of the inventory item
+     */
+    private void removeFieldWrites(String itemId) {
+        String prefix = itemId + "/";
+        pendingWrites.keySet().removeIf(path -> path.startsWith(prefix));
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Hand-written mapping between {@link InventoryItem} and the plain values stored in the Realtime
+ * Database.
+ * <p>
+ * {@code DataSnapshot.getValue(InventoryItem.class)} and {@code setValue(item)} discover the bean's
+ * properties through reflection for every item read or written. This codec instead reads the raw
+ * value tree ({@code Map}, {@code Long}, {@code String}) that Firebase has already parsed and copies
+ * each field directly, and builds the field map for writes the same way. The stored layout is
+ * the one produced by the reflective mapper, plus a derived {@code tagKey} field holding the
+ * normalized tag ({@link InventoryTagIndex#normalize}) that tag queries are evaluated on; the
+ * derived field is ignored when reading, so both can read each other's data.
+ * <p>
+ * The codec depends only on the model classes, not on the Firebase SDK, so it can also be compiled
+ * and measured on a plain JVM.
+ */
+public final class InventoryItemCodec {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_QUANTITY = "quantity";
+    static final String FIELD_TAG = "tag";
+    static final String FIELD_TAG_KEY = "tagKey";
+
+
+    private InventoryItemCodec() {
+    }
+
+
+    /**
+     * Decodes the raw value of one item, as returned by {@code DataSnapshot.getValue()}.
+     * <p>
+     * Missing fields are left {@code null} (or 0 for the quantity), and values of an unexpected
+     * type are converted leniently rather than rejected, so a single malformed child does not stop
+     * the rest of the inventory from loading.
+     * <p>
+     * @param itemId the unique identifier of the item, normally the child key
+     * @param value the raw value of the child
+     * @return the decoded item, or {@code null} if the value is not a field map
+     */
+    @Nullable
+    public static InventoryItem decode(@Nullable String itemId, @Nullable Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+
+        Map<?, ?> fields = (Map<?, ?>) value;
+        return new InventoryItem(itemId,
+                asString(fields.get(FIELD_NAME)),
+                asString(fields.get(FIELD_DESCRIPTION)),
+                asInt(fields.get(FIELD_QUANTITY)),
+                asString(fields.get(FIELD_TAG)));
+    }
+
+
+    /**
+     * Converts an item into the field map written to the database.
+     * <p>
+     * @param item the item to be written
+     * @return a new mutable map of the item's fields
+     */
+    @NonNull
+    public static Map<String, Object> toMap(@NonNull InventoryItem item) {
+        Map<String, Object> values = new HashMap<>(8);
+        values.put(FIELD_ID, item.getId());
+        values.put(FIELD_NAME, item.getName());
+        values.put(FIELD_DESCRIPTION, item.getDescription());
+        values.put(FIELD_QUANTITY, item.getQuantity());
+        values.put(FIELD_TAG, item.getTag());
+        values.put(FIELD_TAG_KEY, InventoryTagIndex.normalize(item.getTag()));
+        return values;
+    }
+
+
+    /**
+     * Estimates the size of a raw value tree once encoded as JSON, as sent to or received from the
+     * database. Strings are counted one byte per character, so the result is approximate for
+     * non-ASCII text; it is meant for payload metrics, not for enforcing limits.
+     * <p>
+     * @param value a raw value, such as the result of {@link #toMap} or {@code DataSnapshot.getValue()}
+     * @return the estimated size in bytes
+     */
+    public static long estimateEncodedSize(@Nullable Object value) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() + 2;
+        }
+        if (value instanceof Map) {
+            // Null children are not stored, so they are not counted
+            long size = 1;
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                if (field.getValue() != null) {
+                    size += String.valueOf(field.getKey()).length() + 4 + estimateEncodedSize(field.getValue());
+                }
+            }
+            return Math.max(2, size);
+        }
+        return String.valueOf(value).length();
+    }
+
+
+    /**
+     * Reads a text field.
+     * <p>
+     * @param value the raw field value
+     * @return the value as a string, or {@code null} if it is missing
+     */
+    @Nullable
+    private static String asString(@Nullable Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return String.valueOf(value);
+    }
+
+
+    /**
+     * Reads a numeric field. Firebase stores whole numbers as {@code Long}.
+     * <p>
+     * @param value the raw field value
+     * @return the value as an int, or 0 if it is missing or not a number
+     */
+    private static int asInt(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+}
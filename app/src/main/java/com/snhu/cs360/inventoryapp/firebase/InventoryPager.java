@@ -0,0 +1,412 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Loads the inventory node one key-ordered page at a time, so the cost of opening the inventory
+ * depends on the page size rather than on the total number of items.
+ * <p>
+ * Each page is a child listener on {@code orderByKey().startAfter(lastKey).limitToFirst(pageSize)},
+ * subscribed through a {@link SubscriptionManager}, whose load marker reports when the page's
+ * children have all been delivered. The page is downloaded once: the same listener then keeps
+ * delivering live updates and deletions for it, and its end key is taken from the children it
+ * delivered. When a deletion shrinks a full page, the database slides the next key into its
+ * window; events for keys past the page's end are dropped here, since the following page delivers
+ * them. When a key is inserted within a full page, as an imported item with an explicit ID may be,
+ * the database pushes the page's last child out of the window and reports it as removed; each
+ * removal from a full page is therefore checked with a read of the child before it is passed on,
+ * and once a child is found to have been pushed out, the page switches to a listener on its exact
+ * key range. The final, short page is left open-ended, so newly pushed items (whose keys sort last)
+ * appear as they are added; once it fills up, its end is fixed and the following page is loaded.
+ * <p>
+ * Keys are compared in the database's key order: keys that are 32-bit integers first, by value,
+ * then every other key as a string.
+ * <p>
+ * Loaded pages are detached while the screen is stopped and only catch up on what changed when it
+ * starts again.
+ * <p>
+ * Instances are obtained from {@link FirebaseDatabaseHelper#pageItems} and are used on the main thread.
+ */
+public class InventoryPager {
+
+
+    /**
+     * Notified after each page has been loaded, on the main thread.
+     */
+    public interface PageCallback {
+
+        void onPageLoaded(int itemCount, boolean reachedEnd);
+
+        /**
+         * Called just before {@link #onPageLoaded} with the key range the page covers; every item
+         * in the range has then been delivered.
+         * <p>
+         * @param startAfterKey the key the range starts after, or {@code null} from the first key
+         * @param endKey the last key of the range, or {@code null} if the range is open-ended
+         */
+        default void onRangeLoaded(@Nullable String startAfterKey, @Nullable String endKey) { }
+
+        default void onPageFailed(@NonNull DatabaseError error) { }
+    }
+
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final DatabaseReference databaseReference;
+    private final ChildEventListener childListener;
+    private final int pageSize;
+    private final SubscriptionManager subscriptions;
+
+    private final List<Page> pages = new ArrayList<>();
+    private String lastKey;
+    private boolean loading;
+    private boolean reachedEnd;
+    private boolean stopped;
+
+
+    /**
+     * Creates a pager that forwards live events for every loaded page to the given listener.
+     * <p>
+     * @param reference the "inventory" node in the Firebase Realtime Database
+     * @param childListener the listener receiving child events for loaded pages
+     * @param pageSize the number of items fetched per page
+     */
+    InventoryPager(DatabaseReference reference, ChildEventListener childListener, int pageSize) {
+        this(reference, childListener, pageSize, null);
+    }
+
+
+    /**
+     * Creates a pager that subscribes to every loaded page through a subscription manager.
+     * <p>
+     * @param reference the "inventory" node in the Firebase Realtime Database
+     * @param childListener the listener receiving child events for loaded pages
+     * @param pageSize the number of items fetched per page
+     * @param subscriptions the manager owning the page subscriptions, or {@code null} to use one
+     *                      private to this pager
+     */
+    InventoryPager(DatabaseReference reference, ChildEventListener childListener, int pageSize,
+                   @Nullable SubscriptionManager subscriptions) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.databaseReference = reference;
+        this.childListener = childListener;
+        this.pageSize = pageSize;
+        this.subscriptions = subscriptions != null ? subscriptions : new SubscriptionManager();
+    }
+
+
+    /**
+     * Fetches the next page, unless a page is already being fetched or the end has been reached.
+     * <p>
+     * @param callback notified once the page has been loaded; may be {@code null}
+     */
+    public void loadNextPage(@Nullable PageCallback callback) {
+        if (loading || reachedEnd || stopped) {
+            return;
+        }
+        loading = true;
+
+        String startAfterKey = lastKey;
+        Query pageQuery = databaseReference.orderByKey();
+        if (startAfterKey != null) {
+            pageQuery = pageQuery.startAfter(startAfterKey);
+        }
+        pageQuery = pageQuery.limitToFirst(pageSize);
+
+        Page page = new Page(startAfterKey, callback);
+        pages.add(page);
+        String pageKey = "inventory?page=" + (startAfterKey != null ? startAfterKey : "") + "+" + pageSize;
+        page.subscription = subscriptions.subscribe(pageKey, pageQuery, page, page::onLoaded);
+    }
+
+
+    /**
+     * Returns whether a page is currently being fetched.
+     * <p>
+     * @return {@code true} while a page request is in flight
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+
+    /**
+     * Returns whether more pages remain to be fetched.
+     * <p>
+     * @return {@code false} once a page shorter than the page size has been loaded
+     */
+    public boolean hasMorePages() {
+        return !reachedEnd;
+    }
+
+
+    /**
+     * Returns the number of pages currently receiving live updates.
+     * <p>
+     * @return the loaded page count
+     */
+    public int getLoadedPageCount() {
+        int loadedCount = 0;
+        for (Page page : pages) {
+            if (page.loaded) {
+                loadedCount++;
+            }
+        }
+        return loadedCount;
+    }
+
+
+    /**
+     * Detaches the live listener of every loaded page and stops loading further pages.
+     */
+    public void stop() {
+        stopped = true;
+        loading = false;
+        for (Page page : pages) {
+            page.subscription.close();
+        }
+        pages.clear();
+    }
+
+
+    /**
+     * Compares two keys in the order {@code orderByKey()} sorts them: keys that parse as 32-bit
+     * integers come first, in numeric order, followed by the other keys in string order.
+     * <p>
+     * @param first a child key
+     * @param second another child key
+     * @return a negative number, zero, or a positive number as the first key sorts before, with,
+     *         or after the second
+     */
+    static int compareKeys(@NonNull String first, @NonNull String second) {
+        Integer firstInt = parseIntegerKey(first);
+        Integer secondInt = parseIntegerKey(second);
+        if (firstInt != null && secondInt != null) {
+            int order = Integer.compare(firstInt, secondInt);
+            return order != 0 ? order : Integer.compare(first.length(), second.length());
+        }
+        if (firstInt != null) {
+            return -1;
+        }
+        if (secondInt != null) {
+            return 1;
+        }
+        return first.compareTo(second);
+    }
+
+
+    /*
+     * Returns the value of a key that the database treats as an integer, or null for other keys.
+     */
+    @Nullable
+    private static Integer parseIntegerKey(String key) {
+        int length = key.length();
+        if (length == 0 || length > 11) {
+            return null;
+        }
+        int index = key.charAt(0) == '-' ? 1 : 0;
+        if (index == length) {
+            return null;
+        }
+        long value = 0;
+        for (; index < length; index++) {
+            char c = key.charAt(index);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = key.charAt(0) == '-' ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return null;
+        }
+        return (int) value;
+    }
+
+
+    /**
+     * Child listener of one page, forwarding the events for keys within the page to the pager's listener.
+     */
+    private final class Page implements ChildEventListener {
+
+        private final String startAfterKey;
+        private final PageCallback callback;
+        private final OperationMetrics metrics = OperationMetrics.getInstance();
+        private final long startNanos = OperationMetrics.startTimer();
+        private final String traceName = OperationMetrics.Operation.PAGE_LOAD.getLabel();
+        private final int traceCookie = TraceSection.nextCookie();
+        SubscriptionManager.Subscription subscription;
+        boolean loaded;
+
+        // The last key of a full page, or null while the page is open-ended
+        private String endKey;
+        private String lastDeliveredKey;
+        private int itemCount;
+
+        // Whether the page listens to its exact key range rather than to a limited window
+        private boolean ranged;
+
+        Page(@Nullable String startAfterKey, @Nullable PageCallback callback) {
+            this.startAfterKey = startAfterKey;
+            this.callback = callback;
+            TraceSection.beginAsync(traceName, traceCookie);
+        }
+
+        /*
+         * Fixes the page's end once its initial children have been delivered, and reports the page.
+         */
+        void onLoaded() {
+            TraceSection.endAsync(traceName, traceCookie);
+            loaded = true;
+            loading = false;
+
+            TraceSection.begin("InventoryPager.onLoaded");
+            try {
+                metrics.record(OperationMetrics.Operation.PAGE_LOAD, startNanos);
+                if (itemCount < pageSize) {
+                    reachedEnd = true;
+                } else {
+                    endKey = lastDeliveredKey;
+                }
+                if (lastDeliveredKey != null) {
+                    lastKey = lastDeliveredKey;
+                }
+                if (callback != null) {
+                    callback.onRangeLoaded(startAfterKey, endKey);
+                    callback.onPageLoaded(itemCount, reachedEnd);
+                }
+            } finally {
+                TraceSection.end();
+            }
+        }
+
+        /*
+         * Returns whether a key lies within the page; keys past the end of a full page belong to
+         * the following page.
+         */
+        private boolean contains(String key) {
+            return endKey == null || compareKeys(key, endKey) <= 0;
+        }
+
+        /*
+         * Replaces the page's limited window with a listener on its exact key range, in which a
+         * removal always signals a real deletion. The children are delivered again, as additions.
+         */
+        private void switchToRange() {
+            ranged = true;
+            Query rangeQuery = databaseReference.orderByKey();
+            if (startAfterKey != null) {
+                rangeQuery = rangeQuery.startAfter(startAfterKey);
+            }
+            rangeQuery = rangeQuery.endAt(endKey);
+
+            SubscriptionManager.Subscription window = subscription;
+            String rangeKey = "inventory?range=" + (startAfterKey != null ? startAfterKey : "") + ".." + endKey;
+            subscription = subscriptions.subscribe(rangeKey, rangeQuery, this);
+            window.close();
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            String key = snapshot.getKey();
+            if (!contains(key)) {
+                return;
+            }
+            childListener.onChildAdded(snapshot, previousChildName);
+            if (ranged) {
+                return;
+            }
+            itemCount++;
+            if (lastDeliveredKey == null || compareKeys(key, lastDeliveredKey) > 0) {
+                lastDeliveredKey = key;
+            }
+            if (loaded && endKey == null && itemCount >= pageSize) {
+                // The open-ended final page is full, so further pushed items need a new page
+                endKey = lastDeliveredKey;
+                lastKey = lastDeliveredKey;
+                reachedEnd = false;
+                loadNextPage(null);
+            }
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            if (contains(snapshot.getKey())) {
+                childListener.onChildChanged(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            String key = snapshot.getKey();
+            if (!contains(key)) {
+                return;
+            }
+            if (endKey == null || ranged) {
+                itemCount--;
+                childListener.onChildRemoved(snapshot);
+                return;
+            }
+
+            // A full window also drops its last child when a key is inserted before it
+            databaseReference.child(key).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot current) {
+                    if (subscription.isClosed()) {
+                        return;
+                    }
+                    if (!current.exists()) {
+                        childListener.onChildRemoved(snapshot);
+                    } else if (!ranged) {
+                        switchToRange();
+                    }
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    // The child is kept; a later event for it corrects the list
+                }
+            });
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            if (contains(snapshot.getKey())) {
+                childListener.onChildMoved(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            if (loaded) {
+                childListener.onCancelled(error);
+                return;
+            }
+            TraceSection.endAsync(traceName, traceCookie);
+            loading = false;
+            metrics.record(OperationMetrics.Operation.PAGE_LOAD, startNanos, 0, true);
+            subscription.close();
+            pages.remove(this);
+            if (callback != null) {
+                callback.onPageFailed(error);
+            }
+        }
+    }
+
+}
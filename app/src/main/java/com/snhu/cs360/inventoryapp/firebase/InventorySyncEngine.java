@@ -0,0 +1,609 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItemDiffCallback;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Incremental synchronization engine for the "inventory" node.
+ * <p>
+ * Instead of re-reading the whole node on every change, this class listens for child events
+ * (added, changed, removed, moved) and applies each one to an in-memory store keyed by item ID.
+ * Every applied event is forwarded to the registered {@link Listener}s as a fine-grained change
+ * notification, so the cost of a single remote update is proportional to the one item that
+ * changed rather than to the size of the inventory.
+ * <p>
+ * The store can be seeded with items restored from a local cache before the first remote event
+ * arrives. Seeded items that are not confirmed by the remote node by the time the key range
+ * holding them, or the whole initial sync, completes are treated as deleted while offline and
+ * removed.
+ * <p>
+ * Decoding a snapshot into an {@link InventoryItem} can be moved off the thread that delivers
+ * Firebase events by supplying a decode executor. Decoded items are then handed back to the
+ * delivery thread in batches, and applied in the order their events arrived. An event that is
+ * superseded by a newer event for the same item before it has been decoded is dropped without
+ * being decoded.
+ * <p>
+ * An upsert whose decoded item has the same contents as the stored one, as when a child is
+ * re-delivered after its listener was re-attached, replaces the stored item without notifying
+ * the listeners.
+ * <p>
+ * The time spent decoding each snapshot and applying each event is recorded in the
+ * {@link OperationMetrics}, and both steps are marked as {@link TraceSection}s.
+ */
+public class InventorySyncEngine implements ChildEventListener {
+
+
+    /**
+     * Receives fine-grained change notifications from the {@link InventorySyncEngine}.
+     * All callbacks are invoked on the thread that delivers Firebase events (the main thread).
+     */
+    public interface Listener {
+
+        void onItemAdded(@NonNull InventoryItem item);
+
+        void onItemChanged(@NonNull InventoryItem previous, @NonNull InventoryItem item);
+
+        void onItemRemoved(@NonNull InventoryItem item);
+
+        default void onItemMoved(@NonNull InventoryItem item, @Nullable String previousChildName) { }
+
+        /**
+         * Called once with the items restored from a local cache. Reports each one as added unless
+         * the listener needs to tell cached items apart from remote ones.
+         */
+        default void onItemsSeeded(@NonNull Collection<InventoryItem> seededItems) {
+            for (InventoryItem item : seededItems) {
+                onItemAdded(item);
+            }
+        }
+
+        default void onSyncCancelled(@NonNull DatabaseError error) { }
+    }
+
+
+    /*
+     * A child event waiting to be decoded and applied. A sequence of 0 marks an event that never
+     * supersedes, and is never superseded by, another event.
+     */
+    private static final class PendingEvent {
+        static final int UPSERT = 0;
+        static final int REMOVE = 1;
+        static final int MOVE = 2;
+
+        final int type;
+        final String key;
+        final long sequence;
+        final DataSnapshot snapshot;
+        final String previousChildName;
+        InventoryItem decoded;
+
+        PendingEvent(int type, String key, long sequence, DataSnapshot snapshot, String previousChildName) {
+            this.type = type;
+            this.key = key;
+            this.sequence = sequence;
+            this.snapshot = snapshot;
+            this.previousChildName = previousChildName;
+        }
+    }
+
+
+    private static final InventoryItemDiffCallback CONTENTS = new InventoryItemDiffCallback();
+
+    private final Map<String, InventoryItem> items = new LinkedHashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Set<String> unconfirmedIds = new HashSet<>();
+
+    // Last item delivered by the database for IDs with local changes applied over it; null marks an absent item
+    private final Map<String, InventoryItem> confirmedItems = new HashMap<>();
+    private boolean initialSyncComplete;
+
+    private final Executor decodeExecutor;
+    private final Executor deliveryExecutor;
+    private final Map<String, Long> latestSequenceByKey = new ConcurrentHashMap<>();
+    private final Queue<PendingEvent> decodedEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private long nextSequence;
+    private int pendingEventCount;
+    private boolean completeWhenDrained;
+    private final List<String[]> deferredRanges = new ArrayList<>();
+    private final OperationMetrics metrics = OperationMetrics.getInstance();
+
+
+    /**
+     * Creates an engine that decodes and applies every event immediately on the delivering thread.
+     */
+    public InventorySyncEngine() {
+        this(Runnable::run, Runnable::run);
+    }
+
+
+    /**
+     * Creates an engine that decodes snapshots on a background executor.
+     * <p>
+     * @param decodeExecutor the executor decoding snapshots; it must run tasks one at a time, in
+     *                       submission order, so that events are applied in the order they arrived
+     * @param deliveryExecutor the executor of the thread Firebase delivers events on (the main
+     *                         thread), where decoded items are applied and listeners notified
+     */
+    public InventorySyncEngine(@NonNull Executor decodeExecutor, @NonNull Executor deliveryExecutor) {
+        this.decodeExecutor = decodeExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+
+    /**
+     * Registers a listener that is notified of every change applied to the store.
+     * <p>
+     * @param listener the listener to be notified
+     */
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+
+    /**
+     * Unregisters a previously added listener.
+     * <p>
+     * @param listener the listener to be removed
+     */
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * Returns the item currently stored under the given ID.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return the stored {@link InventoryItem}, or {@code null} if no item has that ID
+     */
+    @Nullable
+    public InventoryItem getItem(String itemId) {
+        return items.get(itemId);
+    }
+
+
+    /**
+     * Returns a read-only view of every item currently held by the store, in the order
+     * in which they were first received.
+     * <p>
+     * @return an unmodifiable collection backed by the store
+     */
+    @NonNull
+    public Collection<InventoryItem> getItems() {
+        return Collections.unmodifiableCollection(items.values());
+    }
+
+
+    /**
+     * Returns the number of items currently held by the store.
+     * <p>
+     * @return the item count
+     */
+    public int size() {
+        return items.size();
+    }
+
+
+    /**
+     * Removes every item from the store without notifying listeners. Used when the engine is
+     * detached and will be re-attached to a fresh event stream. Events still being decoded are
+     * discarded.
+     */
+    public void clear() {
+        items.clear();
+        unconfirmedIds.clear();
+        confirmedItems.clear();
+        initialSyncComplete = false;
+        latestSequenceByKey.clear();
+        completeWhenDrained = false;
+        deferredRanges.clear();
+    }
+
+
+    /**
+     * Seeds the store with items restored from a local cache so they can be displayed before the
+     * network delivers anything. Items whose ID is already known are skipped, and seeding is ignored
+     * entirely once the initial sync has completed, since the remote data is then authoritative.
+     * <p>
+     * @param cachedItems the items previously persisted by the local store
+     */
+    public void seedItems(@NonNull Collection<InventoryItem> cachedItems) {
+        if (initialSyncComplete) {
+            return;
+        }
+
+        List<InventoryItem> seeded = new ArrayList<>();
+        for (InventoryItem item : cachedItems) {
+            if (item.getId() != null && !items.containsKey(item.getId())) {
+                items.put(item.getId(), item);
+                unconfirmedIds.add(item.getId());
+                seeded.add(item);
+            }
+        }
+
+        if (!seeded.isEmpty()) {
+            for (Listener listener : listeners) {
+                listener.onItemsSeeded(seeded);
+            }
+        }
+    }
+
+
+    /**
+     * Marks the initial remote sync as complete. Any seeded item that was not confirmed by a remote
+     * child event no longer exists on the server and is removed, notifying listeners.
+     * <p>
+     * If events are still being decoded, completion is deferred until they have all been applied,
+     * so that items they confirm are not mistaken for deleted ones.
+     */
+    public void completeInitialSync() {
+        if (pendingEventCount > 0) {
+            completeWhenDrained = true;
+            return;
+        }
+        initialSyncComplete = true;
+        removeUnconfirmed(new ArrayList<>(unconfirmedIds));
+    }
+
+
+    /**
+     * Marks the remote items in a key range as delivered. Any seeded item in the range that was not
+     * confirmed by a remote child event no longer exists on the server and is removed, notifying
+     * listeners, as {@link #completeInitialSync()} does for the whole node once it has been read.
+     * <p>
+     * If events are still being decoded, this is deferred until they have all been applied.
+     * <p>
+     * @param startAfterKey the key the range starts after, or {@code null} from the first key
+     * @param endKey the last key of the range, or {@code null} if it runs to the last key
+     */
+    public void completeKeyRange(@Nullable String startAfterKey, @Nullable String endKey) {
+        if (pendingEventCount > 0) {
+            deferredRanges.add(new String[] { startAfterKey, endKey });
+            return;
+        }
+
+        List<String> staleIds = new ArrayList<>();
+        for (String itemId : unconfirmedIds) {
+            if ((startAfterKey == null || InventoryPager.compareKeys(itemId, startAfterKey) > 0)
+                    && (endKey == null || InventoryPager.compareKeys(itemId, endKey) <= 0)) {
+                staleIds.add(itemId);
+            }
+        }
+        removeUnconfirmed(staleIds);
+    }
+
+
+    /**
+     * Removes seeded items that the remote node did not confirm, notifying listeners.
+     * <p>
+     * @param itemIds the IDs of the unconfirmed items to remove
+     */
+    private void removeUnconfirmed(Collection<String> itemIds) {
+        for (String itemId : itemIds) {
+            unconfirmedIds.remove(itemId);
+            confirmedItems.replace(itemId, null);
+            InventoryItem removed = items.remove(itemId);
+            if (removed != null) {
+                for (Listener listener : listeners) {
+                    listener.onItemRemoved(removed);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns whether the remote node has been fully delivered at least once.
+     * <p>
+     * @return {@code true} once {@link #completeInitialSync()} has been called
+     */
+    public boolean isInitialSyncComplete() {
+        return initialSyncComplete;
+    }
+
+
+    /**
+     * Applies a change made on this device before the database has confirmed it, notifying
+     * listeners as for a remote change. Remote events for the item, including those still being
+     * decoded, are applied as usual and remain authoritative. The item last delivered by the
+     * database is remembered until {@link #clearLocalChanges} is called, so that a rejected change
+     * can be reconciled against it.
+     * <p>
+     * @param item the changed or re-added item
+     */
+    public void applyLocalChange(@NonNull InventoryItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        rememberConfirmedItem(item.getId());
+        applyUpsert(item);
+    }
+
+
+    /**
+     * Removes an item deleted on this device before the database has confirmed the deletion,
+     * notifying listeners as for a remote removal. As for {@link #applyLocalChange}, remote events
+     * for the item are still applied, and the item last delivered by the database is remembered.
+     * <p>
+     * @param itemId the unique identifier of the deleted item
+     */
+    public void applyLocalRemoval(@NonNull String itemId) {
+        rememberConfirmedItem(itemId);
+        applyRemove(itemId);
+    }
+
+
+    /**
+     * Returns the item as last delivered by the database, ignoring local changes applied over it.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return the confirmed item, or {@code null} if the database does not hold it
+     */
+    @Nullable
+    public InventoryItem getConfirmedItem(@NonNull String itemId) {
+        return confirmedItems.containsKey(itemId) ? confirmedItems.get(itemId) : items.get(itemId);
+    }
+
+
+    /**
+     * Forgets the confirmed state remembered for an item once no local change to it is awaiting
+     * the database's answer.
+     * <p>
+     * @param itemId the unique identifier of the item
+     */
+    public void clearLocalChanges(@NonNull String itemId) {
+        confirmedItems.remove(itemId);
+    }
+
+
+    /**
+     * Remembers the displayed item as the confirmed one before the first local change to it.
+     * <p>
+     * @param itemId the unique identifier of the item about to be changed locally
+     */
+    private void rememberConfirmedItem(String itemId) {
+        if (!confirmedItems.containsKey(itemId)) {
+            confirmedItems.put(itemId, items.get(itemId));
+        }
+    }
+
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(PendingEvent.UPSERT, snapshot, previousChildName);
+    }
+
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(PendingEvent.UPSERT, snapshot, previousChildName);
+    }
+
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        enqueue(PendingEvent.REMOVE, snapshot, null);
+    }
+
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(PendingEvent.MOVE, snapshot, previousChildName);
+    }
+
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        for (Listener listener : listeners) {
+            listener.onSyncCancelled(error);
+        }
+    }
+
+
+    /**
+     * Records a child event and submits it for decoding. Upserts and removals supersede any earlier
+     * event for the same item that has not been applied yet.
+     * <p>
+     * @param type the kind of event
+     * @param snapshot the child snapshot delivered by Firebase
+     * @param previousChildName the key of the preceding child, if provided by Firebase
+     */
+    private void enqueue(int type, DataSnapshot snapshot, @Nullable String previousChildName) {
+        String key = snapshot.getKey();
+        long sequence = 0;
+        if (type != PendingEvent.MOVE) {
+            sequence = ++nextSequence;
+            latestSequenceByKey.put(key, sequence);
+        }
+        PendingEvent event = new PendingEvent(type, key, sequence, snapshot, previousChildName);
+        pendingEventCount++;
+
+        decodeExecutor.execute(() -> {
+            try {
+                if (event.type == PendingEvent.UPSERT && !isSuperseded(event)) {
+                    decode(event);
+                }
+            } finally {
+                // Even an event that failed to decode is handed back, so it is counted as applied
+                decodedEvents.add(event);
+                if (drainScheduled.compareAndSet(false, true)) {
+                    deliveryExecutor.execute(this::drainDecodedEvents);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Decodes the snapshot of an upsert event, recording the time taken. A snapshot that cannot be
+     * read or decoded leaves the event without a decoded item, so it is skipped when applied, and
+     * is recorded as a failed decode.
+     * <p>
+     * @param event the upsert event to decode
+     */
+    private void decode(PendingEvent event) {
+        long startNanos = OperationMetrics.startTimer();
+        Object value = null;
+        TraceSection.begin("InventorySyncEngine.decode");
+        try {
+            value = event.snapshot.getValue();
+            event.decoded = InventoryItemCodec.decode(event.key, value);
+        } catch (RuntimeException e) {
+            event.decoded = null;
+        } finally {
+            TraceSection.end();
+        }
+        metrics.record(OperationMetrics.Operation.SNAPSHOT_DECODE, startNanos,
+                InventoryItemCodec.estimateEncodedSize(value), event.decoded == null);
+    }
+
+
+    /**
+     * Applies every decoded event handed back by the decode executor, in arrival order, then
+     * completes a deferred initial sync once nothing is left in flight.
+     */
+    private void drainDecodedEvents() {
+        TraceSection.begin("InventorySyncEngine.drainDecodedEvents");
+        try {
+            drainScheduled.set(false);
+
+            PendingEvent event;
+            while ((event = decodedEvents.poll()) != null) {
+                pendingEventCount--;
+                if (isSuperseded(event)) {
+                    continue;
+                }
+                if (event.sequence != 0) {
+                    latestSequenceByKey.remove(event.key, event.sequence);
+                }
+
+                long startNanos = OperationMetrics.startTimer();
+                switch (event.type) {
+                    case PendingEvent.UPSERT:
+                        if (event.decoded != null) {
+                            unconfirmedIds.remove(event.key);
+                            confirmedItems.replace(event.key, event.decoded);
+                            applyUpsert(event.decoded);
+                        }
+                        break;
+                    case PendingEvent.REMOVE:
+                        unconfirmedIds.remove(event.key);
+                        confirmedItems.replace(event.key, null);
+                        applyRemove(event.key);
+                        break;
+                    default:
+                        applyMove(event.key, event.previousChildName);
+                        break;
+                }
+                metrics.record(OperationMetrics.Operation.LISTENER_DELIVERY, startNanos);
+            }
+
+            if (pendingEventCount == 0) {
+                List<String[]> ranges = new ArrayList<>(deferredRanges);
+                deferredRanges.clear();
+                for (String[] range : ranges) {
+                    completeKeyRange(range[0], range[1]);
+                }
+                if (completeWhenDrained) {
+                    completeWhenDrained = false;
+                    completeInitialSync();
+                }
+            }
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+
+    /**
+     * Returns whether a newer upsert or removal for the same item has been received since an event.
+     * <p>
+     * @param event the event to check
+     * @return {@code true} if the event should be dropped
+     */
+    private boolean isSuperseded(PendingEvent event) {
+        if (event.sequence == 0) {
+            return false;
+        }
+        Long latest = latestSequenceByKey.get(event.key);
+        return latest == null || latest != event.sequence;
+    }
+
+
+    /**
+     * Stores a decoded item, notifying listeners of an addition when the ID was not yet known or
+     * of a change when it replaced an existing item with different contents.
+     * <p>
+     * @param item the decoded item
+     */
+    private void applyUpsert(InventoryItem item) {
+        InventoryItem previous = items.put(item.getId(), item);
+        if (previous != null && CONTENTS.areContentsTheSame(previous, item)) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            if (previous == null) {
+                listener.onItemAdded(item);
+            } else {
+                listener.onItemChanged(previous, item);
+            }
+        }
+    }
+
+
+    /**
+     * Removes an item from the store, notifying listeners if it was known.
+     * <p>
+     * @param itemId the unique identifier of the removed item
+     */
+    private void applyRemove(String itemId) {
+        InventoryItem removed = items.remove(itemId);
+        if (removed != null) {
+            for (Listener listener : listeners) {
+                listener.onItemRemoved(removed);
+            }
+        }
+    }
+
+
+    /**
+     * Notifies listeners that a known item changed position.
+     * <p>
+     * @param itemId the unique identifier of the moved item
+     * @param previousChildName the key of the preceding child, if provided by Firebase
+     */
+    private void applyMove(String itemId, @Nullable String previousChildName) {
+        InventoryItem moved = items.get(itemId);
+        if (moved != null) {
+            for (Listener listener : listeners) {
+                listener.onItemMoved(moved, previousChildName);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseError;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Optimistic write layer between the UI and {@link FirebaseDatabaseHelper}.
+ * <p>
+ * Each edit, quantity adjustment, or deletion is applied to the {@link InventorySyncEngine} straight
+ * away, so every list, index, and the local store reflect it without waiting for the network, and
+ * is then written to the database with a completion listener. Until the server has answered, the
+ * write is tracked together with the state of the item before it.
+ * <p>
+ * When a write is rejected, its change is rolled back: the item is rebuilt from the state last
+ * delivered by the database, which the sync engine keeps while local changes are applied over it,
+ * with the writes to the same item that are still in flight re-applied on top, and the
+ * {@link Listener} is told so the user can be informed. Remote events keep being applied by the
+ * sync engine as they arrive and always take precedence, so a value received from the server while
+ * the write was in flight is not overwritten by the rollback; Firebase also follows a rejected write
+ * with an event carrying the server's value.
+ * <p>
+ * All methods must be called on the main thread, where completion listeners are delivered.
+ */
+public class PendingWriteTracker implements QuantityWriteCoalescer.Writer {
+
+
+    /**
+     * Notified when a write is rejected and its change has been rolled back.
+     */
+    public interface Listener {
+
+        void onWriteRolledBack(@NonNull PendingWrite write, @NonNull DatabaseError error);
+    }
+
+
+    /**
+     * A write that has been applied locally but not yet confirmed by the database.
+     */
+    public static final class PendingWrite {
+
+        public enum Kind { UPDATE, QUANTITY, DELETE }
+
+        private final Kind kind;
+        private final String itemId;
+        private final InventoryItem target;
+        private final int delta;
+        private InventoryItem before;
+
+        PendingWrite(Kind kind, String itemId, @Nullable InventoryItem before, @Nullable InventoryItem target, int delta) {
+            this.kind = kind;
+            this.itemId = itemId;
+            this.before = before;
+            this.target = target;
+            this.delta = delta;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getItemId() { return itemId; }
+        public int getDelta() { return delta; }
+
+        /**
+         * Returns the item as it was before this write.
+         * <p>
+         * @return the previous item, or {@code null} if it was not known locally
+         */
+        @Nullable
+        public InventoryItem getBefore() { return before; }
+
+        /*
+         * Applies this write to the state of an item.
+         */
+        @Nullable
+        InventoryItem applyTo(@Nullable InventoryItem item) {
+            switch (kind) {
+                case UPDATE:
+                    return target;
+                case QUANTITY:
+                    return item == null ? null
+                            : item.withQuantity((int) FirebaseDatabaseHelper.clampQuantity(item.getQuantity(), delta));
+                default:
+                    return null;
+            }
+        }
+    }
+
+
+    private final FirebaseDatabaseHelper databaseHelper;
+    private final InventorySyncEngine syncEngine;
+    private final Map<String, List<PendingWrite>> writesById = new HashMap<>();
+    private int pendingCount;
+    private Listener listener;
+
+
+    /**
+     * Creates a tracker that applies changes to the given engine and writes them through the helper.
+     * <p>
+     * @param databaseHelper the helper performing the database writes
+     * @param syncEngine the engine holding the displayed items
+     */
+    public PendingWriteTracker(@NonNull FirebaseDatabaseHelper databaseHelper, @NonNull InventorySyncEngine syncEngine) {
+        this.databaseHelper = databaseHelper;
+        this.syncEngine = syncEngine;
+    }
+
+
+    /**
+     * Sets the listener notified of rolled-back writes.
+     * <p>
+     * @param listener the listener, or {@code null} to remove it
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Replaces an item with an edited version.
+     * <p>
+     * @param updatedItem the edited item; it must carry its ID
+     */
+    public void updateItem(@NonNull InventoryItem updatedItem) {
+        String itemId = updatedItem.getId();
+        PendingWrite write = track(PendingWrite.Kind.UPDATE, itemId, updatedItem, 0);
+        syncEngine.applyLocalChange(updatedItem);
+        databaseHelper.updateItem(itemId, updatedItem, (error, reference) -> complete(write, error));
+    }
+
+
+    /**
+     * Adjusts the quantity of an item. The quantity shown is clamped at zero, as it is by the
+     * transaction on the server.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to adjust
+     * @param delta the amount to add to the quantity; negative values subtract
+     */
+    @Override
+    public void adjustQuantity(String itemId, int delta) {
+        PendingWrite write = track(PendingWrite.Kind.QUANTITY, itemId, null, delta);
+        InventoryItem adjusted = write.applyTo(write.before);
+        if (adjusted != null) {
+            syncEngine.applyLocalChange(adjusted);
+        }
+        databaseHelper.adjustQuantity(itemId, delta, (error, reference) -> complete(write, error));
+    }
+
+
+    /**
+     * Deletes an item.
+     * <p>
+     * @param itemId the unique identifier of the item to delete
+     */
+    public void deleteItem(@NonNull String itemId) {
+        PendingWrite write = track(PendingWrite.Kind.DELETE, itemId, null, 0);
+        syncEngine.applyLocalRemoval(itemId);
+        databaseHelper.deleteItem(itemId, (error, reference) -> complete(write, error));
+    }
+
+
+    /**
+     * Returns whether an item has writes that the database has not answered yet.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return {@code true} if a write to the item is in flight
+     */
+    public boolean hasPendingWrites(@NonNull String itemId) {
+        return writesById.containsKey(itemId);
+    }
+
+
+    /**
+     * Returns the number of writes that the database has not answered yet.
+     * <p>
+     * @return the in-flight write count
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+
+    /**
+     * Records a write, remembering the item as currently displayed so it can be restored.
+     */
+    private PendingWrite track(PendingWrite.Kind kind, String itemId, @Nullable InventoryItem target, int delta) {
+        PendingWrite write = new PendingWrite(kind, itemId, syncEngine.getItem(itemId), target, delta);
+        List<PendingWrite> writes = writesById.get(itemId);
+        if (writes == null) {
+            writes = new ArrayList<>(2);
+            writesById.put(itemId, writes);
+        }
+        writes.add(write);
+        pendingCount++;
+        return write;
+    }
+
+
+    /**
+     * Settles a write once the database has answered, rolling it back if it was rejected.
+     * <p>
+     * @param write the answered write
+     * @param error the error, or {@code null} if the write was committed
+     */
+    private void complete(PendingWrite write, @Nullable DatabaseError error) {
+        List<PendingWrite> writes = writesById.get(write.itemId);
+        int index = writes == null ? -1 : writes.indexOf(write);
+        if (index < 0) {
+            return;
+        }
+        writes.remove(index);
+        pendingCount--;
+
+        if (error != null) {
+            rollBack(write, writes);
+            if (listener != null) {
+                listener.onWriteRolledBack(write, error);
+            }
+        }
+
+        if (writes.isEmpty()) {
+            writesById.remove(write.itemId);
+            syncEngine.clearLocalChanges(write.itemId);
+        }
+    }
+
+
+    /**
+     * Rebuilds an item after a rejected write from the state last confirmed by the database,
+     * re-applying the writes that are still in flight so that only the rejected change is undone.
+     * <p>
+     * @param rejected the rejected write
+     * @param writes the remaining writes to the item, in the order they were made
+     */
+    private void rollBack(PendingWrite rejected, List<PendingWrite> writes) {
+        InventoryItem restored = syncEngine.getConfirmedItem(rejected.itemId);
+        for (PendingWrite pending : writes) {
+            pending.before = restored;
+            restored = pending.applyTo(restored);
+        }
+
+        if (restored != null) {
+            syncEngine.applyLocalChange(restored);
+        } else {
+            syncEngine.applyLocalRemoval(rejected.itemId);
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Write-behind buffer in front of {@link FirebaseDatabaseHelper#adjustQuantity} (or a
+ * {@link PendingWriteTracker}) that merges rapid quantity taps into a single write per item.
+ * <p>
+ * Deltas for the same item ID are summed while a short window is open; when the window closes,
+ * or {@link #flush()} is called (e.g. when the activity pauses), each item with a non-zero net
+ * delta is sent as one atomic adjustment. Forty "+" taps inside the window therefore become a
+ * single +40 write and a single remote change event.
+ * <p>
+ * The net delta is clamped at zero when it is applied, so a burst that dips below zero and comes
+ * back up is applied as its net result rather than tap by tap.
+ */
+public class QuantityWriteCoalescer {
+
+
+    /**
+     * Schedules the delayed flush. Abstracted so tests can drive the window deterministically.
+     */
+    public interface Scheduler {
+
+        void schedule(@NonNull Runnable task, long delayMillis);
+
+        void cancel(@NonNull Runnable task);
+    }
+
+
+    /**
+     * Receives the merged adjustments.
+     */
+    public interface Writer {
+
+        void adjustQuantity(String itemId, int delta);
+    }
+
+
+    public static final long DEFAULT_WINDOW_MILLIS = 500;
+
+    private final Writer writer;
+    private final Scheduler scheduler;
+    private final long windowMillis;
+    private final Map<String, Integer> pendingDeltas = new LinkedHashMap<>();
+    private final Runnable flushTask = this::flush;
+
+
+    /**
+     * Creates a coalescer that flushes on the main thread after the default window.
+     * <p>
+     * @param databaseHelper the helper receiving the merged adjustments
+     */
+    public QuantityWriteCoalescer(FirebaseDatabaseHelper databaseHelper) {
+        this(databaseHelper, DEFAULT_WINDOW_MILLIS);
+    }
+
+
+    /**
+     * Creates a coalescer that flushes on the main thread after the given window.
+     * <p>
+     * @param databaseHelper the helper receiving the merged adjustments
+     * @param windowMillis how long taps are merged before being written
+     */
+    public QuantityWriteCoalescer(FirebaseDatabaseHelper databaseHelper, long windowMillis) {
+        this(databaseHelper, windowMillis, mainThreadScheduler());
+    }
+
+
+    /**
+     * Creates a coalescer driven by the given scheduler.
+     * <p>
+     * @param databaseHelper the helper receiving the merged adjustments
+     * @param windowMillis how long taps are merged before being written
+     * @param scheduler the scheduler used to run the delayed flush
+     */
+    public QuantityWriteCoalescer(FirebaseDatabaseHelper databaseHelper, long windowMillis, Scheduler scheduler) {
+        this(databaseHelper::adjustQuantity, windowMillis, scheduler);
+    }
+
+
+    /**
+     * Creates a coalescer that flushes on the main thread after the default window.
+     * <p>
+     * @param writer the writer receiving the merged adjustments
+     */
+    public QuantityWriteCoalescer(Writer writer) {
+        this(writer, DEFAULT_WINDOW_MILLIS, mainThreadScheduler());
+    }
+
+
+    /**
+     * Creates a coalescer driven by the given scheduler.
+     * <p>
+     * @param writer the writer receiving the merged adjustments
+     * @param windowMillis how long taps are merged before being written
+     * @param scheduler the scheduler used to run the delayed flush
+     */
+    public QuantityWriteCoalescer(Writer writer, long windowMillis, Scheduler scheduler) {
+        this.writer = writer;
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+    }
+
+
+    /**
+     * Buffers a quantity adjustment, opening a new merge window if none is pending.
+     * <p>
+     * @param itemId the unique identifier of the inventory item to adjust
+     * @param delta the amount to add to the quantity; negative values subtract
+     */
+    public void adjustQuantity(String itemId, int delta) {
+        if (pendingDeltas.isEmpty()) {
+            scheduler.schedule(flushTask, windowMillis);
+        }
+
+        Integer pending = pendingDeltas.get(itemId);
+        pendingDeltas.put(itemId, pending == null ? delta : pending + delta);
+    }
+
+
+    /**
+     * Writes every pending net delta immediately and closes the current window.
+     * Items whose taps cancelled each other out are not written at all.
+     */
+    public void flush() {
+        scheduler.cancel(flushTask);
+        if (pendingDeltas.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> deltas = new LinkedHashMap<>(pendingDeltas);
+        pendingDeltas.clear();
+
+        for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                writer.adjustQuantity(delta.getKey(), delta.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Returns the delta buffered for an item but not yet written, so the UI can show the
+     * quantity the user expects before the write lands.
+     * <p>
+     * @param itemId the unique identifier of the inventory item
+     * @return the pending net delta, or 0 if nothing is buffered
+     */
+    public int getPendingDelta(String itemId) {
+        Integer pending = pendingDeltas.get(itemId);
+        return pending == null ? 0 : pending;
+    }
+
+
+    /**
+     * Returns the number of items with buffered adjustments.
+     * <p>
+     * @return the count of items awaiting a flush
+     */
+    public int getPendingCount() {
+        return pendingDeltas.size();
+    }
+
+
+    /**
+     * Builds a scheduler that runs tasks on the main thread.
+     * <p>
+     * @return a main-thread {@link Scheduler}
+     */
+    private static Scheduler mainThreadScheduler() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new Scheduler() {
+            @Override
+            public void schedule(@NonNull Runnable task, long delayMillis) {
+                handler.postDelayed(task, delayMillis);
+            }
+
+            @Override
+            public void cancel(@NonNull Runnable task) {
+                handler.removeCallbacks(task);
+            }
+        };
+    }
+
+}
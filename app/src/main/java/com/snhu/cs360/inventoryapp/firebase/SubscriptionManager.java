@@ -0,0 +1,609 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Owns every long-lived database listener of a screen, so none outlives it or is attached twice.
+ * <p>
+ * Each subscription is made under a key naming its query, and returns a {@link Subscription}
+ * handle that detaches it again. Subscriptions with the same key share a single database listener,
+ * whose events are passed to every subscriber; a subscriber joining an already attached query is
+ * first sent the query's current children (or value), read once from the data the database client
+ * already holds for the attached listener. The database listener is removed when the last
+ * subscriber closes its handle.
+ * <p>
+ * Once bound to a lifecycle with {@link #bindTo}, every database listener is detached when the
+ * lifecycle stops and re-attached when it starts again. Only the keys of the children delivered
+ * are kept while detached, never the snapshots, so on re-attaching: new children arrive as
+ * additions, known children arrive as changes, and children deleted in the meantime are reported as
+ * removed once the query has been read in full. Subscribers compare a re-delivered child with what
+ * they already hold; the {@link InventorySyncEngine} drops it after decoding if nothing changed.
+ * A value subscription passes on every value, including the first one after re-attaching; its
+ * subscribers already compare it with what they hold, off the main thread where that is costly.
+ * <p>
+ * Instances are used on the main thread, where the database delivers its events.
+ */
+public class SubscriptionManager implements DefaultLifecycleObserver {
+
+
+    /**
+     * Handle to one subscription.
+     */
+    public interface Subscription {
+
+        /**
+         * Stops delivering events to the subscriber. Closing a handle more than once has no effect.
+         */
+        void close();
+
+        boolean isClosed();
+    }
+
+
+    private final Map<String, SharedQuery> sharedQueries = new HashMap<>();
+    private boolean started = true;
+    private int attachedListenerCount;
+    private int subscriptionCount;
+
+
+    /**
+     * Subscribes to child events of a query.
+     * <p>
+     * @param key a name identifying the query; subscriptions with equal keys share one listener
+     * @param query the query to listen to
+     * @param listener receives the child events
+     * @return the handle of the subscription
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull String key, @NonNull Query query, @NonNull ChildEventListener listener) {
+        return subscribe(key, query, listener, null);
+    }
+
+
+    /**
+     * Subscribes to child events of a query, and reports when the children present at subscription
+     * time have all been delivered.
+     * <p>
+     * @param key a name identifying the query; subscriptions with equal keys share one listener
+     * @param query the query to listen to
+     * @param listener receives the child events
+     * @param initialLoadCallback run once, after the query's current children have been delivered;
+     *                            may be {@code null}
+     * @return the handle of the subscription
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull String key, @NonNull Query query, @NonNull ChildEventListener listener,
+                                  @Nullable Runnable initialLoadCallback) {
+        SharedQuery shared = sharedQueries.get("child:" + key);
+        if (shared == null) {
+            shared = new SharedChildQuery("child:" + key, query);
+        }
+        return addSubscriber(shared, listener, initialLoadCallback);
+    }
+
+
+    /**
+     * Subscribes to the value of a query, which is delivered in full on every change.
+     * <p>
+     * @param key a name identifying the query; subscriptions with equal keys share one listener
+     * @param query the query to listen to
+     * @param listener receives the value
+     * @return the handle of the subscription
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull String key, @NonNull Query query, @NonNull ValueEventListener listener) {
+        SharedQuery shared = sharedQueries.get("value:" + key);
+        if (shared == null) {
+            shared = new SharedValueQuery("value:" + key, query);
+        }
+        return addSubscriber(shared, listener, null);
+    }
+
+
+    /**
+     * Closes every subscription made with the given listener.
+     * <p>
+     * @param listener the {@link ChildEventListener} or {@link ValueEventListener} of the subscriptions
+     */
+    public void unsubscribe(@NonNull Object listener) {
+        for (SharedQuery shared : new ArrayList<>(sharedQueries.values())) {
+            for (Handle handle : new ArrayList<>(shared.handles)) {
+                if (handle.listener == listener) {
+                    handle.close();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Detaches and re-attaches the database listeners as the given lifecycle stops and starts,
+     * and closes every subscription when it is destroyed. If the lifecycle has not started yet,
+     * nothing is attached until it does.
+     * <p>
+     * @param lifecycle the lifecycle of the screen owning the subscriptions
+     */
+    public void bindTo(@NonNull Lifecycle lifecycle) {
+        if (!lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            stop();
+        }
+        lifecycle.addObserver(this);
+    }
+
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        start();
+    }
+
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        stop();
+    }
+
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        closeAll();
+    }
+
+
+    /**
+     * Re-attaches every subscribed query. The events delivered while catching up are checked
+     * against the children delivered before {@link #stop()}, so that deletions are reported.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        TraceSection.begin("SubscriptionManager.start");
+        try {
+            for (SharedQuery shared : sharedQueries.values()) {
+                shared.attach();
+            }
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+
+    /**
+     * Detaches every subscribed query, keeping its subscribers and the keys of the children last
+     * delivered so that {@link #start()} can catch up.
+     */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+
+        for (SharedQuery shared : sharedQueries.values()) {
+            shared.detach();
+        }
+    }
+
+
+    /**
+     * Closes every subscription and detaches every query.
+     */
+    public void closeAll() {
+        for (SharedQuery shared : new ArrayList<>(sharedQueries.values())) {
+            for (Handle handle : new ArrayList<>(shared.handles)) {
+                handle.close();
+            }
+        }
+    }
+
+
+    /**
+     * Returns whether database listeners are currently attached.
+     * <p>
+     * @return {@code false} between {@link #stop()} and {@link #start()}
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+
+    /**
+     * Returns the number of listeners currently attached to the database. Identical queries count
+     * once, however many subscribers share them.
+     * <p>
+     * @return the number of attached database listeners
+     */
+    public int getAttachedListenerCount() {
+        return attachedListenerCount;
+    }
+
+
+    /**
+     * Returns the number of subscriptions that have not been closed.
+     * <p>
+     * @return the number of open subscriptions
+     */
+    public int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+
+    /**
+     * Registers a subscriber on a shared query, attaching the query if it is new.
+     * <p>
+     * @param shared the shared query, which may not have been registered yet
+     * @param listener the subscriber's listener
+     * @param initialLoadCallback run once the query's current children have been delivered; may be {@code null}
+     * @return the handle of the subscription
+     */
+    private Subscription addSubscriber(SharedQuery shared, Object listener, @Nullable Runnable initialLoadCallback) {
+        Handle handle = new Handle(shared, listener, initialLoadCallback);
+        shared.handles.add(handle);
+        subscriptionCount++;
+
+        if (sharedQueries.put(shared.key, shared) == null) {
+            if (started) {
+                shared.attach();
+            }
+        } else {
+            shared.replay(handle);
+        }
+        return handle;
+    }
+
+
+    private final class Handle implements Subscription {
+
+        final SharedQuery shared;
+        final Object listener;
+        Runnable initialLoadCallback;
+        boolean replaying;
+        boolean closed;
+
+        Handle(SharedQuery shared, Object listener, @Nullable Runnable initialLoadCallback) {
+            this.shared = shared;
+            this.listener = listener;
+            this.initialLoadCallback = initialLoadCallback;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscriptionCount--;
+
+            shared.handles.remove(this);
+            if (shared.handles.isEmpty()) {
+                shared.detach();
+                sharedQueries.remove(shared.key);
+            }
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /*
+         * Runs the initial load callback, the first time only.
+         */
+        void notifyLoaded() {
+            Runnable callback = initialLoadCallback;
+            initialLoadCallback = null;
+            if (callback != null && !closed) {
+                callback.run();
+            }
+        }
+    }
+
+
+    /**
+     * One database listener and the subscribers sharing it.
+     */
+    private abstract class SharedQuery {
+
+        final String key;
+        final Query query;
+        final List<Handle> handles = new ArrayList<>();
+        boolean attached;
+
+        SharedQuery(String key, Query query) {
+            this.key = key;
+            this.query = query;
+        }
+
+        void attach() {
+            if (!attached) {
+                attached = true;
+                attachedListenerCount++;
+                onAttach();
+            }
+        }
+
+        void detach() {
+            if (attached) {
+                attached = false;
+                attachedListenerCount--;
+                onDetach();
+            }
+        }
+
+        /*
+         * Returns the open subscribers that are not waiting for a replay, copied so that they may
+         * close their handles during delivery.
+         */
+        List<Handle> subscribers() {
+            List<Handle> subscribers = new ArrayList<>(handles.size());
+            for (Handle handle : handles) {
+                if (!handle.replaying) {
+                    subscribers.add(handle);
+                }
+            }
+            return subscribers;
+        }
+
+        /*
+         * Sends a subscriber joining an attached query the query's current contents. The database
+         * answers the read from the data it already holds for the attached listener, after every
+         * event raised for that data, so the subscriber is held back from shared events until then.
+         */
+        void replay(Handle handle) {
+            if (!attached) {
+                return;
+            }
+            handle.replaying = true;
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    if (handle.replaying && !handle.closed) {
+                        handle.replaying = false;
+                        onReplay(handle, snapshot);
+                    }
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    handle.replaying = false;
+                }
+            });
+        }
+
+        abstract void onAttach();
+
+        abstract void onDetach();
+
+        /*
+         * Delivers the current contents of the query, read for a joining subscriber.
+         */
+        abstract void onReplay(Handle handle, DataSnapshot snapshot);
+    }
+
+
+    /**
+     * Child listener shared by the subscribers of one query, remembering the keys of the children it
+     * has delivered.
+     */
+    private final class SharedChildQuery extends SharedQuery implements ChildEventListener {
+
+        private final Set<String> childKeys = new HashSet<>();
+        private final Set<String> seenSinceAttach = new HashSet<>();
+        private ValueEventListener loadMarker;
+        private boolean loaded;
+
+        SharedChildQuery(String key, Query query) {
+            super(key, query);
+        }
+
+        @Override
+        void onAttach() {
+            seenSinceAttach.clear();
+            loaded = false;
+            query.addChildEventListener(this);
+
+            // Value events are raised after the child events for the same data, so this marks the
+            // point at which every current child has been delivered
+            ValueEventListener marker = new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    if (loadMarker == this) {
+                        loadMarker = null;
+                        onLoaded(snapshot);
+                    }
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    if (loadMarker == this) {
+                        loadMarker = null;
+                    }
+                }
+            };
+            loadMarker = marker;
+            query.addListenerForSingleValueEvent(marker);
+        }
+
+        @Override
+        void onDetach() {
+            query.removeEventListener(this);
+            if (loadMarker != null) {
+                query.removeEventListener(loadMarker);
+                loadMarker = null;
+            }
+        }
+
+        @Override
+        void replay(Handle handle) {
+            // Until a child has been delivered, the subscriber is sent everything with the others
+            if (!childKeys.isEmpty()) {
+                super.replay(handle);
+            } else if (loaded) {
+                handle.notifyLoaded();
+            }
+        }
+
+        @Override
+        void onReplay(Handle handle, DataSnapshot snapshot) {
+            ChildEventListener listener = (ChildEventListener) handle.listener;
+            String previousKey = null;
+            for (DataSnapshot child : snapshot.getChildren()) {
+                listener.onChildAdded(child, previousKey);
+                previousKey = child.getKey();
+            }
+            handle.notifyLoaded();
+        }
+
+        /*
+         * Reports children deleted while detached, then runs the initial load callbacks still due.
+         * A deleted child is reported with the empty snapshot the loaded query holds under its key.
+         */
+        private void onLoaded(DataSnapshot loadedSnapshot) {
+            loaded = true;
+
+            Iterator<String> iterator = childKeys.iterator();
+            List<DataSnapshot> removed = new ArrayList<>();
+            while (iterator.hasNext()) {
+                String childKey = iterator.next();
+                if (!seenSinceAttach.contains(childKey)) {
+                    removed.add(loadedSnapshot.child(childKey));
+                    iterator.remove();
+                }
+            }
+            seenSinceAttach.clear();
+
+            for (Handle handle : subscribers()) {
+                for (DataSnapshot snapshot : removed) {
+                    ((ChildEventListener) handle.listener).onChildRemoved(snapshot);
+                }
+                handle.notifyLoaded();
+            }
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            String childKey = snapshot.getKey();
+            if (!loaded) {
+                seenSinceAttach.add(childKey);
+            }
+
+            if (childKeys.add(childKey)) {
+                for (Handle handle : subscribers()) {
+                    ((ChildEventListener) handle.listener).onChildAdded(snapshot, previousChildName);
+                }
+            } else {
+                // Re-delivered after re-attaching; already known to the subscribers, so it is a change
+                for (Handle handle : subscribers()) {
+                    ((ChildEventListener) handle.listener).onChildChanged(snapshot, previousChildName);
+                }
+            }
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            for (Handle handle : subscribers()) {
+                ((ChildEventListener) handle.listener).onChildChanged(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            childKeys.remove(snapshot.getKey());
+            for (Handle handle : subscribers()) {
+                ((ChildEventListener) handle.listener).onChildRemoved(snapshot);
+            }
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            for (Handle handle : subscribers()) {
+                ((ChildEventListener) handle.listener).onChildMoved(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            // The database drops a cancelled listener; it is attached again on the next start()
+            detach();
+            for (Handle handle : subscribers()) {
+                ((ChildEventListener) handle.listener).onCancelled(error);
+            }
+        }
+    }
+
+
+    /**
+     * Value listener shared by the subscribers of one query, remembering whether it has delivered a
+     * value yet.
+     */
+    private final class SharedValueQuery extends SharedQuery implements ValueEventListener {
+
+        private boolean delivered;
+
+        SharedValueQuery(String key, Query query) {
+            super(key, query);
+        }
+
+        @Override
+        void onAttach() {
+            query.addValueEventListener(this);
+        }
+
+        @Override
+        void onDetach() {
+            query.removeEventListener(this);
+        }
+
+        @Override
+        void replay(Handle handle) {
+            if (delivered) {
+                super.replay(handle);
+            }
+        }
+
+        @Override
+        void onReplay(Handle handle, DataSnapshot snapshot) {
+            ((ValueEventListener) handle.listener).onDataChange(snapshot);
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            delivered = true;
+            for (Handle handle : subscribers()) {
+                ((ValueEventListener) handle.listener).onDataChange(snapshot);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            // The database drops a cancelled listener; it is attached again on the next start()
+            detach();
+            for (Handle handle : subscribers()) {
+                ((ValueEventListener) handle.listener).onCancelled(error);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Streams the records of a CSV file whose first line names the columns.
+ * <p>
+ * The format follows RFC 4180: fields are separated by commas, and a field enclosed in double
+ * quotes may contain commas, line breaks, and doubled quotes standing for one quote. Lines may end
+ * with CRLF or LF, and blank lines are skipped. Column names are matched ignoring case and
+ * surrounding whitespace, so a header of {@code Name,Quantity,Tag} maps to the {@code "name"},
+ * {@code "quantity"}, and {@code "tag"} fields. A record with fewer fields than the header leaves
+ * the remaining columns absent, and extra fields are ignored.
+ * <p>
+ * The header must include the {@code name} and {@code quantity} columns. Characters are read one at
+ * a time through a buffer, and a line with more than {@link #MAX_FIELD_COUNT} fields or a field
+ * longer than {@link #MAX_FIELD_LENGTH} is rejected, so a malformed file (an unterminated quote, for
+ * instance) cannot make the reader hold more than one bounded record in memory.
+ */
+public class CsvRecordReader implements InventoryRecordReader {
+
+    /** The longest field accepted, in characters. */
+    public static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    /** The most fields accepted on one line. */
+    public static final int MAX_FIELD_COUNT = 256;
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+    private static final int NONE = -2;
+
+    private final BufferedReader reader;
+    private List<String> columns;
+    private long lineNumber = 1;
+    private boolean started;
+    private int pushedBack = NONE;
+
+
+    /**
+     * Creates a reader over CSV text. The header is read with the first record.
+     * <p>
+     * @param reader the source of the CSV text
+     */
+    public CsvRecordReader(@NonNull Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+
+    @Nullable
+    @Override
+    public Map<String, String> readRecord() throws IOException {
+        if (columns == null) {
+            List<String> header = readFields();
+            if (header == null) {
+                return null;
+            }
+            columns = new ArrayList<>(header.size());
+            for (String column : header) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            // Without these, every row would be rejected, most likely for a wrong delimiter
+            if (!columns.contains(InventoryRowValidator.FIELD_NAME)
+                    || !columns.contains(InventoryRowValidator.FIELD_QUANTITY)) {
+                throw new IOException("The header row must name the name and quantity columns");
+            }
+        }
+
+        List<String> fields;
+        do {
+            fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < fields.size() && i < columns.size(); i++) {
+            record.put(columns.get(i), fields.get(i));
+        }
+        return record;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+
+    /**
+     * Reads the fields of one line, which may span several physical lines inside quotes.
+     * <p>
+     * @return the fields, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read, a quote is not closed, or a field is too long
+     */
+    private List<String> readFields() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        long startLine = lineNumber;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + startLine);
+                } else if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append(field, '"');
+                    } else {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == ',') {
+                if (fields.size() == MAX_FIELD_COUNT) {
+                    throw new IOException("More than " + MAX_FIELD_COUNT + " fields on line " + lineNumber);
+                }
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+    }
+
+
+    /**
+     * Appends a character to a field, enforcing the field length limit.
+     * <p>
+     * @param field the field being read
+     * @param c the next character
+     * @throws IOException if the field would exceed {@link #MAX_FIELD_LENGTH}
+     */
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() == MAX_FIELD_LENGTH) {
+            throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + lineNumber);
+        }
+        field.append(c);
+    }
+
+
+    /**
+     * Reads the next character, skipping a byte order mark at the very start of the input.
+     * <p>
+     * @return the character, or {@code -1} at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == BYTE_ORDER_MARK) {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+
+    /*
+     * Pushes back one character, to be returned by the next read.
+     */
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+
+/**
+ * How far an import has durably progressed: every record up to {@link #getRecordsDone()} has
+ * either been rejected or written to the database, and none after it is counted.
+ * <p>
+ * A checkpoint also carries the import key, from which the IDs of items imported without an ID of
+ * their own are derived. A resumed import reuses the key, so records that were sent but not yet
+ * confirmed when the import stopped are written again under the same IDs rather than duplicated.
+ * <p>
+ * Checkpoints are immutable, and are stored as a single line of text by {@link #encode}.
+ */
+public final class ImportCheckpoint {
+
+    private static final char SEPARATOR = '|';
+
+    private final String importKey;
+    private final long recordsDone;
+    private final long importedCount;
+    private final long rejectedCount;
+
+
+    /**
+     * Creates a checkpoint.
+     * <p>
+     * @param importKey the key that generated IDs are derived from
+     * @param recordsDone the number of records, from the start of the file, that are done
+     * @param importedCount how many of those records were written
+     * @param rejectedCount how many of those records were rejected
+     */
+    public ImportCheckpoint(@NonNull String importKey, long recordsDone, long importedCount, long rejectedCount) {
+        this.importKey = importKey;
+        this.recordsDone = recordsDone;
+        this.importedCount = importedCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+
+    /*
+     *  Getters
+     */
+    @NonNull
+    public String getImportKey() { return importKey; }
+    public long getRecordsDone() { return recordsDone; }
+    public long getImportedCount() { return importedCount; }
+    public long getRejectedCount() { return rejectedCount; }
+
+
+    /**
+     * Returns the checkpoint reached after a further run of records.
+     * <p>
+     * @param records the number of further records done
+     * @param imported how many of them were written
+     * @param rejected how many of them were rejected
+     * @return a new checkpoint
+     */
+    @NonNull
+    public ImportCheckpoint advance(long records, long imported, long rejected) {
+        return new ImportCheckpoint(importKey, recordsDone + records, importedCount + imported,
+                rejectedCount + rejected);
+    }
+
+
+    /**
+     * Encodes the checkpoint as a single line of text.
+     * <p>
+     * @return the encoded checkpoint, readable by {@link #decode}
+     */
+    @NonNull
+    public String encode() {
+        return importKey + SEPARATOR + recordsDone + SEPARATOR + importedCount + SEPARATOR + rejectedCount;
+    }
+
+
+    /**
+     * Decodes a checkpoint written by {@link #encode}.
+     * <p>
+     * @param encoded the encoded checkpoint, or {@code null}
+     * @return the checkpoint, or {@code null} if the text is missing or not a valid checkpoint
+     */
+    @Nullable
+    public static ImportCheckpoint decode(@Nullable String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+
+        // Generated import keys never contain the separator
+        String[] parts = encoded.split("\\" + SEPARATOR, -1);
+        if (parts.length != 4 || parts[0].isEmpty()) {
+            return null;
+        }
+        try {
+            return new ImportCheckpoint(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImportCheckpoint)) {
+            return false;
+        }
+        ImportCheckpoint other = (ImportCheckpoint) o;
+        return recordsDone == other.recordsDone
+                && importedCount == other.importedCount
+                && rejectedCount == other.rejectedCount
+                && importKey.equals(other.importKey);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(importKey, recordsDone, importedCount, rejectedCount);
+    }
+
+}
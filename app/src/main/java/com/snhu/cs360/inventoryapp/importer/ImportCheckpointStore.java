@@ -0,0 +1,62 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+
+/**
+ * Keeps the {@link ImportCheckpoint} of each unfinished import in shared preferences, so that an
+ * import interrupted by an error, a cancel, or the app being closed can be resumed later.
+ * <p>
+ * Checkpoints are keyed by a source key identifying the imported file. Writes are applied
+ * asynchronously, so saving after every chunk costs the importer no disk wait.
+ */
+public class ImportCheckpointStore {
+
+    private static final String PREFERENCES_NAME = "inventory_import_checkpoints";
+
+    private final SharedPreferences preferences;
+
+
+    public ImportCheckpointStore(@NonNull Context context) {
+        this.preferences = context.getApplicationContext()
+                .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+
+    /**
+     * Reads the checkpoint of an unfinished import.
+     * <p>
+     * @param sourceKey the key identifying the imported file
+     * @return the checkpoint, or {@code null} if there is no unfinished import of the file
+     */
+    @Nullable
+    public ImportCheckpoint load(@NonNull String sourceKey) {
+        return ImportCheckpoint.decode(preferences.getString(sourceKey, null));
+    }
+
+
+    /**
+     * Records the checkpoint of an import in progress.
+     * <p>
+     * @param sourceKey the key identifying the imported file
+     * @param checkpoint the latest checkpoint
+     */
+    public void save(@NonNull String sourceKey, @NonNull ImportCheckpoint checkpoint) {
+        preferences.edit().putString(sourceKey, checkpoint.encode()).apply();
+    }
+
+
+    /**
+     * Forgets the checkpoint of a finished import.
+     * <p>
+     * @param sourceKey the key identifying the imported file
+     */
+    public void clear(@NonNull String sourceKey) {
+        preferences.edit().remove(sourceKey).apply();
+    }
+
+}
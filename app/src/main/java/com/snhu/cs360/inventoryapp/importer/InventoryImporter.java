@@ -0,0 +1,575 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseError;
+import com.snhu.cs360.inventoryapp.firebase.FirebaseDatabaseHelper;
+import com.snhu.cs360.inventoryapp.firebase.InventoryBatch;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+
+/**
+ * Imports inventory items in bulk from a CSV or JSON file, streaming the file and writing the items
+ * through {@link FirebaseDatabaseHelper#batch()} in bounded chunks.
+ * <p>
+ * The file is read one record at a time on a work executor. Each record is checked by the
+ * {@link InventoryRowValidator}; valid items are added to the current chunk, and invalid ones are
+ * counted and reported without stopping the import. Every {@code chunkSize} records, the chunk is
+ * committed as one {@link InventoryBatch}.
+ * <p>
+ * Writes are backpressured: at most {@code maxInFlightChunks} chunks may be waiting for the
+ * database to confirm them, and reading pauses until one is confirmed. Memory use is therefore
+ * bounded by a few chunks however large the file is, and an import started while offline waits
+ * instead of queueing the whole file in the database client.
+ * <p>
+ * Whenever the oldest unconfirmed chunk is confirmed, an {@link ImportCheckpoint} is saved to the
+ * {@link ImportCheckpointStore} and progress is reported. If the import fails or is cancelled, the
+ * checkpoint remains, and importing the same file again resumes after the last confirmed record.
+ * Items imported without an ID are written under IDs derived from the checkpoint's import key and
+ * their record number, so chunks that are sent again on resume replace, rather than duplicate,
+ * what was already written.
+ * <p>
+ * Each importer runs a single import. Listener callbacks are delivered on the callback executor.
+ */
+public class InventoryImporter {
+
+
+    /**
+     * The format of an import file.
+     */
+    public enum Format {
+        CSV,
+        JSON;
+
+        /**
+         * Chooses the format of a file from its MIME type or, failing that, its name.
+         * <p>
+         * @param mimeType the MIME type of the file, or {@code null} if unknown
+         * @param fileName the name of the file, or {@code null} if unknown
+         * @return {@link #JSON} for JSON files, otherwise {@link #CSV}
+         */
+        @NonNull
+        public static Format detect(@Nullable String mimeType, @Nullable String fileName) {
+            if (mimeType != null && mimeType.toLowerCase(Locale.ROOT).contains("json")) {
+                return JSON;
+            }
+            if (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json")) {
+                return JSON;
+            }
+            return CSV;
+        }
+    }
+
+
+    /**
+     * Notified of the progress and outcome of an import, on the callback executor.
+     */
+    public interface Listener {
+
+        /**
+         * Called each time another chunk has been confirmed by the database.
+         */
+        void onProgress(@NonNull Progress progress);
+
+        /**
+         * Called once every record has been read and every chunk confirmed. The checkpoint has
+         * been cleared.
+         */
+        void onComplete(@NonNull Progress progress);
+
+        /**
+         * Called when the import stops early, because the file could not be read, a chunk was
+         * rejected by the database, or the import was cancelled. The checkpoint is kept.
+         * <p>
+         * @param reason a description of the failure, for showing to the user
+         */
+        void onFailed(@NonNull Progress progress, @NonNull String reason);
+    }
+
+
+    /**
+     * A snapshot of the state of an import.
+     */
+    public static final class Progress {
+
+        private final long recordsRead;
+        private final long bytesRead;
+        private final long resumedAfter;
+        private final long importedCount;
+        private final long rejectedCount;
+        private final List<String> rejections;
+
+        Progress(long recordsRead, long bytesRead, long resumedAfter, long importedCount, long rejectedCount,
+                 List<String> rejections) {
+            this.recordsRead = recordsRead;
+            this.bytesRead = bytesRead;
+            this.resumedAfter = resumedAfter;
+            this.importedCount = importedCount;
+            this.rejectedCount = rejectedCount;
+            this.rejections = rejections;
+        }
+
+        /** The number of records read from the file so far, including those skipped on resume. */
+        public long getRecordsRead() { return recordsRead; }
+
+        /** The number of bytes read from the file so far, for estimating how much is left. */
+        public long getBytesRead() { return bytesRead; }
+
+        /** The number of records already done by an earlier run, or {@code 0} for a new import. */
+        public long getResumedAfter() { return resumedAfter; }
+
+        /** The number of items written and confirmed, including by earlier runs. */
+        public long getImportedCount() { return importedCount; }
+
+        /** The number of records rejected in confirmed chunks, including by earlier runs. */
+        public long getRejectedCount() { return rejectedCount; }
+
+        /** The first {@value #MAX_REPORTED_REJECTIONS} rejections of this run, as "Row n: reason". */
+        @NonNull
+        public List<String> getRejections() { return rejections; }
+    }
+
+
+    /** The number of records in a chunk by default, matching the batch chunk size. */
+    public static final int DEFAULT_CHUNK_SIZE = InventoryBatch.DEFAULT_MAX_CHUNK_SIZE;
+
+    /** The number of chunks that may await confirmation at once by default. */
+    public static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 2;
+
+    /** The number of rejections kept for reporting; later ones are only counted. */
+    public static final int MAX_REPORTED_REJECTIONS = 20;
+
+    /** The reason reported when an import is cancelled. */
+    public static final String REASON_CANCELLED = "Import cancelled";
+
+
+    /*
+     * The records of one chunk, and whether the database has confirmed them.
+     */
+    private static final class Chunk {
+        final InventoryBatch batch;
+        long records;
+        long imported;
+        long rejected;
+        boolean confirmed;
+
+        Chunk(InventoryBatch batch) {
+            this.batch = batch;
+        }
+    }
+
+
+    /*
+     * Counts the bytes read from the file.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+
+    private final FirebaseDatabaseHelper databaseHelper;
+    private final ImportCheckpointStore checkpointStore;
+    private final Executor workExecutor;
+    private final Executor callbackExecutor;
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+    private final Semaphore inFlight;
+
+    // Guarded by this
+    private final Queue<Chunk> unconfirmedChunks = new ArrayDeque<>();
+    private final List<String> rejections = new ArrayList<>();
+    private Thread workerThread;
+    private ImportCheckpoint confirmed;
+    private String failure;
+    private boolean finished;
+
+    private volatile boolean started;
+    private volatile boolean cancelled;
+    private volatile long recordsRead;
+    private volatile long resumedAfter;
+    private CountingInputStream countingInput;
+    private String sourceKey;
+    private Listener listener;
+
+
+    /**
+     * Creates an importer writing chunks of {@value #DEFAULT_CHUNK_SIZE} records, with at most
+     * {@value #DEFAULT_MAX_IN_FLIGHT_CHUNKS} awaiting confirmation.
+     * <p>
+     * @param databaseHelper the helper whose batches the items are written through
+     * @param checkpointStore the store keeping checkpoints for resuming, or {@code null} to import
+     *                        without checkpoints
+     * @param workExecutor the executor reading the file; the import occupies one of its threads
+     *                     until it finishes
+     * @param callbackExecutor the executor listener callbacks are delivered on (the main thread)
+     */
+    public InventoryImporter(@NonNull FirebaseDatabaseHelper databaseHelper,
+                             @Nullable ImportCheckpointStore checkpointStore,
+                             @NonNull Executor workExecutor, @NonNull Executor callbackExecutor) {
+        this(databaseHelper, checkpointStore, workExecutor, callbackExecutor, DEFAULT_CHUNK_SIZE,
+                DEFAULT_MAX_IN_FLIGHT_CHUNKS);
+    }
+
+
+    /**
+     * Creates an importer with the given chunking.
+     * <p>
+     * @param chunkSize the number of records in each chunk
+     * @param maxInFlightChunks the number of chunks that may await confirmation at once
+     */
+    InventoryImporter(@NonNull FirebaseDatabaseHelper databaseHelper, @Nullable ImportCheckpointStore checkpointStore,
+                      @NonNull Executor workExecutor, @NonNull Executor callbackExecutor,
+                      int chunkSize, int maxInFlightChunks) {
+        if (chunkSize <= 0 || maxInFlightChunks <= 0) {
+            throw new IllegalArgumentException("chunkSize and maxInFlightChunks must be positive");
+        }
+        this.databaseHelper = databaseHelper;
+        this.checkpointStore = checkpointStore;
+        this.workExecutor = workExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.chunkSize = chunkSize;
+        this.maxInFlightChunks = maxInFlightChunks;
+        this.inFlight = new Semaphore(maxInFlightChunks);
+    }
+
+
+    /**
+     * Starts importing a file on the work executor, resuming from its checkpoint if an earlier
+     * import of the same file did not finish. The input is closed when the import ends.
+     * <p>
+     * @param sourceKey a key identifying the file, such as its URI and size, under which its
+     *                  checkpoint is kept
+     * @param input the contents of the file, encoded in UTF-8
+     * @param format the format of the file
+     * @param listener notified of progress and of the outcome
+     * @throws IllegalStateException if this importer has already been started
+     */
+    public void start(@NonNull String sourceKey, @NonNull InputStream input, @NonNull Format format,
+                      @NonNull Listener listener) {
+        if (started) {
+            throw new IllegalStateException("An importer runs a single import");
+        }
+        started = true;
+        this.sourceKey = sourceKey;
+        this.listener = listener;
+        this.countingInput = new CountingInputStream(input);
+        workExecutor.execute(() -> run(format));
+    }
+
+
+    /**
+     * Stops the import after the record being read. Chunks already sent are still confirmed and
+     * checkpointed, and the listener's {@link Listener#onFailed} is called with
+     * {@link #REASON_CANCELLED}.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            if (workerThread != null) {
+                // Wakes the worker if it is waiting for a chunk to be confirmed
+                workerThread.interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Reads, validates, and commits every record, then reports the outcome.
+     * <p>
+     * @param format the format of the file
+     */
+    private void run(Format format) {
+        synchronized (this) {
+            workerThread = Thread.currentThread();
+        }
+        Reader text = new InputStreamReader(countingInput, StandardCharsets.UTF_8);
+        try (InventoryRecordReader reader = format == Format.JSON ? new JsonRecordReader(text) : new CsvRecordReader(text)) {
+            ImportCheckpoint checkpoint = checkpointStore != null ? checkpointStore.load(sourceKey) : null;
+            if (checkpoint == null) {
+                String importKey = databaseHelper.newItemId();
+                if (importKey == null) {
+                    throw new IOException("Could not generate item IDs");
+                }
+                checkpoint = new ImportCheckpoint(importKey, 0, 0, 0);
+            }
+            synchronized (this) {
+                confirmed = checkpoint;
+            }
+            resumedAfter = checkpoint.getRecordsDone();
+
+            readRecords(reader, checkpoint);
+        } catch (IOException e) {
+            // Interrupting a read from cancel() surfaces as an I/O error, which is not a failure
+            if (!cancelled) {
+                fail(e.getMessage() != null ? e.getMessage() : "The file could not be read");
+            }
+        } catch (InterruptedException e) {
+            // Only cancel() interrupts the worker
+        } finally {
+            synchronized (this) {
+                workerThread = null;
+            }
+            // Clears an interrupt from cancel() before the executor's thread is reused
+            Thread.interrupted();
+        }
+
+        awaitUnconfirmedChunks();
+        finish();
+    }
+
+
+    /**
+     * Reads the records after the checkpoint and commits them in chunks.
+     * <p>
+     * @param reader the records of the file
+     * @param checkpoint where the import starts
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if the import is cancelled while waiting for a confirmation
+     */
+    private void readRecords(InventoryRecordReader reader, ImportCheckpoint checkpoint)
+            throws IOException, InterruptedException {
+        Chunk chunk = null;
+        long recordNumber = 0;
+        Map<String, String> record;
+        while (!isStopping() && (record = reader.readRecord()) != null) {
+            recordNumber++;
+            recordsRead = recordNumber;
+            if (recordNumber <= checkpoint.getRecordsDone()) {
+                continue;
+            }
+
+            if (chunk == null) {
+                chunk = new Chunk(databaseHelper.batch());
+            }
+            chunk.records++;
+            try {
+                InventoryItem item = InventoryRowValidator.toItem(record);
+                String itemId = item.getId() != null ? item.getId() : generatedId(checkpoint.getImportKey(), recordNumber);
+                chunk.batch.update(itemId, item);
+                chunk.imported++;
+            } catch (IllegalArgumentException e) {
+                chunk.rejected++;
+                recordRejection("Row " + recordNumber + ": " + e.getMessage());
+            }
+
+            if (chunk.records == chunkSize) {
+                commit(chunk);
+                chunk = null;
+            }
+        }
+
+        if (chunk != null && !isStopping()) {
+            commit(chunk);
+        }
+    }
+
+
+    /**
+     * Commits a chunk once fewer than {@code maxInFlightChunks} chunks await confirmation.
+     * <p>
+     * @param chunk the chunk to commit
+     * @throws InterruptedException if the import is cancelled while waiting
+     */
+    private void commit(Chunk chunk) throws InterruptedException {
+        inFlight.acquire();
+        synchronized (this) {
+            unconfirmedChunks.add(chunk);
+        }
+
+        TraceSection.begin("InventoryImporter.commit");
+        try {
+            chunk.batch.commit((error, reference) -> onChunkCommitted(chunk, error));
+        } finally {
+            TraceSection.end();
+        }
+    }
+
+
+    /**
+     * Records the outcome of a chunk and, once every earlier chunk is confirmed too, advances and
+     * saves the checkpoint. Called on the thread the database reports completion on.
+     * <p>
+     * @param chunk the committed chunk
+     * @param error the error the database rejected the chunk with, or {@code null} on success
+     */
+    private void onChunkCommitted(Chunk chunk, @Nullable DatabaseError error) {
+        ImportCheckpoint checkpoint = null;
+        Progress progress = null;
+        synchronized (this) {
+            if (error != null) {
+                // An unconfirmed chunk holds back every later one, so the checkpoint stops here
+                if (failure == null) {
+                    failure = "The database rejected the import: " + error.getMessage();
+                }
+            } else {
+                chunk.confirmed = true;
+                while (!unconfirmedChunks.isEmpty() && unconfirmedChunks.peek().confirmed) {
+                    Chunk done = unconfirmedChunks.remove();
+                    confirmed = confirmed.advance(done.records, done.imported, done.rejected);
+                    checkpoint = confirmed;
+                }
+            }
+            if (checkpoint != null && !finished) {
+                progress = snapshot();
+            }
+        }
+
+        if (checkpoint != null && checkpointStore != null) {
+            checkpointStore.save(sourceKey, checkpoint);
+        }
+        inFlight.release();
+
+        if (progress != null) {
+            Progress update = progress;
+            callbackExecutor.execute(() -> listener.onProgress(update));
+        }
+    }
+
+
+    /**
+     * Waits until every committed chunk has been confirmed or rejected, unless the import was
+     * cancelled, in which case late confirmations still update the checkpoint but are not waited
+     * for.
+     */
+    private void awaitUnconfirmedChunks() {
+        if (cancelled) {
+            return;
+        }
+        try {
+            inFlight.acquire(maxInFlightChunks);
+            inFlight.release(maxInFlightChunks);
+        } catch (InterruptedException e) {
+            // Cancelled while waiting
+        }
+    }
+
+
+    /**
+     * Reports the outcome of the import and clears the checkpoint of a finished import.
+     */
+    private void finish() {
+        Progress progress;
+        String reason;
+        synchronized (this) {
+            finished = true;
+            progress = snapshot();
+            boolean complete = failure == null && !cancelled && unconfirmedChunks.isEmpty();
+            reason = complete ? null : failure != null ? failure : REASON_CANCELLED;
+        }
+
+        if (reason == null) {
+            if (checkpointStore != null) {
+                checkpointStore.clear(sourceKey);
+            }
+            callbackExecutor.execute(() -> listener.onComplete(progress));
+        } else {
+            callbackExecutor.execute(() -> listener.onFailed(progress, reason));
+        }
+    }
+
+
+    /*
+     * Marks the import as failed, keeping the first reason.
+     */
+    private synchronized void fail(String reason) {
+        if (failure == null) {
+            failure = reason;
+        }
+    }
+
+
+    /*
+     * Keeps a rejection for reporting, up to the limit.
+     */
+    private synchronized void recordRejection(String rejection) {
+        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+            rejections.add(rejection);
+        }
+    }
+
+
+    /*
+     * Returns whether reading should stop, because the import was cancelled or a chunk failed.
+     */
+    private boolean isStopping() {
+        if (cancelled) {
+            return true;
+        }
+        synchronized (this) {
+            return failure != null;
+        }
+    }
+
+
+    /*
+     * Captures the current progress. Must be called while holding the lock.
+     */
+    private Progress snapshot() {
+        ImportCheckpoint checkpoint = confirmed;
+        return new Progress(recordsRead, countingInput.count, resumedAfter,
+                checkpoint != null ? checkpoint.getImportedCount() : 0,
+                checkpoint != null ? checkpoint.getRejectedCount() : 0,
+                Collections.unmodifiableList(new ArrayList<>(rejections)));
+    }
+
+
+    /**
+     * Derives the ID of an item imported without one. IDs are zero-padded so that they sort in
+     * file order after the import key, which is itself a chronologically ordered database key.
+     * <p>
+     * @param importKey the import key of the checkpoint
+     * @param recordNumber the number of the record in the file, starting at 1
+     * @return the item ID
+     */
+    static String generatedId(String importKey, long recordNumber) {
+        return String.format(Locale.ROOT, "%s-%09d", importKey, recordNumber);
+    }
+
+}
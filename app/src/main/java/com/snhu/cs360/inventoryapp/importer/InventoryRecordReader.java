@@ -0,0 +1,29 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+
+/**
+ * Reads the records of an import file one at a time, so that a file of any size is imported with
+ * only the current record in memory.
+ * <p>
+ * Each record maps lower-case field names, such as {@code "name"} or {@code "quantity"}, to their
+ * values as text. Fields missing from a record are absent from its map, and it is up to
+ * {@link InventoryRowValidator} to decide whether the record makes a valid item.
+ */
+public interface InventoryRecordReader extends Closeable {
+
+    /**
+     * Reads the next record.
+     * <p>
+     * @return the fields of the record, or {@code null} once the input is exhausted
+     * @throws IOException if the input cannot be read or is malformed beyond the current record
+     */
+    @Nullable
+    Map<String, String> readRecord() throws IOException;
+
+}
@@ -0,0 +1,131 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.NonNull;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+
+/**
+ * Turns an imported record into an {@link InventoryItem}, applying the same rules as the add item
+ * dialog: a name and a quantity are required, the description defaults to empty, and the tag
+ * defaults to {@value #DEFAULT_TAG}.
+ * <p>
+ * Surrounding whitespace is trimmed from every field. The quantity must be a whole number between
+ * zero and {@link Integer#MAX_VALUE}; {@code "12"}, {@code "12.0"}, and {@code "1.2e1"} are all
+ * accepted. A record may carry the ID of the item it replaces, which must be a valid database key.
+ */
+public final class InventoryRowValidator {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_QUANTITY = "quantity";
+    public static final String FIELD_TAG = "tag";
+
+    /** The tag given to items imported without one. */
+    public static final String DEFAULT_TAG = "Other";
+
+    /** The longest item ID accepted, in characters. */
+    static final int MAX_ID_LENGTH = 768;
+
+
+    private InventoryRowValidator() {
+    }
+
+
+    /**
+     * Validates a record and builds the item it describes.
+     * <p>
+     * @param record the fields of the record, keyed by lower-case field name
+     * @return the item, carrying the record's ID if it has one, otherwise no ID
+     * @throws IllegalArgumentException if the record does not describe a valid item; the message
+     *                                  says why, for showing to the user
+     */
+    @NonNull
+    public static InventoryItem toItem(@NonNull Map<String, String> record) {
+        String name = trimmed(record.get(FIELD_NAME));
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Missing name");
+        }
+
+        String quantityText = trimmed(record.get(FIELD_QUANTITY));
+        if (quantityText.isEmpty()) {
+            throw new IllegalArgumentException("Missing quantity");
+        }
+
+        String tag = trimmed(record.get(FIELD_TAG));
+        String id = trimmed(record.get(FIELD_ID));
+        if (!id.isEmpty() && !isValidKey(id)) {
+            throw new IllegalArgumentException("Invalid ID \"" + id + "\"");
+        }
+
+        return InventoryItem.builder()
+                .setId(id.isEmpty() ? null : id)
+                .setName(name)
+                .setDescription(trimmed(record.get(FIELD_DESCRIPTION)))
+                .setQuantity(parseQuantity(quantityText))
+                .setTag(tag.isEmpty() ? DEFAULT_TAG : tag)
+                .build();
+    }
+
+
+    /**
+     * Parses a quantity written as a whole number, with or without a fraction of zero or an
+     * exponent.
+     * <p>
+     * @param text the trimmed quantity
+     * @return the quantity
+     * @throws IllegalArgumentException if the text is not a whole number from zero to
+     *                                  {@link Integer#MAX_VALUE}
+     */
+    static int parseQuantity(String text) {
+        int quantity;
+        try {
+            quantity = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            try {
+                quantity = new BigDecimal(text).intValueExact();
+            } catch (NumberFormatException | ArithmeticException notWhole) {
+                throw new IllegalArgumentException("Quantity \"" + text + "\" is not a whole number");
+            }
+        }
+
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity " + quantity + " is negative");
+        }
+        return quantity;
+    }
+
+
+    /**
+     * Checks whether an ID can be used as a key in the Realtime Database, which rejects keys
+     * containing {@code . $ # [ ] /} or control characters.
+     * <p>
+     * @param id a non-empty trimmed ID
+     * @return {@code true} if the ID is a valid key
+     */
+    static boolean isValidKey(String id) {
+        if (id.length() > MAX_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < 0x20 || c == 0x7F || ".$#[]/".indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /*
+     * Returns a field without surrounding whitespace, or an empty string if it is absent.
+     */
+    private static String trimmed(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+}
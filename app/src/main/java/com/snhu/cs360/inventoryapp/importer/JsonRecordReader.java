@@ -0,0 +1,146 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Streams the records of a JSON file with Gson's {@link JsonReader}, which reads one token at a
+ * time instead of building the whole document in memory.
+ * <p>
+ * Three layouts are accepted:
+ * <p>
+ * - An array of item objects: {@code [{"name": "Widget", "quantity": 3}, ...]}. <p>
+ * - An object of item objects keyed by item ID, as exported from the inventory node of the
+ *   database: {@code {"-Nx1": {"name": "Widget", ...}, ...}}. The key becomes the record's ID
+ *   unless the item has an {@code id} field of its own. <p>
+ * - Either of the above under an {@code "inventory"} key, as exported from the database root. <p>
+ * <p>
+ * Field names are matched ignoring case. Strings, numbers, and booleans are passed on as text,
+ * nulls leave the field absent, and nested arrays and objects are skipped. An element that is not
+ * an object yields an empty record, which the {@link InventoryRowValidator} rejects.
+ */
+public class JsonRecordReader implements InventoryRecordReader {
+
+    private static final String KEY_INVENTORY = "inventory";
+
+    private final JsonReader reader;
+    private boolean opened;
+    private boolean keyed;
+    private String pendingKey;
+
+
+    /**
+     * Creates a reader over JSON text. The layout is recognized with the first record.
+     * <p>
+     * @param reader the source of the JSON text
+     */
+    public JsonRecordReader(@NonNull Reader reader) {
+        this.reader = new JsonReader(reader);
+    }
+
+
+    @Nullable
+    @Override
+    public Map<String, String> readRecord() throws IOException {
+        if (!opened) {
+            opened = true;
+            open();
+        }
+
+        String key = pendingKey;
+        pendingKey = null;
+        if (key == null) {
+            if (!reader.hasNext()) {
+                return null;
+            }
+            if (keyed) {
+                key = reader.nextName();
+            }
+        }
+
+        Map<String, String> record = new HashMap<>();
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return record;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName().toLowerCase(Locale.ROOT);
+            switch (reader.peek()) {
+                case STRING:
+                case NUMBER:
+                    // Numbers are read as written, so "12.0" is judged by the validator
+                    record.put(name, reader.nextString());
+                    break;
+                case BOOLEAN:
+                    record.put(name, String.valueOf(reader.nextBoolean()));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (key != null && !record.containsKey(InventoryRowValidator.FIELD_ID)) {
+            record.put(InventoryRowValidator.FIELD_ID, key);
+        }
+        return record;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+
+    /**
+     * Steps into the collection of items, recognizing the layout of the file.
+     * <p>
+     * @throws IOException if the document is neither an array nor an object
+     */
+    private void open() throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            return;
+        }
+        if (token != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Expected a JSON array or object of items, found " + token);
+        }
+
+        reader.beginObject();
+        keyed = true;
+        if (!reader.hasNext()) {
+            return;
+        }
+
+        String name = reader.nextName();
+        JsonToken value = reader.peek();
+        if (name.equals(KEY_INVENTORY) && (value == JsonToken.BEGIN_ARRAY || value == JsonToken.BEGIN_OBJECT)) {
+            // A database root export; the items are one level down
+            if (value == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                keyed = false;
+            } else {
+                reader.beginObject();
+            }
+        } else {
+            // The first key of an object of items has already been read
+            pendingKey = name;
+        }
+    }
+
+}
@@ -1,8 +1,9 @@
 package com.snhu.cs360.inventoryapp.inventory;
 
-import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,30 +12,73 @@ import android.widget.EditText;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.snhu.cs360.inventoryapp.firebase.FirebaseDatabaseHelper;
+import com.snhu.cs360.inventoryapp.firebase.PendingWriteTracker;
+import com.snhu.cs360.inventoryapp.firebase.QuantityWriteCoalescer;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
+import com.snhu.cs360.inventoryapp.metrics.TraceSection;
 import com.snhu.cs360.inventoryapp.R;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 
 /**
  * Custom adapter class for managing and displaying a list of inventory items in a RecyclerView.
  * It supports switching between list and grid view modes and interacts with a Firebase
  * database to update inventory item data in real-time.
+ * <p>
+ * The two modes are separate view types ({@link #VIEW_TYPE_LIST} and {@link #VIEW_TYPE_GRID}), so
+ * a single adapter serves both and the RecyclerView keeps the ViewHolders of each mode apart in
+ * its recycled view pool. Switching modes with {@link #setListView} rebinds the visible rows from
+ * the pool instead of building a new adapter.
+ * <p>
+ * The adapter owns the displayed list. Single-item changes that already carry their position, as
+ * reported by {@link LiveInventoryView.Listener}, are applied to it in place and dispatched as one
+ * insert, remove, move, or change. Only a whole new list passed to {@link #setItems} is diffed,
+ * on a background thread and keyed on {@link InventoryItem#getId()}, so only the rows that were
+ * actually inserted, moved, removed, or changed are rebound. Items expose stable IDs so
+ * ViewHolders, animations, and scroll position survive every update.
  */
 public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.ViewHolder> {
 
+    public static final int VIEW_TYPE_LIST = 0;
+    public static final int VIEW_TYPE_GRID = 1;
+
     private boolean isListView;
-    private List<InventoryItem> mInventoryList;
     private FirebaseDatabaseHelper mFirebaseDatabaseHelper;
+    private QuantityWriteCoalescer mQuantityWriteCoalescer;
+    private PendingWriteTracker mPendingWriteTracker;
+
+    // Whole-list replacements are diffed here, one at a time, off the main thread. The thread is a
+    // daemon so the shared executor never keeps the process alive.
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "InventoryAdapter-diff");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final InventoryItemDiffCallback mDiffCallback = new InventoryItemDiffCallback();
+    private List<InventoryItem> mItems;
+    // Positional edits made while a replacement is being diffed, applied once it is displayed
+    private final List<Runnable> mDeferredEdits = new ArrayList<>();
+    private int mReplacementGeneration;
+    private boolean mReplacementPending;
+    private final OperationMetrics mMetrics = OperationMetrics.getInstance();
 
 
     public InventoryAdapter(List<InventoryItem> inventoryList, boolean isListView, FirebaseDatabaseHelper firebaseDatabaseHelper) {
-        mInventoryList = inventoryList;
         this.isListView = isListView;
         this.mFirebaseDatabaseHelper = firebaseDatabaseHelper;
+
+        setHasStableIds(true);
+        mItems = new ArrayList<>(inventoryList);
     }
 
 
@@ -67,32 +111,79 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
     }
 
 
+    /**
+     * Switches between the list and grid layouts. Every row changes view type, so the RecyclerView
+     * rebinds the visible rows using ViewHolders of the new type from its recycled view pool.
+     * <p>
+     * Call this before swapping the layout manager, so the new layout manager lays out rows of
+     * the new type in a single pass.
+     * <p>
+     * @param isListView {@code true} for the list layout, {@code false} for the grid layout.
+     */
+    public void setListView(boolean isListView) {
+        if (this.isListView == isListView) {
+            return;
+        }
+        this.isListView = isListView;
+        notifyDataSetChanged();
+    }
+
+
+    /**
+     * Returns whether the adapter is showing the list layout.
+     * <p>
+     * @return {@code true} for the list layout, {@code false} for the grid layout.
+     */
+    public boolean isListView() {
+        return isListView;
+    }
+
+
+    /**
+     * Returns the view type of every row for the current view mode.
+     * <p>
+     * @param position The position of the inventory item within the adapter's data set.
+     * @return {@link #VIEW_TYPE_LIST} in list mode, or {@link #VIEW_TYPE_GRID} in grid mode.
+     */
+    @Override
+    public int getItemViewType(int position) {
+        return isListView ? VIEW_TYPE_LIST : VIEW_TYPE_GRID;
+    }
+
+
     /**
      * Creates and returns a new ViewHolder for representing an inventory item in the RecyclerView.
-     * This method inflates the layout based on the current view mode (list or grid).
+     * This method inflates the list or grid layout according to the requested view type.
      * <p>
      * @param parent The ViewGroup into which the new View will be added after it is bound to an adapter position.
-     * @param viewType The view type of the new View. This parameter is not used directly in this method.
+     * @param viewType The view type of the new View, {@link #VIEW_TYPE_LIST} or {@link #VIEW_TYPE_GRID}.
      * @return A new instance of InventoryAdapter.ViewHolder for holding the inflated inventory item View.
      */
     @NonNull
     @Override
     public InventoryAdapter.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        Context context = parent.getContext();
-        LayoutInflater inflater = LayoutInflater.from(context);
-
-        int layoutId = isListView ? R.layout.item_view_list : R.layout.item_view_grid;
-        View inventoryItemView = inflater.inflate(layoutId, parent, false);
-
-        return new ViewHolder(inventoryItemView);
+        long startNanos = OperationMetrics.startTimer();
+        TraceSection.begin("InventoryAdapter.onCreateViewHolder");
+        try {
+            Context context = parent.getContext();
+            LayoutInflater inflater = LayoutInflater.from(context);
+
+            int layoutId = viewType == VIEW_TYPE_LIST ? R.layout.item_view_list : R.layout.item_view_grid;
+            View inventoryItemView = inflater.inflate(layoutId, parent, false);
+
+            return new ViewHolder(inventoryItemView);
+        } finally {
+            TraceSection.end();
+            mMetrics.record(OperationMetrics.Operation.CREATE_VIEW_HOLDER, startNanos);
+        }
     }
 
 
     /**
      * Binds the data from the inventory item list to the respective views in the ViewHolder.
      * This method is called by the RecyclerView to display the data at the specified position.
-     * It also handles increment and decrement actions for the item's quantity, updating both the
-     * local item list and the Firebase database, and refreshing the item view.
+     * It also handles increment and decrement actions for the item's quantity by sending an atomic
+     * adjustment to the Firebase database; the updated row is delivered back through the sync engine.
      * <p>
      * @param holder The ViewHolder which should be updated to represent the contents of the
      *               inventory item at the given position in the dataset.
@@ -100,28 +191,92 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
      */
     @Override
     public void onBindViewHolder(@NonNull InventoryAdapter.ViewHolder holder, int position) {
-        InventoryItem currentItem = mInventoryList.get(position);
+        long startNanos = OperationMetrics.startTimer();
+        TraceSection.begin("InventoryAdapter.onBindViewHolder");
+        try {
+            InventoryItem currentItem = getItemAt(position);
+
+            holder.itemNameTextView.setText(currentItem.getName());
+            holder.itemDescriptionTextView.setText(currentItem.getDescription());
+            holder.itemQuantityTextView.setText(String.valueOf(getDisplayedQuantity(currentItem)));
+
+            // Quantity changes are sent as atomic adjustments; the refreshed row arrives via the sync engine
+            holder.itemAddButton.setOnClickListener(v -> adjustQuantity(holder, currentItem, 1));
+
+            holder.itemSubtractButton.setOnClickListener(v -> {
+                if (getDisplayedQuantity(currentItem) > 0) {
+                    adjustQuantity(holder, currentItem, -1);
+                }
+            });
+
+            holder.itemView.setOnClickListener(v -> showEditItemDialog(currentItem, holder));
+        } finally {
+            TraceSection.end();
+            mMetrics.record(OperationMetrics.Operation.BIND_VIEW_HOLDER, startNanos);
+        }
+    }
 
-        holder.itemNameTextView.setText(currentItem.getName());
-        holder.itemDescriptionTextView.setText(currentItem.getDescription());
-        holder.itemQuantityTextView.setText(String.valueOf(currentItem.getQuantity()));
 
-        holder.itemAddButton.setOnClickListener(v -> {
-            currentItem.setQuantity(currentItem.getQuantity() + 1);
-            mFirebaseDatabaseHelper.updateItem(currentItem.getId(), currentItem);
-            notifyItemChanged(position);
-        });
+    /**
+     * Routes quantity taps through a write-coalescing buffer, so a burst of taps on the same item
+     * is written as one merged adjustment. Without a coalescer every tap is written immediately.
+     * <p>
+     * @param coalescer The {@link QuantityWriteCoalescer} buffering quantity writes, or {@code null}.
+     */
+    public void setQuantityWriteCoalescer(QuantityWriteCoalescer coalescer) {
+        mQuantityWriteCoalescer = coalescer;
+    }
 
-        holder.itemSubtractButton.setOnClickListener(v -> {
-            if (currentItem.getQuantity() > 0) {
-                currentItem.setQuantity(currentItem.getQuantity() - 1);
-                mFirebaseDatabaseHelper.updateItem(currentItem.getId(), currentItem);
-                notifyItemChanged(position);
+
+    /**
+     * Routes edits and unbuffered quantity taps through an optimistic write layer, so they are
+     * shown immediately and rolled back if the database rejects them. Without a tracker, changes
+     * are written straight to the database.
+     * <p>
+     * @param tracker The {@link PendingWriteTracker} applying writes optimistically, or {@code null}.
+     */
+    public void setPendingWriteTracker(PendingWriteTracker tracker) {
+        mPendingWriteTracker = tracker;
+    }
+
+
+    /**
+     * Sends a quantity adjustment for an item, buffering it when a coalescer is set and refreshing
+     * the row so the buffered quantity is shown right away.
+     * <p>
+     * @param holder The ViewHolder displaying the item.
+     * @param item The {@link InventoryItem} being adjusted.
+     * @param delta The amount to add to the quantity; negative values subtract.
+     */
+    private void adjustQuantity(ViewHolder holder, InventoryItem item, int delta) {
+        if (mQuantityWriteCoalescer != null) {
+            mQuantityWriteCoalescer.adjustQuantity(item.getId(), delta);
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                // The row is being removed or rebound; its next bind shows the buffered quantity
+                return;
             }
-        });
+            notifyItemChanged(position);
+        } else if (mPendingWriteTracker != null) {
+            mPendingWriteTracker.adjustQuantity(item.getId(), delta);
+        } else {
+            mFirebaseDatabaseHelper.adjustQuantity(item.getId(), delta);
+        }
+    }
 
-        holder.itemView.setOnClickListener(v -> showEditItemDialog(currentItem, position, holder));
 
+    /**
+     * Returns the quantity to display for an item, including any adjustment still buffered
+     * in the write coalescer.
+     * <p>
+     * @param item The {@link InventoryItem} being displayed.
+     * @return The stored quantity plus the pending delta, never below zero.
+     */
+    private int getDisplayedQuantity(InventoryItem item) {
+        if (mQuantityWriteCoalescer == null) {
+            return item.getQuantity();
+        }
+        return Math.max(0, item.getQuantity() + mQuantityWriteCoalescer.getPendingDelta(item.getId()));
     }
 
 
@@ -132,19 +287,225 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
      */
     @Override
     public int getItemCount() {
-        return mInventoryList.size();
+        return mItems.size();
     }
 
 
     /**
-     * Updates the list of inventory items in the adapter and refreshes the data displayed by the RecyclerView.
+     * Returns a stable identifier for the item at the given position. The identifier is derived
+     * from the item ID alone, so the same item keeps the same identifier across list updates
+     * without the adapter remembering every item it has shown.
+     * <p>
+     * @param position The position of the inventory item within the adapter's data set.
+     * @return The stable identifier of the item, or {@link RecyclerView#NO_ID} if it has no ID yet.
+     */
+    @Override
+    public long getItemId(int position) {
+        String itemId = mItems.get(position).getId();
+        if (itemId == null) {
+            return RecyclerView.NO_ID;
+        }
+        return stableIdOf(itemId);
+    }
+
+
+    /**
+     * Hashes an item ID to a 64-bit stable identifier with FNV-1a. Collisions between the IDs of
+     * one inventory are vanishingly unlikely at 64 bits, and {@link RecyclerView#NO_ID} is never
+     * returned.
+     * <p>
+     * @param itemId The ID of the item.
+     * @return The stable identifier of the item.
+     */
+    static long stableIdOf(@NonNull String itemId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < itemId.length(); i++) {
+            hash ^= itemId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
+
+
+    /**
+     * Replaces the list of inventory items in the adapter, e.g. after the search, filter, or sort
+     * order changes. The difference between the displayed list and the new list is computed on a
+     * background thread, and only the minimal set of insert, move, remove, and change operations is
+     * dispatched to the RecyclerView. Replacing an empty list, or replacing with one, is applied at
+     * once.
+     * <p>
+     * Positional edits made before the new list is displayed refer to the new list, so they are
+     * held back and applied in order right after it.
      *
      * @param items The new list of {@link InventoryItem} objects to be displayed in the inventory.
      */
-    @SuppressLint("NotifyDataSetChanged")
     public void setItems(List<InventoryItem> items) {
-        this.mInventoryList = items;
-        notifyDataSetChanged();
+        int generation = ++mReplacementGeneration;
+        List<InventoryItem> newList = new ArrayList<>(items);
+        mDeferredEdits.clear();
+
+        if (mItems.isEmpty() || newList.isEmpty()) {
+            mReplacementPending = false;
+            int oldSize = mItems.size();
+            mItems = newList;
+            if (oldSize > 0) {
+                notifyItemRangeRemoved(0, oldSize);
+            }
+            if (!newList.isEmpty()) {
+                notifyItemRangeInserted(0, newList.size());
+            }
+            return;
+        }
+
+        // The displayed list is left untouched until the diff is applied, so it is safe to read here
+        List<InventoryItem> oldList = mItems;
+        mReplacementPending = true;
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new ItemListDiff(oldList, newList, mDiffCallback));
+            mMainHandler.post(() -> {
+                if (generation != mReplacementGeneration) {
+                    // A later replacement superseded this one
+                    return;
+                }
+                mReplacementPending = false;
+                mItems = newList;
+                result.dispatchUpdatesTo(this);
+
+                List<Runnable> deferredEdits = new ArrayList<>(mDeferredEdits);
+                mDeferredEdits.clear();
+                for (Runnable edit : deferredEdits) {
+                    edit.run();
+                }
+            });
+        });
+    }
+
+
+    /**
+     * Replaces a displayed inventory item with its updated version. Items that are not currently
+     * displayed (e.g. filtered out) are ignored.
+     * <p>
+     * @param previous The {@link InventoryItem} instance currently held by the adapter.
+     * @param item The updated {@link InventoryItem} that replaces it.
+     */
+    public void replaceItem(InventoryItem previous, InventoryItem item) {
+        if (deferWhileReplacing(() -> replaceItem(previous, item))) {
+            return;
+        }
+        int index = mItems.indexOf(previous);
+        if (index >= 0) {
+            setItemAt(index, item);
+        }
+    }
+
+
+    /**
+     * Inserts an item at a position, e.g. as reported by {@link LiveInventoryView.Listener}.
+     * <p>
+     * @param position The position the item is inserted at.
+     * @param item The {@link InventoryItem} to insert.
+     */
+    public void insertItem(int position, InventoryItem item) {
+        if (deferWhileReplacing(() -> insertItem(position, item))) {
+            return;
+        }
+        mItems.add(position, item);
+        notifyItemInserted(position);
+    }
+
+
+    /**
+     * Removes the item at a position.
+     * <p>
+     * @param position The position of the item to remove.
+     */
+    public void removeItemAt(int position) {
+        if (deferWhileReplacing(() -> removeItemAt(position))) {
+            return;
+        }
+        mItems.remove(position);
+        notifyItemRemoved(position);
+    }
+
+
+    /**
+     * Moves the item at one position to another.
+     * <p>
+     * @param fromPosition The current position of the item.
+     * @param toPosition The position of the item after the move.
+     */
+    public void moveItem(int fromPosition, int toPosition) {
+        if (deferWhileReplacing(() -> moveItem(fromPosition, toPosition))) {
+            return;
+        }
+        mItems.add(toPosition, mItems.remove(fromPosition));
+        notifyItemMoved(fromPosition, toPosition);
+    }
+
+
+    /**
+     * Replaces the item at a position with its updated version. The row is only rebound if a
+     * displayed field changed.
+     * <p>
+     * @param position The position of the item.
+     * @param item The updated {@link InventoryItem}.
+     */
+    public void setItemAt(int position, InventoryItem item) {
+        if (deferWhileReplacing(() -> setItemAt(position, item))) {
+            return;
+        }
+        InventoryItem previous = mItems.set(position, item);
+        if (!mDiffCallback.areContentsTheSame(previous, item)) {
+            notifyItemChanged(position);
+        }
+    }
+
+
+    /**
+     * Holds back an edit while a replacement list is being diffed, to be applied once it is
+     * displayed.
+     * <p>
+     * @param edit The edit to apply later.
+     * @return {@code true} if the edit was held back, {@code false} if it should be applied now.
+     */
+    private boolean deferWhileReplacing(Runnable edit) {
+        if (!mReplacementPending) {
+            return false;
+        }
+        mDeferredEdits.add(edit);
+        return true;
+    }
+
+
+    /*
+     * Compares two item lists by position for DiffUtil, using the adapter's item callback.
+     */
+    private static final class ItemListDiff extends DiffUtil.Callback {
+        private final List<InventoryItem> oldList;
+        private final List<InventoryItem> newList;
+        private final InventoryItemDiffCallback callback;
+
+        ItemListDiff(List<InventoryItem> oldList, List<InventoryItem> newList, InventoryItemDiffCallback callback) {
+            this.oldList = oldList;
+            this.newList = newList;
+            this.callback = callback;
+        }
+
+        @Override
+        public int getOldListSize() { return oldList.size(); }
+
+        @Override
+        public int getNewListSize() { return newList.size(); }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return callback.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+        }
     }
 
 
@@ -156,12 +517,10 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
      * <p>
      * @param currentItem the {@link InventoryItem} representing the inventory item to be edited.
      *                    Pre-fills the dialog inputs with the current details of the item.
-     * @param position the position of the {@code currentItem} in the inventory list. Used to update
-     *                 the item within the adapter and notify the changes to the RecyclerView.
      * @param holder the {@code ViewHolder} containing the context and item view associated with
      *               the inventory list. Used for inflating the dialog and accessing resources.
      */
-    private void showEditItemDialog(InventoryItem currentItem, int position, ViewHolder holder) {
+    private void showEditItemDialog(InventoryItem currentItem, ViewHolder holder) {
         View dialogView = LayoutInflater.from(holder.itemView.getContext()).inflate(R.layout.item_edit_view, null);
 
         // Create the dialog
@@ -189,18 +548,24 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
 
         saveButton.setOnClickListener(v -> {
 
-            // Update the inventory item with new data
-            currentItem.setName(editName.getText().toString());
-            currentItem.setDescription(editDescription.getText().toString());
-            currentItem.setQuantity(Integer.parseInt(editQuantity.getText().toString()));
-            currentItem.setTag(editTag.getTag().toString());
-
-            // Update the adapter and notify changes
-            mInventoryList.set(position, currentItem);
-            notifyItemChanged(position);
-
-            // Update the item in Firebase database
-            mFirebaseDatabaseHelper.updateItem(currentItem.getId(), currentItem);
+            // Items are immutable, so build an updated copy with the new data
+            InventoryItem updatedItem = currentItem.toBuilder()
+                    .setName(editName.getText().toString())
+                    .setDescription(editDescription.getText().toString())
+                    .setQuantity(Integer.parseInt(editQuantity.getText().toString()))
+                    .setTag(editTag.getTag().toString())
+                    .build();
+
+            if (mPendingWriteTracker != null) {
+                // Shown everywhere at once, and rolled back if the write is rejected
+                mPendingWriteTracker.updateItem(updatedItem);
+            } else {
+                // Show the updated copy in place of the current one
+                replaceItem(currentItem, updatedItem);
+
+                // Update the item in Firebase database
+                mFirebaseDatabaseHelper.updateItem(updatedItem.getId(), updatedItem);
+            }
 
             dialog.dismiss(); // Close the dialog
         });
@@ -218,23 +583,7 @@ public class InventoryAdapter extends RecyclerView.Adapter<InventoryAdapter.View
      * @return The {@code InventoryItem} object located at the specified position.
      */
     public InventoryItem getItemAt(int position) {
-        return mInventoryList.get(position);
-    }
-
-
-    /**
-     * Removes the specified item from the inventory list and notifies the adapter of the updates.
-     * This method also triggers visual updates in the associated RecyclerView to reflect the changes.
-     * <p>
-     * @param item The {@link InventoryItem} to be removed from the inventory list.
-     */
-    public void removeItem(InventoryItem item) {
-        int index = mInventoryList.indexOf(item);
-        if (index >= 0) {
-            mInventoryList.remove(index);
-            notifyItemRemoved(index);
-            notifyItemRangeChanged(index, mInventoryList.size());
-        }
+        return mItems.get(position);
     }
 
 }
@@ -0,0 +1,513 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * In-memory index over the words of every item name and tag, used to answer search queries that
+ * contain typos and to rank the results by how closely they match.
+ * <p>
+ * Distinct words are kept once in a sorted vocabulary, each with the IDs of the items using it, and
+ * every word is also filed under its character trigrams. A query term is compared only against the
+ * words that start with it or share enough trigrams with it to be within reach, so a query does not
+ * scan the whole inventory. Those words are scored by the restricted edit distance to the term,
+ * which counts an insertion, deletion, substitution, or swap of two neighbouring letters as one
+ * edit: "wdiget", "widgt", and "widgte" all find "Widget". Longer terms tolerate more edits, terms
+ * shorter than three letters must match exactly, and digits may be swapped but not otherwise
+ * edited. A word is only compared with edits, whole or by its beginning, when the two lengths
+ * differ by no more than the tolerated edits, so a word shorter than that is never scored.
+ * <p>
+ * An item matches a query when each term matches a word of its name or tag. Its relevance adds up
+ * the best score of each term, where an exact word scores highest, followed by a word the term is
+ * the beginning of, then by words one or two edits away. Words of the tag count for less than words
+ * of the name.
+ * <p>
+ * The index is maintained incrementally: {@link #addItem} and {@link #removeItem} touch only the
+ * words of the one item that changed.
+ */
+public class InventoryFuzzyIndex {
+
+    /** Relevance of a word that equals the term. */
+    static final float EXACT_SCORE = 1f;
+
+    /** Relevance of a word that starts with the term, before scaling by how much of it was typed. */
+    static final float PREFIX_SCORE = 0.8f;
+
+    /** Relevance of a word within the allowed edits of the term, before scaling by the edits. */
+    static final float TYPO_SCORE = 0.6f;
+
+    /** Weight of a match in the tag, relative to one in the name. */
+    static final float TAG_WEIGHT = 0.75f;
+
+    private static final char PAD = ' ';
+
+
+    /*
+     * A distinct word, with the items using it in their name and in their tag.
+     */
+    private static final class Word {
+        final String text;
+        final Set<String> nameIds = new HashSet<>();
+        final Set<String> tagIds = new HashSet<>();
+
+        Word(String text) {
+            this.text = text;
+        }
+    }
+
+
+    /*
+     * A matching item, ordered by relevance and then by the order it was first indexed.
+     */
+    private static final class Match {
+        static final Comparator<Match> BY_RELEVANCE = (a, b) -> {
+            int byScore = Float.compare(b.score, a.score);
+            return byScore != 0 ? byScore : Long.compare(a.sequence, b.sequence);
+        };
+
+        final String itemId;
+        final float score;
+        final long sequence;
+
+        Match(String itemId, float score, long sequence) {
+            this.itemId = itemId;
+            this.score = score;
+            this.sequence = sequence;
+        }
+    }
+
+
+    private final NavigableMap<String, Word> vocabulary = new TreeMap<>();
+    private final Map<String, Set<Word>> wordsByTrigram = new HashMap<>();
+    private final Map<String, Set<String>> nameWordsById = new HashMap<>();
+    private final Map<String, Set<String>> tagWordsById = new HashMap<>();
+    private final Map<String, Long> sequenceById = new HashMap<>();
+    private long nextSequence;
+
+
+    /**
+     * Indexes an item, replacing any words previously indexed for the same ID.
+     * <p>
+     * @param item the item that was added or changed
+     */
+    public void addItem(@NonNull InventoryItem item) {
+        String itemId = item.getId();
+        if (itemId == null) {
+            return;
+        }
+
+        Set<String> nameWords = new HashSet<>();
+        InventorySearchIndex.tokenize(item.getName(), nameWords);
+        Set<String> tagWords = new HashSet<>();
+        InventorySearchIndex.tokenize(item.getTag(), tagWords);
+
+        if (!sequenceById.containsKey(itemId)) {
+            sequenceById.put(itemId, nextSequence++);
+        }
+        updateWords(itemId, nameWordsById.put(itemId, nameWords), nameWords, false);
+        updateWords(itemId, tagWordsById.put(itemId, tagWords), tagWords, true);
+    }
+
+
+    /**
+     * Removes every word indexed for an item.
+     * <p>
+     * @param itemId the unique identifier of the item that was removed
+     */
+    public void removeItem(@NonNull String itemId) {
+        sequenceById.remove(itemId);
+        updateWords(itemId, nameWordsById.remove(itemId), Collections.emptySet(), false);
+        updateWords(itemId, tagWordsById.remove(itemId), Collections.emptySet(), true);
+    }
+
+
+    /**
+     * Returns the number of indexed items.
+     * <p>
+     * @return the item count
+     */
+    public int size() {
+        return sequenceById.size();
+    }
+
+
+    /**
+     * Finds the items whose name or tag matches every term of a query, allowing for typos.
+     * <p>
+     * @param query the text typed by the user
+     * @return the IDs of the matching items, most relevant first, with equally relevant items in
+     *         the order they were first indexed; every indexed ID when the query has no terms
+     */
+    @NonNull
+    public List<String> search(@NonNull String query) {
+        Set<String> terms = new HashSet<>();
+        InventorySearchIndex.tokenize(query, terms);
+
+        if (terms.isEmpty()) {
+            List<String> result = new ArrayList<>(sequenceById.keySet());
+            result.sort((a, b) -> Long.compare(sequenceById.get(a), sequenceById.get(b)));
+            return result;
+        }
+
+        // Sort plain records rather than looking scores up on every comparison
+        Map<String, Float> scores = scoreAll(terms);
+        List<Match> matches = new ArrayList<>(scores.size());
+        for (Map.Entry<String, Float> entry : scores.entrySet()) {
+            matches.add(new Match(entry.getKey(), entry.getValue(), sequenceById.get(entry.getKey())));
+        }
+        matches.sort(Match.BY_RELEVANCE);
+
+        List<String> result = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            result.add(match.itemId);
+        }
+        return result;
+    }
+
+
+    /**
+     * Scores every item matching all of the given terms.
+     * <p>
+     * @param terms the lower-case query terms, as produced by {@link InventorySearchIndex#tokenize}
+     * @return the relevance of each matching item by ID; empty when there are no terms
+     */
+    @NonNull
+    Map<String, Float> scoreAll(@NonNull Collection<String> terms) {
+        Map<String, Float> scores = null;
+        for (String term : terms) {
+            Map<String, Float> termScores = new HashMap<>();
+            for (Map.Entry<Word, Float> match : matchTerm(term).entrySet()) {
+                Word word = match.getKey();
+                float score = match.getValue();
+                for (String itemId : word.nameIds) {
+                    termScores.merge(itemId, score, Math::max);
+                }
+                for (String itemId : word.tagIds) {
+                    termScores.merge(itemId, score * TAG_WEIGHT, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // Keep the items matching every term so far, iterating the smaller map
+                Map<String, Float> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                Map<String, Float> larger = smaller == scores ? termScores : scores;
+                Map<String, Float> intersection = new HashMap<>();
+                for (Map.Entry<String, Float> entry : smaller.entrySet()) {
+                    Float other = larger.get(entry.getKey());
+                    if (other != null) {
+                        intersection.put(entry.getKey(), entry.getValue() + other);
+                    }
+                }
+                scores = intersection;
+            }
+
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? Collections.emptyMap() : scores;
+    }
+
+
+    /**
+     * Scores a single indexed item against the terms of a query, without consulting the words of
+     * any other item. The result is the same relevance {@link #scoreAll} gives the item.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @param terms the lower-case query terms, as produced by {@link InventorySearchIndex#tokenize}
+     * @return the item's relevance, or {@code 0} if some term matches none of its words or the item
+     *         is not indexed
+     */
+    float score(@NonNull String itemId, @NonNull Collection<String> terms) {
+        Set<String> nameWords = nameWordsById.get(itemId);
+        Set<String> tagWords = tagWordsById.get(itemId);
+        if (nameWords == null || tagWords == null) {
+            return 0f;
+        }
+
+        float total = 0f;
+        for (String term : terms) {
+            int maxEdits = maxEdits(term);
+            float best = 0f;
+            for (String word : nameWords) {
+                best = Math.max(best, similarity(term, word, maxEdits));
+            }
+            for (String word : tagWords) {
+                best = Math.max(best, similarity(term, word, maxEdits) * TAG_WEIGHT);
+            }
+            if (best == 0f) {
+                return 0f;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+
+    /**
+     * Scores every word of the vocabulary that matches a query term.
+     * <p>
+     * Words starting with the term are found with a range lookup. When the term allows edits, the
+     * words sharing at least as many trigrams with it as those edits could leave are scored too;
+     * one edit changes at most four trigrams (a swap of two letters), so no word within reach is
+     * skipped. Short terms need only one shared trigram, so candidates are first checked against
+     * the length bound, which rejects most of them without computing a distance.
+     * <p>
+     * @param term a lower-case query term
+     * @return the score of each matching word
+     */
+    private Map<Word, Float> matchTerm(String term) {
+        Map<Word, Float> matches = new HashMap<>();
+        for (Word word : vocabulary.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            matches.put(word, similarity(term, word.text, 0));
+        }
+
+        int maxEdits = maxEdits(term);
+        if (maxEdits == 0) {
+            return matches;
+        }
+
+        List<String> trigrams = trigrams(term);
+        Map<Word, Integer> sharedCounts = new HashMap<>();
+        for (String trigram : trigrams) {
+            Set<Word> words = wordsByTrigram.get(trigram);
+            if (words != null) {
+                for (Word word : words) {
+                    sharedCounts.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+
+        // The term's last trigram includes the padding, which a longer word does not share
+        int minShared = Math.max(1, trigrams.size() - 4 * maxEdits - 1);
+        for (Map.Entry<Word, Integer> candidate : sharedCounts.entrySet()) {
+            Word word = candidate.getKey();
+            if (candidate.getValue() >= minShared && !matches.containsKey(word)
+                    && word.text.length() >= term.length() - maxEdits) {
+                float score = similarity(term, word.text, maxEdits);
+                if (score > 0f) {
+                    matches.put(word, score);
+                }
+            }
+        }
+        return matches;
+    }
+
+
+    /**
+     * Moves an item from the words it no longer uses in one field to the words it now uses,
+     * dropping words once no item uses them.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @param previousWords the words previously indexed for the field, or {@code null}
+     * @param words the words now in the field
+     * @param isTag {@code true} for the tag field, {@code false} for the name
+     */
+    private void updateWords(String itemId, Set<String> previousWords, Set<String> words, boolean isTag) {
+        if (previousWords != null) {
+            for (String text : previousWords) {
+                if (!words.contains(text)) {
+                    Word word = vocabulary.get(text);
+                    if (word != null) {
+                        (isTag ? word.tagIds : word.nameIds).remove(itemId);
+                        if (word.nameIds.isEmpty() && word.tagIds.isEmpty()) {
+                            removeWord(word);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (String text : words) {
+            if (previousWords == null || !previousWords.contains(text)) {
+                Word word = vocabulary.get(text);
+                if (word == null) {
+                    word = new Word(text);
+                    vocabulary.put(text, word);
+                    for (String trigram : trigrams(text)) {
+                        wordsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(word);
+                    }
+                }
+                (isTag ? word.tagIds : word.nameIds).add(itemId);
+            }
+        }
+    }
+
+
+    /**
+     * Removes an unused word from the vocabulary and from its trigrams.
+     * <p>
+     * @param word the word no item uses any more
+     */
+    private void removeWord(Word word) {
+        vocabulary.remove(word.text);
+        for (String trigram : trigrams(word.text)) {
+            Set<Word> words = wordsByTrigram.get(trigram);
+            if (words != null) {
+                words.remove(word);
+                if (words.isEmpty()) {
+                    wordsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of edits a query term tolerates.
+     * <p>
+     * @param term a lower-case query term
+     * @return {@code 0} for terms under three letters, {@code 1} under six letters, otherwise {@code 2}
+     */
+    static int maxEdits(String term) {
+        int length = term.length();
+        return length < 3 ? 0 : length < 6 ? 1 : 2;
+    }
+
+
+    /**
+     * Scores how well a word matches a query term.
+     * <p>
+     * The term may match the whole word or, since the user may still be typing, the beginning of
+     * it. A match with edits scores less the more edits it needs, and a match with the beginning of
+     * the word scores less than one with the whole word. The whole word is only compared with edits
+     * when its length is within {@code maxEdits} of the term's, and otherwise just its beginning,
+     * as long as the term.
+     * <p>
+     * @param term a lower-case query term
+     * @param word an indexed word
+     * @param maxEdits the number of edits the term tolerates
+     * @return the score, or {@code 0} if the word does not match
+     */
+    static float similarity(String term, String word, int maxEdits) {
+        if (word.startsWith(term)) {
+            return word.length() == term.length()
+                    ? EXACT_SCORE
+                    : PREFIX_SCORE * (0.5f + 0.5f * term.length() / word.length());
+        }
+        if (maxEdits == 0 || word.length() < term.length() - maxEdits) {
+            return 0f;
+        }
+
+        int edits = distance(term, word, word.length(), maxEdits);
+        float score = edits <= maxEdits ? TYPO_SCORE * (1f - (float) edits / (maxEdits + 1)) : 0f;
+        if (word.length() > term.length()) {
+            int prefixEdits = distance(term, word, term.length(), maxEdits);
+            if (prefixEdits <= maxEdits) {
+                float prefixScore = TYPO_SCORE * (1f - (float) prefixEdits / (maxEdits + 1))
+                        * (0.5f + 0.5f * term.length() / word.length());
+                score = Math.max(score, prefixScore);
+            }
+        }
+        return score;
+    }
+
+
+    /**
+     * Computes the restricted edit distance between two strings: the fewest insertions, deletions,
+     * substitutions, and swaps of neighbouring characters turning one into the other. Adding,
+     * dropping, or changing a digit, or turning a letter into one, is never allowed as an edit, so
+     * "sku1235" does not find the neighbouring code "sku1234" and "xi00" does not find "x100",
+     * while the swap "sku1243" does. The work stops as soon as the
+     * distance is known to exceed a bound.
+     * <p>
+     * @param a the first string
+     * @param b the second string
+     * @param maxEdits the largest distance of interest
+     * @return the distance, or {@code maxEdits + 1} if it is larger than {@code maxEdits}
+     */
+    static int distance(String a, String b, int maxEdits) {
+        return distance(a, b, b.length(), maxEdits);
+    }
+
+
+    /**
+     * Computes the restricted edit distance between a string and the beginning of another, without
+     * copying that beginning.
+     * <p>
+     * @param a the first string
+     * @param b the string whose beginning is compared
+     * @param m the number of leading characters of {@code b} to compare
+     * @param maxEdits the largest distance of interest
+     * @return the distance, or {@code maxEdits + 1} if it is larger than {@code maxEdits}
+     */
+    private static int distance(String a, String b, int m, int maxEdits) {
+        int n = a.length();
+        if (Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        // A digit added, dropped, or changed makes a different code rather than a typo
+        int digitEdit = maxEdits + 1;
+        for (int j = 1; j <= m; j++) {
+            previous[j] = previous[j - 1] + (Character.isDigit(b.charAt(j - 1)) ? digitEdit : 1);
+        }
+
+        int previousRowMin = 0;
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            int deleteCost = Character.isDigit(ca) ? digitEdit : 1;
+            current[0] = previous[0] + deleteCost;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int insertCost = Character.isDigit(cb) ? digitEdit : 1;
+                int substituteCost = ca == cb ? 0
+                        : Character.isDigit(ca) || Character.isDigit(cb) ? digitEdit : 1;
+                int value = Math.min(Math.min(previous[j] + deleteCost, current[j - 1] + insertCost),
+                        previous[j - 1] + substituteCost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // A swap reaches back two rows, so both must be out of reach
+            if (rowMin > maxEdits && previousRowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            previousRowMin = rowMin;
+
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], maxEdits + 1);
+    }
+
+
+    /**
+     * Splits a word into the trigrams of its padded form, with two spaces in front and one behind,
+     * so that every letter is covered by three trigrams and the start of the word is weighted.
+     * <p>
+     * @param text a lower-case word
+     * @return its trigrams, in order
+     */
+    private static List<String> trigrams(String text) {
+        String padded = "" + PAD + PAD + text + PAD;
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+}
@@ -1,35 +1,40 @@
 package com.snhu.cs360.inventoryapp.inventory;
 
+import java.util.Locale;
+import java.util.Objects;
+
 
 /**
  * Represents an item in an inventory system.
  * This class encapsulates the details of an inventory item such as its identifier, name, description,
- * quantity, and associated tag, and provides methods to access and modify these details.
+ * quantity, and associated tag, and provides methods to access these details.
+ * <p>
+ * Items are immutable, so the same instance can be shared by the sync store, the indexes, the
+ * sorted view, and every displayed list without defensive copies. A changed item is a new
+ * instance, created with {@link #toBuilder()} or one of the {@code with...} methods.
+ * <p>
+ * Tags are interned, so the thousands of items sharing a tag also share a single string, and the
+ * lower-case form of the name used for comparisons is computed once per item, on first use.
  * <p>
  * The class is designed to be comparable based on the name of the inventory item to facilitate
- * sorting operations. It also includes a default constructor necessary for use cases like serialization.
+ * sorting operations.
  */
-public class InventoryItem implements Comparable<InventoryItem> {
+public final class InventoryItem implements Comparable<InventoryItem> {
 
-    private String id;
-    private String name;
-    private String description;
-    private int quantity;
-    private String tag;
+    private final String id;
+    private final String name;
+    private final String description;
+    private final int quantity;
+    private final String tag;
 
+    // Lazily cached, like String.hashCode(); a racy recomputation yields an equal value
+    private String normalizedName;
 
-    /**
-     * Default constructor for InventoryItem.
-     * This empty constructor is required for specific use cases, such as serialization or deserialization
-     * in frameworks like Firebase, where a no-argument constructor is mandatory.
-     */
-    public InventoryItem() {
-
-    }
 
     /**
      * Constructs a new InventoryItem with the specified details.
      * <p>
+     * @param id the unique identifier of the inventory item
      * @param name the name of the inventory item
      * @param description a brief description of the inventory item
      * @param quantity the quantity of the inventory item in stock
@@ -40,7 +45,32 @@ public class InventoryItem implements Comparable<InventoryItem> {
         this.name = name;
         this.description = description;
         this.quantity = quantity;
-        this.tag = tag;
+        this.tag = tag == null ? null : tag.intern();
+    }
+
+
+    /**
+     * Returns a builder for a new item with no fields set.
+     * <p>
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Returns a builder initialized with the fields of this item, for creating a changed copy.
+     * <p>
+     * @return a new {@link Builder}
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .setId(id)
+                .setName(name)
+                .setDescription(description)
+                .setQuantity(quantity)
+                .setTag(tag);
     }
 
 
@@ -55,13 +85,31 @@ public class InventoryItem implements Comparable<InventoryItem> {
 
 
     /*
-     *  Setters
+     *  Copy-on-write modifiers, returning this item when nothing changes
      */
-    public void setId(String id) { this.id = id; }
-    public void setName(String name) { this.name = name; }
-    public void setDescription(String description) { this.description = description; }
-    public void setQuantity(int quantity) { this.quantity = quantity; }
-    public void setTag(String tag) { this.tag = tag; }
+    public InventoryItem withId(String id) {
+        return Objects.equals(id, this.id) ? this : toBuilder().setId(id).build();
+    }
+    public InventoryItem withQuantity(int quantity) {
+        return quantity == this.quantity ? this : toBuilder().setQuantity(quantity).build();
+    }
+
+
+    /**
+     * Returns the name in lower case, as used for case-insensitive comparisons. The value is
+     * computed on first use and cached.
+     * <p>
+     * @return the lower-case name, or an empty string if the item has no name
+     */
+    public String getNormalizedName() {
+        String normalized = normalizedName;
+        if (normalized == null) {
+            normalized = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            normalizedName = normalized;
+        }
+        return normalized;
+    }
+
 
     /**
      * Compares this InventoryItem with the specified InventoryItem for order based on the name of the inventory item.
@@ -72,5 +120,63 @@ public class InventoryItem implements Comparable<InventoryItem> {
      *         is lexicographically less than, equal to, or greater than the specified InventoryItem's name.
      */
     @Override
-    public int compareTo(InventoryItem o) { return this.name.compareToIgnoreCase(o.name); }
-}
\ No newline at end of file
+    public int compareTo(InventoryItem o) { return getNormalizedName().compareTo(o.getNormalizedName()); }
+
+
+    /**
+     * Accumulates the fields of an {@link InventoryItem} before it is created.
+     */
+    public static final class Builder {
+
+        private String id;
+        private String name;
+        private String description;
+        private int quantity;
+        private String tag;
+
+
+        private Builder() {
+        }
+
+
+        public Builder setId(String id) {
+            this.id = id;
+            return this;
+        }
+
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+
+        public Builder setDescription(String description) {
+            this.description = description;
+            return this;
+        }
+
+
+        public Builder setQuantity(int quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+
+        public Builder setTag(String tag) {
+            this.tag = tag;
+            return this;
+        }
+
+
+        /**
+         * Creates the item.
+         * <p>
+         * @return a new immutable {@link InventoryItem}
+         */
+        public InventoryItem build() {
+            return new InventoryItem(id, name, description, quantity, tag);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
+
+/**
+ * DiffUtil callback used by the {@link InventoryAdapter} to compute the minimal set of row
+ * updates between two inventory lists.
+ * <p>
+ * Two entries represent the same item when they share an ID, and they are considered unchanged
+ * when every displayed field (name, description, quantity, and tag) is equal.
+ */
+public class InventoryItemDiffCallback extends DiffUtil.ItemCallback<InventoryItem> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull InventoryItem oldItem, @NonNull InventoryItem newItem) {
+        return Objects.equals(oldItem.getId(), newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull InventoryItem oldItem, @NonNull InventoryItem newItem) {
+        return oldItem.getQuantity() == newItem.getQuantity()
+                && Objects.equals(oldItem.getName(), newItem.getName())
+                && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                && Objects.equals(oldItem.getTag(), newItem.getTag());
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * In-memory inverted index over the name, description, and tag of every inventory item, used to
+ * answer search queries without scanning the whole inventory.
+ * <p>
+ * Each field is split into lower-case word tokens, and each token maps to the set of item IDs that
+ * contain it. Tokens are kept in a sorted map, so a query term is matched as a prefix of any token
+ * with a single range lookup (a "widg" query matches "Widget"). A query with several terms returns
+ * only the items that match every term.
+ * <p>
+ * The index is maintained incrementally: {@link #addItem} and {@link #removeItem} touch only the
+ * tokens of the one item that changed.
+ */
+public class InventorySearchIndex {
+
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensById = new HashMap<>();
+    private final Map<String, Long> sequenceById = new HashMap<>();
+    private long nextSequence;
+
+
+    /**
+     * Indexes an item, replacing any tokens previously indexed for the same ID.
+     * <p>
+     * @param item the item that was added or changed
+     */
+    public void addItem(@NonNull InventoryItem item) {
+        String itemId = item.getId();
+        if (itemId == null) {
+            return;
+        }
+
+        Set<String> tokens = new HashSet<>();
+        tokenize(item.getName(), tokens);
+        tokenize(item.getDescription(), tokens);
+        tokenize(item.getTag(), tokens);
+
+        Set<String> previousTokens = tokensById.put(itemId, tokens);
+        if (previousTokens != null) {
+            for (String token : previousTokens) {
+                if (!tokens.contains(token)) {
+                    removePosting(token, itemId);
+                }
+            }
+        } else {
+            sequenceById.put(itemId, nextSequence++);
+        }
+
+        for (String token : tokens) {
+            if (previousTokens == null || !previousTokens.contains(token)) {
+                Set<String> ids = postings.get(token);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(token, ids);
+                }
+                ids.add(itemId);
+            }
+        }
+    }
+
+
+    /**
+     * Removes every token indexed for an item.
+     * <p>
+     * @param itemId the unique identifier of the item that was removed
+     */
+    public void removeItem(@NonNull String itemId) {
+        Set<String> tokens = tokensById.remove(itemId);
+        sequenceById.remove(itemId);
+        if (tokens != null) {
+            for (String token : tokens) {
+                removePosting(token, itemId);
+            }
+        }
+    }
+
+
+    /**
+     * Removes every item from the index.
+     */
+    public void clear() {
+        postings.clear();
+        tokensById.clear();
+        sequenceById.clear();
+    }
+
+
+    /**
+     * Returns the number of indexed items.
+     * <p>
+     * @return the item count
+     */
+    public int size() {
+        return tokensById.size();
+    }
+
+
+    /**
+     * Finds the items matching every term of a query. Each term matches an item when it is a prefix
+     * of any word in the item's name, description, or tag, ignoring case.
+     * <p>
+     * @param query the text typed by the user
+     * @return the IDs of the matching items, in the order the items were first indexed;
+     *         every indexed ID when the query has no terms
+     */
+    @NonNull
+    public List<String> search(@NonNull String query) {
+        Set<String> terms = new HashSet<>();
+        tokenize(query, terms);
+
+        Set<String> matches = null;
+        if (terms.isEmpty()) {
+            matches = tokensById.keySet();
+        }
+
+        for (String term : terms) {
+            Set<String> termMatches = matchPrefix(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                // Intersect by iterating the smaller set
+                Set<String> smaller = matches.size() <= termMatches.size() ? matches : termMatches;
+                Set<String> larger = smaller == matches ? termMatches : matches;
+                Set<String> intersection = new HashSet<>();
+                for (String itemId : smaller) {
+                    if (larger.contains(itemId)) {
+                        intersection.add(itemId);
+                    }
+                }
+                matches = intersection;
+            }
+
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<String> result = new ArrayList<>(matches);
+        result.sort((a, b) -> Long.compare(sequenceById.get(a), sequenceById.get(b)));
+        return result;
+    }
+
+
+    /**
+     * Checks whether a single indexed item matches every term of a query, without consulting the
+     * postings of any other item.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @param terms the lower-case query terms, as produced by {@link #tokenize}
+     * @return {@code true} if each term is a prefix of one of the item's tokens; always
+     *         {@code true} when there are no terms, and {@code false} for an unindexed item
+     */
+    boolean matches(@NonNull String itemId, @NonNull Set<String> terms) {
+        Set<String> tokens = tokensById.get(itemId);
+        if (tokens == null) {
+            return false;
+        }
+
+        for (String term : terms) {
+            boolean termMatched = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    termMatched = true;
+                    break;
+                }
+            }
+            if (!termMatched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Collects the IDs of every item with a token starting with the given prefix.
+     * <p>
+     * @param prefix a lower-case query term
+     * @return the matching item IDs
+     */
+    private Set<String> matchPrefix(String prefix) {
+        NavigableMap<String, Set<String>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (Set<String> tokenIds : range.values()) {
+            ids.addAll(tokenIds);
+        }
+        return ids;
+    }
+
+
+    /**
+     * Removes an item ID from a token's posting set, dropping the token once no item uses it.
+     * <p>
+     * @param token the indexed token
+     * @param itemId the unique identifier of the item
+     */
+    private void removePosting(String token, String itemId) {
+        Set<String> ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+
+    /**
+     * Splits text into lower-case tokens on every character that is not a letter or digit.
+     * <p>
+     * @param text the text to split; {@code null} is treated as empty
+     * @param tokens the set receiving the tokens
+     */
+    static void tokenize(String text, Set<String> tokens) {
+        if (text == null) {
+            return;
+        }
+
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean isWordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(lowerCase.substring(start, i));
+                start = -1;
+            }
+        }
+    }
+
+}
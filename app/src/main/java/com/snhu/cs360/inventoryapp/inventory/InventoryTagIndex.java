@@ -0,0 +1,185 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Incrementally maintained index from tag to the IDs of the items carrying it.
+ * <p>
+ * Tags are normalized (trimmed and compared ignoring case), so "Tools" and "tools " share one
+ * bucket, displayed under the spelling that was seen first. Each change to an item moves its ID
+ * between at most two buckets, filtering by a tag costs only the number of matching items, and
+ * per-tag counts are available without scanning. A {@link Listener} is told when a tag appears for
+ * the first time or loses its last item, so a tag picker can be updated in place.
+ */
+public class InventoryTagIndex {
+
+
+    /**
+     * Notified when the set of known tags changes.
+     */
+    public interface Listener {
+
+        void onTagAdded(@NonNull String tag);
+
+        void onTagRemoved(@NonNull String tag);
+    }
+
+
+    private final Map<String, Set<String>> idsByTag = new LinkedHashMap<>();
+    private final Map<String, String> displayNameByTag = new HashMap<>();
+    private final Map<String, String> tagById = new HashMap<>();
+    private Listener listener;
+
+
+    /**
+     * Sets the listener notified of tags appearing and disappearing.
+     * <p>
+     * @param listener the listener, or {@code null} to remove it
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Indexes an item under its tag, moving it out of its previous tag's bucket if the tag changed.
+     * Items without a tag are not indexed.
+     * <p>
+     * @param item the item that was added or changed
+     */
+    public void addItem(@NonNull InventoryItem item) {
+        String itemId = item.getId();
+        if (itemId == null) {
+            return;
+        }
+
+        String tag = normalize(item.getTag());
+        String previousTag = tag == null ? tagById.remove(itemId) : tagById.put(itemId, tag);
+        if (tag != null && tag.equals(previousTag)) {
+            return;
+        }
+
+        if (previousTag != null) {
+            removeFromBucket(previousTag, itemId);
+        }
+
+        if (tag != null) {
+            Set<String> ids = idsByTag.get(tag);
+            if (ids == null) {
+                ids = new LinkedHashSet<>();
+                idsByTag.put(tag, ids);
+                displayNameByTag.put(tag, item.getTag().trim());
+                if (listener != null) {
+                    listener.onTagAdded(displayNameByTag.get(tag));
+                }
+            }
+            ids.add(itemId);
+        }
+    }
+
+
+    /**
+     * Removes an item from its tag's bucket.
+     * <p>
+     * @param itemId the unique identifier of the item that was removed
+     */
+    public void removeItem(@NonNull String itemId) {
+        String tag = tagById.remove(itemId);
+        if (tag != null) {
+            removeFromBucket(tag, itemId);
+        }
+    }
+
+
+    /**
+     * Returns the IDs of the items carrying a tag, ignoring case and surrounding whitespace.
+     * <p>
+     * @param tag the tag to look up
+     * @return a read-only view of the matching item IDs, empty if the tag is unknown
+     */
+    @NonNull
+    public Set<String> getItemIds(@Nullable String tag) {
+        Set<String> ids = idsByTag.get(normalize(tag));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+
+    /**
+     * Returns the number of items carrying a tag.
+     * <p>
+     * @param tag the tag to look up
+     * @return the item count, or 0 if the tag is unknown
+     */
+    public int getCount(@Nullable String tag) {
+        Set<String> ids = idsByTag.get(normalize(tag));
+        return ids == null ? 0 : ids.size();
+    }
+
+
+    /**
+     * Returns the display name of every known tag, in the order the tags were first seen.
+     * <p>
+     * @return a new list of tag names
+     */
+    @NonNull
+    public List<String> getTags() {
+        List<String> tags = new ArrayList<>(idsByTag.size());
+        for (String tag : idsByTag.keySet()) {
+            tags.add(displayNameByTag.get(tag));
+        }
+        return tags;
+    }
+
+
+    /**
+     * Removes an item ID from a bucket, dropping the tag once its last item is gone.
+     * <p>
+     * @param tag the normalized tag
+     * @param itemId the unique identifier of the item
+     */
+    private void removeFromBucket(String tag, String itemId) {
+        Set<String> ids = idsByTag.get(tag);
+        if (ids == null) {
+            return;
+        }
+
+        ids.remove(itemId);
+        if (ids.isEmpty()) {
+            idsByTag.remove(tag);
+            String displayName = displayNameByTag.remove(tag);
+            if (listener != null) {
+                listener.onTagRemoved(displayName);
+            }
+        }
+    }
+
+
+    /**
+     * Normalizes a tag for comparison. The same form is stored with each item in the database, so
+     * that tag queries match the way this index groups tags.
+     * <p>
+     * @param tag the raw tag
+     * @return the trimmed, lower-case tag, or {@code null} if it is missing or blank
+     */
+    @Nullable
+    public static String normalize(@Nullable String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String trimmed = tag.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+}
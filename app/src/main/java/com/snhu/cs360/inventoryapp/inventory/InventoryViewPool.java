@@ -0,0 +1,115 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import android.content.Context;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+
+/**
+ * Recycled view pool shared by the list and grid layouts of the inventory, sized so that either
+ * layout can fill the screen from the pool alone.
+ * <p>
+ * Each view type may keep about one screen of rows plus a few rows of margin, worked out from the
+ * display height and the height of a row in that layout. When the layout is switched, the rows
+ * being replaced are returned to the pool and the rows of the new layout are taken from it, so a
+ * switch rebinds ViewHolders rather than inflating them.
+ * <p>
+ * {@link #prewarm} fills the pool for a view type ahead of time, inflating one ViewHolder each time
+ * the main thread is idle, so the first switch to a layout is as cheap as the ones after it.
+ */
+public class InventoryViewPool extends RecyclerView.RecycledViewPool {
+
+    // Approximate heights of one row of item_view_list and item_view_grid
+    static final int LIST_ROW_HEIGHT_DP = 96;
+    static final int GRID_ROW_HEIGHT_DP = 200;
+
+    // Rows kept beyond one screen, for rows partly on screen and rows prefetched ahead of a scroll
+    static final int EXTRA_ROWS = 2;
+
+    private final int gridSpanCount;
+    private final int listCapacity;
+    private final int gridCapacity;
+
+
+    /**
+     * Creates a pool sized for the display of the given context.
+     * <p>
+     * @param context the context whose display the inventory is shown on
+     * @param gridSpanCount the number of columns of the grid layout
+     */
+    public InventoryViewPool(@NonNull Context context, int gridSpanCount) {
+        DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
+        int screenHeightDp = (int) Math.ceil(displayMetrics.heightPixels / displayMetrics.density);
+
+        this.gridSpanCount = gridSpanCount;
+        this.listCapacity = capacityFor(screenHeightDp, LIST_ROW_HEIGHT_DP, 1);
+        this.gridCapacity = capacityFor(screenHeightDp, GRID_ROW_HEIGHT_DP, gridSpanCount);
+        setMaxRecycledViews(InventoryAdapter.VIEW_TYPE_LIST, listCapacity);
+        setMaxRecycledViews(InventoryAdapter.VIEW_TYPE_GRID, gridCapacity);
+    }
+
+
+    /**
+     * Returns the number of ViewHolders needed to fill a screen of rows, plus the extra rows.
+     * <p>
+     * @param screenHeightDp the height of the display in dp
+     * @param rowHeightDp the height of one row in dp
+     * @param spanCount the number of ViewHolders in one row
+     * @return the pool capacity for the layout
+     */
+    static int capacityFor(int screenHeightDp, int rowHeightDp, int spanCount) {
+        int visibleRows = (screenHeightDp + rowHeightDp - 1) / rowHeightDp;
+        return (visibleRows + EXTRA_ROWS) * spanCount;
+    }
+
+
+    /**
+     * Returns the number of ViewHolders the pool keeps for a view type.
+     * <p>
+     * @param viewType {@link InventoryAdapter#VIEW_TYPE_LIST} or {@link InventoryAdapter#VIEW_TYPE_GRID}
+     * @return the pool capacity for the view type
+     */
+    public int getCapacity(int viewType) {
+        return viewType == InventoryAdapter.VIEW_TYPE_LIST ? listCapacity : gridCapacity;
+    }
+
+
+    /**
+     * Returns the number of off-screen ViewHolders a RecyclerView should cache for a view type,
+     * so that rows scrolled just out of view are shown again without rebinding.
+     * <p>
+     * @param viewType {@link InventoryAdapter#VIEW_TYPE_LIST} or {@link InventoryAdapter#VIEW_TYPE_GRID}
+     * @return the item view cache size for the view type
+     */
+    public int getItemViewCacheSize(int viewType) {
+        return viewType == InventoryAdapter.VIEW_TYPE_LIST ? EXTRA_ROWS : EXTRA_ROWS * gridSpanCount;
+    }
+
+
+    /**
+     * Fills the pool for a view type in the background of the main thread. One ViewHolder is
+     * inflated each time the main thread's message queue goes idle, until the pool is full or the
+     * adapter is removed from the RecyclerView, so prewarming never delays a frame by more than a
+     * single inflation.
+     * <p>
+     * Must be called on the main thread.
+     * <p>
+     * @param recyclerView the RecyclerView using this pool, used as the parent of inflated views
+     * @param adapter the adapter of the RecyclerView, which creates the ViewHolders
+     * @param viewType the view type to prewarm
+     */
+    public void prewarm(@NonNull RecyclerView recyclerView, @NonNull InventoryAdapter adapter, int viewType) {
+        int capacity = getCapacity(viewType);
+        Looper.getMainLooper().getQueue().addIdleHandler(() -> {
+            if (recyclerView.getAdapter() != adapter || getRecycledViewCount(viewType) >= capacity) {
+                return false;
+            }
+            putRecycledView(adapter.createViewHolder(recyclerView, viewType));
+            return getRecycledViewCount(viewType) < capacity;
+        });
+    }
+
+}
@@ -0,0 +1,532 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * The displayed inventory, kept up to date as a single pipeline of search query, tag filter, and
+ * sort order over every loaded item.
+ * <p>
+ * All three inputs are held together, so changing one keeps the others in effect. Items are fed
+ * in as they are added, changed, or removed, and each one is checked against the current query and
+ * tag on its own: a remote change to one item costs a binary search for its position and results in
+ * at most one insert, remove, move, or change reported to the {@link Listener}. Changing an input
+ * re-evaluates as little as it can. A query that only narrows the previous one (typing another
+ * letter) is checked against the items already shown, while other changes start from the matching
+ * bucket of the tag or search index rather than from the whole inventory. The new list is then
+ * reported as a whole, for the adapter to diff.
+ * <p>
+ * In fuzzy mode, the query is matched by the {@link InventoryFuzzyIndex} instead, which tolerates
+ * typos, and while no sort order is chosen the matching items are shown most relevant first.
+ * <p>
+ * The view maintains its own {@link InventorySearchIndex}, {@link InventoryFuzzyIndex}, and
+ * {@link InventoryTagIndex}. Instances are used on a single thread.
+ */
+public class LiveInventoryView {
+
+
+    /**
+     * Order of the displayed items.
+     */
+    public enum SortOrder {
+        /** The order in which items were first added. */
+        NONE,
+        /** By name, A to Z. */
+        ASCENDING,
+        /** By name, Z to A. */
+        DESCENDING
+    }
+
+
+    /**
+     * Notified of every change to the displayed list. Positions refer to the list as it was
+     * just before the change being reported.
+     */
+    public interface Listener {
+
+        void onItemInserted(int position, @NonNull InventoryItem item);
+
+        void onItemRemoved(int position, @NonNull InventoryItem item);
+
+        void onItemMoved(int fromPosition, int toPosition, @NonNull InventoryItem item);
+
+        void onItemChanged(int position, @NonNull InventoryItem previous, @NonNull InventoryItem item);
+
+        void onListReplaced(@NonNull List<InventoryItem> items);
+    }
+
+
+    /*
+     * An item together with the keys that order it. Replaced, never modified, when the item changes.
+     */
+    private static final class Entry {
+        final InventoryItem item;
+        final long sequence;
+        final CollationKey sortKey;
+
+        Entry(InventoryItem item, long sequence, CollationKey sortKey) {
+            this.item = item;
+            this.sequence = sequence;
+            this.sortKey = sortKey;
+        }
+    }
+
+
+    private static final Comparator<Entry> BY_SEQUENCE = (a, b) -> Long.compare(a.sequence, b.sequence);
+    private static final Comparator<Entry> BY_NAME = (a, b) -> {
+        int result = a.sortKey.compareTo(b.sortKey);
+        return result != 0 ? result : a.item.getId().compareTo(b.item.getId());
+    };
+
+    private final InventorySearchIndex searchIndex = new InventorySearchIndex();
+    private final InventoryFuzzyIndex fuzzyIndex = new InventoryFuzzyIndex();
+    private final InventoryTagIndex tagIndex = new InventoryTagIndex();
+    private final Collator collator;
+    private final Map<String, Entry> entriesById = new HashMap<>();
+    private final List<Entry> visible = new ArrayList<>();
+    private final Map<String, Float> relevanceById = new HashMap<>();
+    private final Comparator<Entry> byRelevance = (a, b) -> {
+        // An entry that is not displayed has no relevance, so looking it up simply misses it
+        int result = Float.compare(relevanceById.getOrDefault(b.item.getId(), 0f),
+                relevanceById.getOrDefault(a.item.getId(), 0f));
+        return result != 0 ? result : BY_SEQUENCE.compare(a, b);
+    };
+    private long nextSequence;
+
+    private Set<String> queryTerms = Collections.emptySet();
+    private String tag;
+    private SortOrder sortOrder = SortOrder.NONE;
+    private boolean fuzzy;
+    private Comparator<Entry> order = BY_SEQUENCE;
+    private Listener listener;
+
+
+    /**
+     * Creates an empty view sorting names by the collation rules of the default locale.
+     */
+    public LiveInventoryView() {
+        this(Locale.getDefault());
+    }
+
+
+    /**
+     * Creates an empty view sorting names by the collation rules of the given locale.
+     * <p>
+     * @param locale the locale whose collation rules order item names
+     */
+    public LiveInventoryView(@NonNull Locale locale) {
+        collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.SECONDARY);
+    }
+
+
+    /**
+     * Sets the listener notified of changes to the displayed list.
+     * <p>
+     * @param listener the listener, or {@code null} to remove it
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Returns the tag index maintained by the view, e.g. to list the known tags.
+     * <p>
+     * @return the view's {@link InventoryTagIndex}
+     */
+    @NonNull
+    public InventoryTagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+
+    /**
+     * Adds an item, or replaces the previous version of an item with the same ID, and updates its
+     * place in the displayed list.
+     * <p>
+     * @param item the item that was added or changed
+     */
+    public void addItem(@NonNull InventoryItem item) {
+        String itemId = item.getId();
+        if (itemId == null) {
+            return;
+        }
+        searchIndex.addItem(item);
+        fuzzyIndex.addItem(item);
+        tagIndex.addItem(item);
+
+        Entry previous = entriesById.get(itemId);
+        String name = item.getName() == null ? "" : item.getName();
+        CollationKey sortKey = previous != null && previous.sortKey.getSourceString().equals(name)
+                ? previous.sortKey
+                : collator.getCollationKey(name);
+        Entry entry = new Entry(item, previous != null ? previous.sequence : nextSequence++, sortKey);
+        entriesById.put(itemId, entry);
+
+        int fromPosition = previous != null ? positionOf(previous) : -1;
+        boolean shown = matches(item);
+        if (fromPosition < 0) {
+            if (shown) {
+                int toPosition = insertionPoint(entry);
+                visible.add(toPosition, entry);
+                if (listener != null) {
+                    listener.onItemInserted(toPosition, item);
+                }
+            }
+        } else if (!shown) {
+            visible.remove(fromPosition);
+            if (listener != null) {
+                listener.onItemRemoved(fromPosition, previous.item);
+            }
+        } else {
+            visible.remove(fromPosition);
+            int toPosition = insertionPoint(entry);
+            visible.add(toPosition, entry);
+            if (listener != null) {
+                if (toPosition != fromPosition) {
+                    listener.onItemMoved(fromPosition, toPosition, previous.item);
+                }
+                listener.onItemChanged(toPosition, previous.item, item);
+            }
+        }
+    }
+
+
+    /**
+     * Removes an item, taking it out of the displayed list if it is shown.
+     * <p>
+     * @param itemId the unique identifier of the item that was removed
+     */
+    public void removeItem(@NonNull String itemId) {
+        Entry entry = entriesById.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        searchIndex.removeItem(itemId);
+        fuzzyIndex.removeItem(itemId);
+        tagIndex.removeItem(itemId);
+
+        int position = positionOf(entry);
+        relevanceById.remove(itemId);
+        if (position >= 0) {
+            visible.remove(position);
+            if (listener != null) {
+                listener.onItemRemoved(position, entry.item);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the loaded item with the given ID, whether or not it is displayed.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return the item, or {@code null} if it has not been added
+     */
+    @Nullable
+    public InventoryItem getItem(@NonNull String itemId) {
+        Entry entry = entriesById.get(itemId);
+        return entry == null ? null : entry.item;
+    }
+
+
+    /**
+     * Shows only the items matching every term of a search query, as defined by
+     * {@link InventorySearchIndex#search}, or by {@link InventoryFuzzyIndex#search} in fuzzy mode.
+     * <p>
+     * @param query the text typed by the user; empty to show items regardless of their text
+     */
+    public void setQuery(@NonNull String query) {
+        Set<String> terms = new HashSet<>();
+        InventorySearchIndex.tokenize(query, terms);
+        if (terms.equals(queryTerms)) {
+            return;
+        }
+
+        // Fuzzy relevance changes with every term, so only exact matching narrows in place
+        boolean narrowed = !fuzzy && narrows(terms, queryTerms);
+        queryTerms = terms;
+        if (narrowed) {
+            // Only the items already shown can still match
+            List<Entry> remaining = new ArrayList<>(visible.size());
+            for (Entry entry : visible) {
+                if (searchIndex.matches(entry.item.getId(), terms)) {
+                    remaining.add(entry);
+                }
+            }
+            replaceVisible(remaining);
+        } else {
+            updateOrder();
+            refilter();
+        }
+    }
+
+
+    /**
+     * Shows only the items carrying a tag, ignoring case and surrounding whitespace.
+     * <p>
+     * @param tag the tag to show, or {@code null} to show items regardless of their tag
+     */
+    public void setTag(@Nullable String tag) {
+        String normalizedTag = InventoryTagIndex.normalize(tag);
+        if (normalizedTag == null ? this.tag == null : normalizedTag.equals(this.tag)) {
+            return;
+        }
+        this.tag = normalizedTag;
+        refilter();
+    }
+
+
+    /**
+     * Changes the order of the displayed items. Switching between ascending and descending reverses
+     * the displayed list without comparing any items.
+     * <p>
+     * @param sortOrder the new order
+     */
+    public void setSortOrder(@NonNull SortOrder sortOrder) {
+        if (sortOrder == this.sortOrder) {
+            return;
+        }
+
+        boolean reversed = sortOrder != SortOrder.NONE && this.sortOrder != SortOrder.NONE;
+        this.sortOrder = sortOrder;
+        updateOrder();
+
+        List<Entry> reordered = new ArrayList<>(visible);
+        if (reversed) {
+            Collections.reverse(reordered);
+        } else {
+            reordered.sort(order);
+        }
+        replaceVisible(reordered);
+    }
+
+
+    /**
+     * Returns the current sort order.
+     * <p>
+     * @return the order of the displayed items
+     */
+    @NonNull
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+
+    /**
+     * Switches between exact and typo-tolerant matching of the search query.
+     * <p>
+     * @param fuzzy {@code true} to match the query with the {@link InventoryFuzzyIndex} and show the
+     *              results most relevant first while no sort order is chosen
+     */
+    public void setFuzzy(boolean fuzzy) {
+        if (fuzzy == this.fuzzy) {
+            return;
+        }
+        this.fuzzy = fuzzy;
+        if (!queryTerms.isEmpty()) {
+            updateOrder();
+            refilter();
+        }
+    }
+
+
+    /**
+     * Returns whether the search query is matched with typo tolerance.
+     * <p>
+     * @return {@code true} in fuzzy mode
+     */
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+
+
+    /**
+     * Returns the displayed items.
+     * <p>
+     * @return a new list of the items matching the query and tag, in the current order
+     */
+    @NonNull
+    public List<InventoryItem> getItems() {
+        List<InventoryItem> items = new ArrayList<>(visible.size());
+        for (Entry entry : visible) {
+            items.add(entry.item);
+        }
+        return items;
+    }
+
+
+    /**
+     * Returns the number of displayed items.
+     * <p>
+     * @return the displayed item count
+     */
+    public int size() {
+        return visible.size();
+    }
+
+
+    /**
+     * Rebuilds the displayed list from the smallest candidate set the indexes provide.
+     */
+    private void refilter() {
+        relevanceById.clear();
+        if (fuzzy && tag == null && !queryTerms.isEmpty()) {
+            // The fuzzy index finds and scores every match at once
+            relevanceById.putAll(fuzzyIndex.scoreAll(queryTerms));
+            List<Entry> matching = new ArrayList<>(relevanceById.size());
+            for (String itemId : relevanceById.keySet()) {
+                Entry entry = entriesById.get(itemId);
+                if (entry != null) {
+                    matching.add(entry);
+                }
+            }
+            matching.sort(order);
+            replaceVisible(matching);
+            return;
+        }
+
+        Collection<String> candidateIds;
+        if (tag != null) {
+            candidateIds = tagIndex.getItemIds(tag);
+        } else if (!queryTerms.isEmpty()) {
+            candidateIds = searchIndex.search(String.join(" ", queryTerms));
+        } else {
+            candidateIds = entriesById.keySet();
+        }
+
+        List<Entry> matching = new ArrayList<>();
+        for (String itemId : candidateIds) {
+            Entry entry = entriesById.get(itemId);
+            if (entry != null && matches(entry.item)) {
+                matching.add(entry);
+            }
+        }
+        matching.sort(order);
+        replaceVisible(matching);
+    }
+
+
+    /**
+     * Replaces the displayed list and reports it as a whole.
+     * <p>
+     * @param entries the new displayed entries, in the current order
+     */
+    private void replaceVisible(List<Entry> entries) {
+        visible.clear();
+        visible.addAll(entries);
+        if (listener != null) {
+            listener.onListReplaced(getItems());
+        }
+    }
+
+
+    /**
+     * Checks an item against the current query and tag. In fuzzy mode, this also records the
+     * relevance of a matching item, so it must only be called once the item's previous position has
+     * been looked up.
+     * <p>
+     * @param item an added item
+     * @return {@code true} if the item should be displayed
+     */
+    private boolean matches(InventoryItem item) {
+        if (tag != null && !tag.equals(InventoryTagIndex.normalize(item.getTag()))) {
+            relevanceById.remove(item.getId());
+            return false;
+        }
+        if (queryTerms.isEmpty()) {
+            return true;
+        }
+        if (!fuzzy) {
+            return searchIndex.matches(item.getId(), queryTerms);
+        }
+
+        float relevance = fuzzyIndex.score(item.getId(), queryTerms);
+        if (relevance <= 0f) {
+            relevanceById.remove(item.getId());
+            return false;
+        }
+        relevanceById.put(item.getId(), relevance);
+        return true;
+    }
+
+
+    /**
+     * Chooses the comparator for the current sort order, ordering by relevance while a fuzzy query
+     * is active and no sort order is chosen.
+     */
+    private void updateOrder() {
+        if (sortOrder == SortOrder.ASCENDING) {
+            order = BY_NAME;
+        } else if (sortOrder == SortOrder.DESCENDING) {
+            order = BY_NAME.reversed();
+        } else {
+            order = fuzzy && !queryTerms.isEmpty() ? byRelevance : BY_SEQUENCE;
+        }
+    }
+
+
+    /**
+     * Returns the displayed position of an entry.
+     * <p>
+     * @param entry an entry as it was when it was inserted
+     * @return its position, or a negative value if it is not displayed
+     */
+    private int positionOf(Entry entry) {
+        int position = Collections.binarySearch(visible, entry, order);
+        return position >= 0 && visible.get(position) == entry ? position : -1;
+    }
+
+
+    /**
+     * Returns the position at which an entry that is not displayed belongs.
+     * <p>
+     * @param entry the entry to insert
+     * @return the insertion position in the current order
+     */
+    private int insertionPoint(Entry entry) {
+        int position = Collections.binarySearch(visible, entry, order);
+        return position >= 0 ? position : -position - 1;
+    }
+
+
+    /**
+     * Checks whether a query can only match a subset of what a previous query matched, which is
+     * the case when every previous term is a prefix of one of the new terms.
+     * <p>
+     * @param terms the new query terms
+     * @param previousTerms the previous query terms
+     * @return {@code true} if the new query narrows the previous one
+     */
+    private static boolean narrows(Set<String> terms, Set<String> previousTerms) {
+        for (String previousTerm : previousTerms) {
+            boolean extended = false;
+            for (String term : terms) {
+                if (term.startsWith(previousTerm)) {
+                    extended = true;
+                    break;
+                }
+            }
+            if (!extended) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.snhu.cs360.inventoryapp.local;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+
+/**
+ * SQLite database holding a local copy of the inventory node. The table mirrors the fields of
+ * {@link com.snhu.cs360.inventoryapp.inventory.InventoryItem} and is keyed by the Firebase item ID,
+ * so remote changes can be applied to it row by row.
+ */
+public class InventoryDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "inventory.db";
+    private static final int DATABASE_VERSION = 1;
+
+    static final String TABLE_INVENTORY = "inventory";
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_NAME = "name";
+    static final String COLUMN_DESCRIPTION = "description";
+    static final String COLUMN_QUANTITY = "quantity";
+    static final String COLUMN_TAG = "tag";
+
+
+    public InventoryDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_INVENTORY + " ("
+                + COLUMN_ID + " TEXT PRIMARY KEY, "
+                + COLUMN_NAME + " TEXT, "
+                + COLUMN_DESCRIPTION + " TEXT, "
+                + COLUMN_QUANTITY + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_TAG + " TEXT)");
+    }
+
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The local table is only a cache of the remote node, so it is simply rebuilt
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_INVENTORY);
+        onCreate(db);
+    }
+
+}
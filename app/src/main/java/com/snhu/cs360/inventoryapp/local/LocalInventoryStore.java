@@ -0,0 +1,253 @@
+package com.snhu.cs360.inventoryapp.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.snhu.cs360.inventoryapp.firebase.InventorySyncEngine;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Offline-first persistent store for inventory items, backed by the {@link InventoryDatabase}.
+ * <p>
+ * The first page of the store is read at startup so the inventory can be rendered before the
+ * network delivers anything. It is kept current in two ways: {@link com.snhu.cs360.inventoryapp.firebase.FirebaseDatabaseHelper}
+ * writes local edits through to it, and, as an {@link InventorySyncEngine.Listener}, it applies
+ * every remote delta reported by the sync engine.
+ * <p>
+ * All disk access happens on a single background thread. Writes are queued per item ID and
+ * drained in one transaction, so a burst of events touching the same item costs one row write.
+ */
+public class LocalInventoryStore implements InventorySyncEngine.Listener {
+
+
+    /**
+     * Receives the items read from disk, on the main thread.
+     */
+    public interface LoadCallback {
+        void onLoaded(@NonNull List<InventoryItem> items);
+    }
+
+
+    private final InventoryDatabase database;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Pending writes keyed by item ID; a null value marks a pending delete
+    private final Map<String, InventoryItem> pendingWrites = new LinkedHashMap<>();
+
+
+    public LocalInventoryStore(Context context) {
+        this.database = new InventoryDatabase(context.getApplicationContext());
+    }
+
+
+    /**
+     * Reads the persisted items with the lowest IDs on the background thread and delivers them, in
+     * ID order, on the main thread. Since the remote node is paged in key order, these are the cached
+     * items of its first page.
+     * <p>
+     * @param limit the maximum number of items to read
+     * @param callback the callback receiving the cached items
+     */
+    public void loadItems(int limit, @NonNull LoadCallback callback) {
+        diskExecutor.execute(() -> {
+            List<InventoryItem> items = new ArrayList<>();
+            SQLiteDatabase db = database.getReadableDatabase();
+
+            try (Cursor cursor = db.query(InventoryDatabase.TABLE_INVENTORY, null, null, null, null, null,
+                    InventoryDatabase.COLUMN_ID, String.valueOf(limit))) {
+                int idIndex = cursor.getColumnIndexOrThrow(InventoryDatabase.COLUMN_ID);
+                int nameIndex = cursor.getColumnIndexOrThrow(InventoryDatabase.COLUMN_NAME);
+                int descriptionIndex = cursor.getColumnIndexOrThrow(InventoryDatabase.COLUMN_DESCRIPTION);
+                int quantityIndex = cursor.getColumnIndexOrThrow(InventoryDatabase.COLUMN_QUANTITY);
+                int tagIndex = cursor.getColumnIndexOrThrow(InventoryDatabase.COLUMN_TAG);
+
+                while (cursor.moveToNext()) {
+                    items.add(new InventoryItem(
+                            cursor.getString(idIndex),
+                            cursor.getString(nameIndex),
+                            cursor.getString(descriptionIndex),
+                            cursor.getInt(quantityIndex),
+                            cursor.getString(tagIndex)));
+                }
+            }
+
+            mainHandler.post(() -> callback.onLoaded(items));
+        });
+    }
+
+
+    /**
+     * Queues an insert or replacement of the given item.
+     * <p>
+     * @param item the item to persist; items without an ID are ignored
+     */
+    public void saveItem(@NonNull InventoryItem item) {
+        if (item.getId() != null) {
+            enqueue(item.getId(), item);
+        }
+    }
+
+
+    /**
+     * Queues the deletion of the item with the given ID.
+     * <p>
+     * @param itemId the unique identifier of the item to delete
+     */
+    public void deleteItem(@NonNull String itemId) {
+        enqueue(itemId, null);
+    }
+
+
+    /**
+     * Deletes every persisted item whose ID is not in the given set, once the writes queued so far
+     * have been applied. Used after the remote node has been read in full, to drop cached items that
+     * were deleted remotely but never seeded, and so never reported as removed.
+     * <p>
+     * @param itemIds the IDs of the items to keep
+     */
+    public void retainItems(@NonNull Set<String> itemIds) {
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = database.getWritableDatabase();
+            List<String> staleIds = new ArrayList<>();
+            try (Cursor cursor = db.query(InventoryDatabase.TABLE_INVENTORY,
+                    new String[] { InventoryDatabase.COLUMN_ID }, null, null, null, null, null)) {
+                while (cursor.moveToNext()) {
+                    String itemId = cursor.getString(0);
+                    if (!itemIds.contains(itemId)) {
+                        staleIds.add(itemId);
+                    }
+                }
+            }
+
+            db.beginTransaction();
+            try {
+                for (String itemId : staleIds) {
+                    db.delete(InventoryDatabase.TABLE_INVENTORY, InventoryDatabase.COLUMN_ID + " = ?",
+                            new String[] { itemId });
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+
+    /**
+     * Stops the background thread once every queued write has been applied.
+     */
+    public void close() {
+        diskExecutor.execute(database::close);
+        diskExecutor.shutdown();
+    }
+
+
+    @Override
+    public void onItemAdded(@NonNull InventoryItem item) {
+        saveItem(item);
+    }
+
+
+    @Override
+    public void onItemChanged(@NonNull InventoryItem previous, @NonNull InventoryItem item) {
+        saveItem(item);
+    }
+
+
+    @Override
+    public void onItemRemoved(@NonNull InventoryItem item) {
+        if (item.getId() != null) {
+            deleteItem(item.getId());
+        }
+    }
+
+
+    @Override
+    public void onItemsSeeded(@NonNull Collection<InventoryItem> seededItems) {
+        // Seeded items were read from this store, so there is nothing to write back
+    }
+
+
+    /**
+     * Records a pending write and schedules a drain if none is already scheduled.
+     * <p>
+     * @param itemId the ID of the row being written
+     * @param item the new row contents, or {@code null} to delete the row
+     */
+    private void enqueue(String itemId, InventoryItem item) {
+        boolean drainScheduled;
+        synchronized (pendingWrites) {
+            drainScheduled = !pendingWrites.isEmpty();
+            pendingWrites.remove(itemId);
+            pendingWrites.put(itemId, item);
+        }
+
+        if (!drainScheduled && !diskExecutor.isShutdown()) {
+            diskExecutor.execute(this::drainPendingWrites);
+        }
+    }
+
+
+    /**
+     * Applies every queued write in a single transaction.
+     */
+    private void drainPendingWrites() {
+        Map<String, InventoryItem> writes;
+        synchronized (pendingWrites) {
+            writes = new LinkedHashMap<>(pendingWrites);
+            pendingWrites.clear();
+        }
+
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Map.Entry<String, InventoryItem> write : writes.entrySet()) {
+                if (write.getValue() == null) {
+                    db.delete(InventoryDatabase.TABLE_INVENTORY, InventoryDatabase.COLUMN_ID + " = ?",
+                            new String[] { write.getKey() });
+                } else {
+                    db.insertWithOnConflict(InventoryDatabase.TABLE_INVENTORY, null,
+                            toContentValues(write.getValue()), SQLiteDatabase.CONFLICT_REPLACE);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+
+    /**
+     * Converts an inventory item into the column values of its table row.
+     * <p>
+     * @param item the item to convert
+     * @return the row values for the item
+     */
+    private static ContentValues toContentValues(InventoryItem item) {
+        ContentValues values = new ContentValues();
+        values.put(InventoryDatabase.COLUMN_ID, item.getId());
+        values.put(InventoryDatabase.COLUMN_NAME, item.getName());
+        values.put(InventoryDatabase.COLUMN_DESCRIPTION, item.getDescription());
+        values.put(InventoryDatabase.COLUMN_QUANTITY, item.getQuantity());
+        values.put(InventoryDatabase.COLUMN_TAG, item.getTag());
+        return values;
+    }
+
+}
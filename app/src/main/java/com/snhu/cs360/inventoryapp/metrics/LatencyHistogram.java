@@ -0,0 +1,163 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Fixed-size, lock-free histogram of operation latencies.
+ * <p>
+ * Latencies are counted in logarithmic buckets: every power of two of microseconds is split into
+ * four sub-buckets, so any percentile read back is within about 20% of the true value, from one
+ * microsecond up to half an hour, using a fixed array of 124 counters. Recording is a handful of
+ * atomic increments with no allocation, so it can run on the main thread for every bind.
+ * <p>
+ * Recording and reading may happen concurrently on any thread. Reads taken while values are being
+ * recorded may be off by the values in flight.
+ */
+public final class LatencyHistogram {
+
+    // Sub-buckets per power of two, as a power of two itself
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_OCTAVE = 31;
+
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_OCTAVE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+
+    /**
+     * Records one latency.
+     * <p>
+     * @param nanos the latency in nanoseconds; negative values are counted as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos / 1000));
+        count.increment();
+        totalNanos.add(nanos);
+
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // Retry until the larger value is stored or another thread stored a larger one
+        }
+    }
+
+
+    /**
+     * Returns the number of latencies recorded.
+     * <p>
+     * @return the sample count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+
+    /**
+     * Returns the mean of the recorded latencies.
+     * <p>
+     * @return the mean in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMeanNanos() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / samples;
+    }
+
+
+    /**
+     * Returns the largest recorded latency.
+     * <p>
+     * @return the maximum in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+
+    /**
+     * Returns an upper bound for the given percentile of the recorded latencies: the upper edge of
+     * the bucket holding it, never more than the maximum.
+     * <p>
+     * @param percentile the percentile to read, between 0 and 100
+     * @return the latency in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long samples = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            samples += snapshot[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(samples * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i) * 1000, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+
+    /**
+     * Discards every recorded latency.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+
+    /**
+     * Returns the bucket counting a latency. Values below {@link #SUB_BUCKETS} microseconds have a
+     * bucket each; above that, each power of two is split into {@link #SUB_BUCKETS} equal parts.
+     * <p>
+     * @param micros the latency in microseconds
+     * @return the bucket index
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        if (octave > MAX_OCTAVE) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (octave - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (octave - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * Returns the smallest latency, in microseconds, that falls above a bucket.
+     * <p>
+     * @param bucket the bucket index
+     * @return the exclusive upper edge of the bucket
+     */
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int octave = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket + 1) << (octave - SUB_BUCKET_BITS);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+
+/**
+ * Debug overlay showing the live {@link OperationMetrics} report on top of an activity.
+ * <p>
+ * The report is drawn in a small translucent panel at the bottom of the activity's content view
+ * and refreshed once a second while it is shown. The panel does not take touches, so the list
+ * underneath stays usable, and it only refreshes a single text view, so it does not disturb the
+ * timings it displays.
+ */
+public class MetricsOverlay implements Runnable {
+
+    static final long REFRESH_INTERVAL_MILLIS = 1000;
+
+    private final FrameLayout container;
+    private final TextView reportView;
+    private final OperationMetrics metrics;
+    private boolean showing;
+
+
+    /**
+     * Creates a hidden overlay for an activity.
+     * <p>
+     * @param activity the activity to draw over; its content view must have been set
+     * @param metrics the metrics to display
+     */
+    public MetricsOverlay(@NonNull Activity activity, @NonNull OperationMetrics metrics) {
+        this.container = activity.findViewById(android.R.id.content);
+        this.metrics = metrics;
+
+        reportView = new TextView(activity);
+        reportView.setTypeface(Typeface.MONOSPACE);
+        reportView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 9);
+        reportView.setTextColor(Color.WHITE);
+        reportView.setBackgroundColor(0xB0000000);
+        reportView.setPadding(12, 8, 12, 8);
+        reportView.setClickable(false);
+        reportView.setFocusable(false);
+    }
+
+
+    /**
+     * Shows the overlay if it is hidden, and hides it otherwise.
+     */
+    public void toggle() {
+        if (showing) {
+            hide();
+        } else {
+            show();
+        }
+    }
+
+
+    /**
+     * Adds the overlay to the activity and starts refreshing it.
+     */
+    public void show() {
+        if (showing) {
+            return;
+        }
+        showing = true;
+
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.BOTTOM | Gravity.START);
+        container.addView(reportView, params);
+        run();
+    }
+
+
+    /**
+     * Stops refreshing the overlay and removes it from the activity.
+     */
+    public void hide() {
+        if (!showing) {
+            return;
+        }
+        showing = false;
+        reportView.removeCallbacks(this);
+        container.removeView(reportView);
+    }
+
+
+    /**
+     * Returns whether the overlay is currently shown.
+     * <p>
+     * @return {@code true} while the overlay is attached to the activity
+     */
+    public boolean isShowing() {
+        return showing;
+    }
+
+
+    /**
+     * Refreshes the report and schedules the next refresh.
+     */
+    @Override
+    public void run() {
+        reportView.setText(metrics.formatReport());
+        reportView.postDelayed(this, REFRESH_INTERVAL_MILLIS);
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Process-wide latency and throughput metrics for the data layer and the list.
+ * <p>
+ * Every instrumented {@link Operation} (database writes and page loads, snapshot decodes, listener
+ * deliveries, and view holder creation and binding) records its latency into a
+ * {@link LatencyHistogram}, together with a failure count and the approximate size of its payload.
+ * Recording is lock-free and allocation-free, so it stays enabled in every build and reflects what
+ * happens on real devices without attaching a profiler.
+ * <p>
+ * The current figures are formatted as a plain-text table by {@link #formatReport()}, shown by
+ * the {@link MetricsOverlay} in debug builds, and can be written to a file with
+ * {@link #dumpToFile(File)}.
+ */
+public final class OperationMetrics {
+
+
+    /**
+     * The instrumented operations, named as they appear in reports.
+     */
+    public enum Operation {
+        ADD_ITEM("db.addItem"),
+        UPDATE_ITEM("db.updateItem"),
+        ADJUST_QUANTITY("db.adjustQuantity"),
+        DELETE_ITEM("db.deleteItem"),
+        BATCH_COMMIT("db.batchCommit"),
+        PAGE_LOAD("db.pageLoad"),
+        SNAPSHOT_DECODE("sync.decode"),
+        LISTENER_DELIVERY("sync.deliver"),
+        CREATE_VIEW_HOLDER("ui.createViewHolder"),
+        BIND_VIEW_HOLDER("ui.bindViewHolder");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        @NonNull
+        public String getLabel() { return label; }
+    }
+
+
+    /**
+     * The figures recorded for one operation.
+     */
+    public static final class Stats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder payloadBytes = new LongAdder();
+
+        Stats() {
+        }
+
+        @NonNull
+        public LatencyHistogram getLatency() { return latency; }
+        public long getCount() { return latency.getCount(); }
+        public long getFailureCount() { return failures.sum(); }
+        public long getPayloadBytes() { return payloadBytes.sum(); }
+
+        void reset() {
+            latency.reset();
+            failures.reset();
+            payloadBytes.reset();
+        }
+    }
+
+
+    private static final OperationMetrics INSTANCE = new OperationMetrics();
+
+    private final Map<Operation, Stats> statsByOperation = new EnumMap<>(Operation.class);
+    private volatile long startedAtNanos = System.nanoTime();
+
+
+    /**
+     * Creates an empty set of metrics. The application records into {@link #getInstance()}.
+     */
+    OperationMetrics() {
+        for (Operation operation : Operation.values()) {
+            statsByOperation.put(operation, new Stats());
+        }
+    }
+
+
+    /**
+     * Returns the metrics shared by the whole process.
+     * <p>
+     * @return the process-wide {@link OperationMetrics}
+     */
+    @NonNull
+    public static OperationMetrics getInstance() {
+        return INSTANCE;
+    }
+
+
+    /**
+     * Returns the current time, to be passed back to {@link #record} when the operation ends.
+     * <p>
+     * @return a monotonic timestamp in nanoseconds
+     */
+    public static long startTimer() {
+        return System.nanoTime();
+    }
+
+
+    /**
+     * Records a successful operation without a payload.
+     * <p>
+     * @param operation the operation that completed
+     * @param startNanos the value returned by {@link #startTimer()} when it began
+     */
+    public void record(@NonNull Operation operation, long startNanos) {
+        recordElapsed(operation, System.nanoTime() - startNanos, 0, false);
+    }
+
+
+    /**
+     * Records a completed operation.
+     * <p>
+     * @param operation the operation that completed
+     * @param startNanos the value returned by {@link #startTimer()} when it began
+     * @param payloadBytes the approximate size of the data read or written, or 0 if not known
+     * @param failed whether the operation failed
+     */
+    public void record(@NonNull Operation operation, long startNanos, long payloadBytes, boolean failed) {
+        recordElapsed(operation, System.nanoTime() - startNanos, payloadBytes, failed);
+    }
+
+
+    /**
+     * Records a completed operation whose latency is already known.
+     * <p>
+     * @param operation the operation that completed
+     * @param elapsedNanos how long it took
+     * @param payloadBytes the approximate size of the data read or written, or 0 if not known
+     * @param failed whether the operation failed
+     */
+    void recordElapsed(Operation operation, long elapsedNanos, long payloadBytes, boolean failed) {
+        Stats stats = statsByOperation.get(operation);
+        stats.latency.record(elapsedNanos);
+        if (payloadBytes > 0) {
+            stats.payloadBytes.add(payloadBytes);
+        }
+        if (failed) {
+            stats.failures.increment();
+        }
+    }
+
+
+    /**
+     * Returns the figures recorded for an operation since the last reset.
+     * <p>
+     * @param operation the operation
+     * @return its live {@link Stats}
+     */
+    @NonNull
+    public Stats getStats(@NonNull Operation operation) {
+        return statsByOperation.get(operation);
+    }
+
+
+    /**
+     * Discards every recorded figure and restarts the throughput clock.
+     */
+    public void reset() {
+        for (Stats stats : statsByOperation.values()) {
+            stats.reset();
+        }
+        startedAtNanos = System.nanoTime();
+    }
+
+
+    /**
+     * Formats the recorded figures as a fixed-width table, one row per operation that has been
+     * recorded at least once. Latencies are in milliseconds, throughput in operations per second
+     * since the last reset, and the error rate as a percentage.
+     * <p>
+     * @return the report text
+     */
+    @NonNull
+    public String formatReport() {
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startedAtNanos) / 1e9);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-20s %7s %7s %6s %8s %8s %8s %8s %8s%n",
+                "operation", "count", "per s", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms", "avg B"));
+
+        for (Operation operation : Operation.values()) {
+            Stats stats = statsByOperation.get(operation);
+            long count = stats.getCount();
+            if (count == 0) {
+                continue;
+            }
+
+            LatencyHistogram latency = stats.latency;
+            long payloadBytes = stats.getPayloadBytes();
+            report.append(String.format(Locale.ROOT, "%-20s %7d %7.1f %6.1f %8.2f %8.2f %8.2f %8.2f %8s%n",
+                    operation.getLabel(),
+                    count,
+                    count / elapsedSeconds,
+                    100.0 * stats.getFailureCount() / count,
+                    latency.getPercentileNanos(50) / 1e6,
+                    latency.getPercentileNanos(90) / 1e6,
+                    latency.getPercentileNanos(99) / 1e6,
+                    latency.getMaxNanos() / 1e6,
+                    payloadBytes == 0 ? "-" : String.valueOf(payloadBytes / count)));
+        }
+        return report.toString();
+    }
+
+
+    /**
+     * Writes the report, headed by the time it covers, to a writer.
+     * <p>
+     * @param writer the destination; it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeReport(@NonNull Writer writer) throws IOException {
+        long elapsedMillis = (System.nanoTime() - startedAtNanos) / 1_000_000;
+        writer.write("Inventory metrics over the last " + elapsedMillis + " ms\n\n");
+        writer.write(formatReport());
+        writer.flush();
+    }
+
+
+    /**
+     * Writes the report to a new, timestamped file in a directory, which is created if needed.
+     * <p>
+     * @param directory the directory to write into
+     * @return the file written
+     * @throws IOException if the directory cannot be created or the file cannot be written
+     */
+    @NonNull
+    public File dumpToFile(@NonNull File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+
+        File file = new File(directory, "inventory-metrics-" + System.currentTimeMillis() + ".txt");
+        try (Writer writer = new FileWriter(file)) {
+            writeReport(writer);
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.tracing.Trace;
+
+import com.snhu.cs360.inventoryapp.BuildConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Named system trace sections around the app's hot paths, so slow frames in a Perfetto or
+ * systrace capture can be attributed to specific app code.
+ * <p>
+ * Synchronous sections mark work done on one thread and must be ended on the thread that began
+ * them, in reverse order. Asynchronous sections mark a database round trip, from the call until
+ * its completion callback, and are told apart by a cookie from {@link #nextCookie()}.
+ * <p>
+ * Sections are compiled in only when {@code BuildConfig.TRACE_SECTIONS} is set, which it is for
+ * debug builds. Because the flag is a compile-time constant, every guarded body below is removed
+ * by the compiler in release builds, leaving empty methods that are inlined away.
+ */
+public final class TraceSection {
+
+    static final boolean ENABLED = BuildConfig.TRACE_SECTIONS;
+
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+
+    private TraceSection() {
+    }
+
+
+    /**
+     * Begins a section on the current thread.
+     * <p>
+     * @param name the section name, at most 127 characters
+     */
+    public static void begin(@NonNull String name) {
+        if (ENABLED) {
+            Trace.beginSection(name);
+        }
+    }
+
+
+    /**
+     * Ends the section most recently begun on the current thread.
+     */
+    public static void end() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+
+
+    /**
+     * Returns a cookie identifying a new asynchronous section.
+     * <p>
+     * @return a cookie not currently used by another section
+     */
+    public static int nextCookie() {
+        return ENABLED ? nextCookie.incrementAndGet() : 0;
+    }
+
+
+    /**
+     * Begins an asynchronous section, which may end on any thread.
+     * <p>
+     * @param name the section name, at most 127 characters
+     * @param cookie the cookie from {@link #nextCookie()}, passed again to {@link #endAsync}
+     */
+    public static void beginAsync(@NonNull String name, int cookie) {
+        if (ENABLED) {
+            Trace.beginAsyncSection(name, cookie);
+        }
+    }
+
+
+    /**
+     * Ends an asynchronous section.
+     * <p>
+     * @param name the name the section was begun with
+     * @param cookie the cookie the section was begun with
+     */
+    public static void endAsync(@NonNull String name, int cookie) {
+        if (ENABLED) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+
+}
@@ -1,14 +1,28 @@
 package com.snhu.cs360.inventoryapp.firebase;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
 import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.metrics.OperationMetrics;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 /**
  * Unit test class for {@code FirebaseDatabaseHelper}.
@@ -32,7 +46,7 @@ public class FirebaseDatabaseHelperTest {
 
     @Test
     public void testAddItem() {
-        InventoryItem item = new InventoryItem();
+        InventoryItem item = InventoryItem.builder().setName("Widget").build();
         DatabaseReference pushedRef = mock(DatabaseReference.class);
 
         // Mock methods
@@ -41,15 +55,17 @@ public class FirebaseDatabaseHelperTest {
         when(databaseReference.child("Item1")).thenReturn(pushedRef);
 
         // Test adding item
-        firebaseDatabaseHelper.addItem(item);
-        verify(pushedRef).setValue(item);
+        InventoryItem storedItem = firebaseDatabaseHelper.addItem(item);
+        assertEquals("Item1", storedItem.getId());
+        assertNull(item.getId());
+        verify(pushedRef).setValue(eq(InventoryItemCodec.toMap(storedItem)), any(DatabaseReference.CompletionListener.class));
     }
 
 
     @Test
     public void testUpdateItem() {
         String itemId = "Item1";
-        InventoryItem updatedItem = new InventoryItem();
+        InventoryItem updatedItem = new InventoryItem(itemId, "Widget", "Description", 5, "Tools");
 
         // Mock item reference and methods
         DatabaseReference itemReference = mock(DatabaseReference.class);
@@ -57,7 +73,32 @@ public class FirebaseDatabaseHelperTest {
 
         // Test update method
         firebaseDatabaseHelper.updateItem(itemId, updatedItem);
-        verify(itemReference).setValue(updatedItem);
+        verify(itemReference).setValue(eq(InventoryItemCodec.toMap(updatedItem)), any(DatabaseReference.CompletionListener.class));
+    }
+
+
+    @Test
+    public void testWriteRoundTripIsRecorded() {
+        InventoryItem updatedItem = new InventoryItem("Item1", "Widget", "Description", 5, "Tools");
+        DatabaseReference itemReference = mock(DatabaseReference.class);
+        DatabaseReference.CompletionListener completionListener = mock(DatabaseReference.CompletionListener.class);
+        DatabaseError error = mock(DatabaseError.class);
+        when(databaseReference.child("Item1")).thenReturn(itemReference);
+
+        OperationMetrics.Stats stats = OperationMetrics.getInstance().getStats(OperationMetrics.Operation.UPDATE_ITEM);
+        long count = stats.getCount();
+        long failures = stats.getFailureCount();
+
+        // The caller's listener is still told the outcome once the round trip has been timed
+        firebaseDatabaseHelper.updateItem("Item1", updatedItem, completionListener);
+        ArgumentCaptor<DatabaseReference.CompletionListener> captor =
+                ArgumentCaptor.forClass(DatabaseReference.CompletionListener.class);
+        verify(itemReference).setValue(any(), captor.capture());
+        captor.getValue().onComplete(error, itemReference);
+
+        verify(completionListener).onComplete(error, itemReference);
+        assertEquals(count + 1, stats.getCount());
+        assertEquals(failures + 1, stats.getFailureCount());
     }
 
 
@@ -67,15 +108,96 @@ public class FirebaseDatabaseHelperTest {
 
         // Mock item reference
         DatabaseReference itemRef = mock(DatabaseReference.class);
-        var mockTask = mock(com.google.android.gms.tasks.Task.class);
 
         // Mock methods
         when(databaseReference.child(itemId)).thenReturn(itemRef);
-        when(itemRef.removeValue()).thenReturn(mockTask);
 
         // Test delete method
         firebaseDatabaseHelper.deleteItem(itemId);
-        verify(itemRef).removeValue();
+        verify(itemRef).removeValue(any(DatabaseReference.CompletionListener.class));
+    }
+
+
+
+    @Test
+    public void testAdjustQuantityClampsAtZero() {
+        String itemId = "Item1";
+
+        // Mock item and quantity references
+        DatabaseReference itemRef = mock(DatabaseReference.class);
+        DatabaseReference quantityRef = mock(DatabaseReference.class);
+        when(databaseReference.child(itemId)).thenReturn(itemRef);
+        when(itemRef.child("quantity")).thenReturn(quantityRef);
+
+        // Test adjust method only runs a transaction on the quantity child
+        firebaseDatabaseHelper.adjustQuantity(itemId, -5);
+        ArgumentCaptor<Transaction.Handler> handlerCaptor = ArgumentCaptor.forClass(Transaction.Handler.class);
+        verify(quantityRef).runTransaction(handlerCaptor.capture());
+        verify(itemRef, never()).setValue(any());
+
+        // Subtracting more than is in stock leaves zero
+        MutableData currentData = mock(MutableData.class);
+        when(currentData.getValue(Long.class)).thenReturn(3L);
+        handlerCaptor.getValue().doTransaction(currentData);
+        verify(currentData).setValue(0L);
+    }
+
+
+    @Test
+    public void testAdjustQuantityIgnoresMissingItem() {
+        String itemId = "Item1";
+
+        DatabaseReference itemRef = mock(DatabaseReference.class);
+        DatabaseReference quantityRef = mock(DatabaseReference.class);
+        when(databaseReference.child(itemId)).thenReturn(itemRef);
+        when(itemRef.child("quantity")).thenReturn(quantityRef);
+
+        firebaseDatabaseHelper.adjustQuantity(itemId, 1);
+        ArgumentCaptor<Transaction.Handler> handlerCaptor = ArgumentCaptor.forClass(Transaction.Handler.class);
+        verify(quantityRef).runTransaction(handlerCaptor.capture());
+
+        // A deleted item has no quantity and must not be recreated
+        MutableData currentData = mock(MutableData.class);
+        when(currentData.getValue(Long.class)).thenReturn(null);
+        handlerCaptor.getValue().doTransaction(currentData);
+        verify(currentData, never()).setValue(any());
+    }
+
+
+    @Test
+    public void testClampQuantity() {
+        assertEquals(7, FirebaseDatabaseHelper.clampQuantity(5, 2));
+        assertEquals(0, FirebaseDatabaseHelper.clampQuantity(1, -4));
+    }
+
+
+    @Test
+    public void testFetchItemsIsRemovedWhenClosed() {
+        ValueEventListener first = mock(ValueEventListener.class);
+        ValueEventListener second = mock(ValueEventListener.class);
+
+        // Fetching twice, as a recreated screen would, attaches a single database listener
+        SubscriptionManager.Subscription subscription = firebaseDatabaseHelper.fetchItems(first);
+        firebaseDatabaseHelper.fetchItems(second);
+        verify(databaseReference, times(1)).addValueEventListener(any(ValueEventListener.class));
+        assertEquals(1, firebaseDatabaseHelper.getSubscriptions().getAttachedListenerCount());
+
+        subscription.close();
+        firebaseDatabaseHelper.getSubscriptions().unsubscribe(second);
+        verify(databaseReference).removeEventListener(any(ValueEventListener.class));
+        assertEquals(0, firebaseDatabaseHelper.getSubscriptions().getAttachedListenerCount());
+    }
+
+
+    @Test
+    public void testQueryItemsByTag() {
+        Query orderedQuery = mock(Query.class);
+        Query tagQuery = mock(Query.class);
+        when(databaseReference.orderByChild("tagKey")).thenReturn(orderedQuery);
+        when(orderedQuery.equalTo("tools")).thenReturn(tagQuery);
+
+        // The filter is evaluated by the database on the normalized tag, as the tag index groups tags
+        assertSame(tagQuery, firebaseDatabaseHelper.queryItemsByTag(" Tools "));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.local.LocalInventoryStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code InventoryBatch}.
+ * <p>
+ * This class verifies that accumulated writes are sent as multi-location updates, that large
+ * batches are chunked, that a single completion callback is delivered for the whole batch, and
+ * that only chunks accepted by the database are written through to the local store.
+ */
+public class InventoryBatchTest {
+
+    private DatabaseReference databaseReference;
+    private DatabaseReference.CompletionListener completionListener;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up db reference and a mock completion listener before each test.
+        databaseReference = mock(DatabaseReference.class);
+        completionListener = mock(DatabaseReference.CompletionListener.class);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private List<DatabaseReference.CompletionListener> captureChunkListeners(int chunkCount, List<Map<String, Object>> chunks) {
+        ArgumentCaptor<Map<String, Object>> chunkCaptor = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<DatabaseReference.CompletionListener> listenerCaptor =
+                ArgumentCaptor.forClass(DatabaseReference.CompletionListener.class);
+        verify(databaseReference, times(chunkCount)).updateChildren(chunkCaptor.capture(), listenerCaptor.capture());
+        chunks.addAll(chunkCaptor.getAllValues());
+        return listenerCaptor.getAllValues();
+    }
+
+
+    @Test
+    public void testWritesAreCommittedAsOneUpdate() {
+        InventoryBatch batch = new InventoryBatch(databaseReference, null, 10);
+        batch.update("Item1", new InventoryItem("Item1", "Widget", "Description", 5, "Tools"))
+                .setField("Item2", "tag", "Electronics")
+                .delete("Item3");
+
+        batch.commit(completionListener);
+
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        List<DatabaseReference.CompletionListener> listeners = captureChunkListeners(1, chunks);
+        Map<String, Object> update = chunks.get(0);
+
+        assertEquals(4, update.size());
+        assertTrue(update.get("Item1") instanceof Map);
+        assertEquals("Electronics", update.get("Item2/tag"));
+        assertEquals("electronics", update.get("Item2/tagKey"));
+        assertTrue(update.containsKey("Item3"));
+        assertNull(update.get("Item3"));
+
+        listeners.get(0).onComplete(null, databaseReference);
+        verify(completionListener).onComplete(null, databaseReference);
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFieldWriteIsMergedIntoWholeItem() {
+        InventoryBatch batch = new InventoryBatch(databaseReference, null, 10);
+        batch.setField("Item1", "quantity", 1)
+                .update("Item1", new InventoryItem("Item1", "Widget", "Description", 5, "Tools"))
+                .setField("Item1", "tag", "Electronics");
+
+        // The item path and its field paths must never be written together
+        assertEquals(1, batch.size());
+
+        batch.commit(null);
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        captureChunkListeners(1, chunks);
+
+        Map<String, Object> item = (Map<String, Object>) chunks.get(0).get("Item1");
+        assertEquals("Electronics", item.get("tag"));
+        assertEquals("electronics", item.get("tagKey"));
+        assertEquals(5, item.get("quantity"));
+        assertFalse(chunks.get(0).containsKey("Item1/quantity"));
+    }
+
+
+    @Test
+    public void testLargeBatchIsChunkedWithSingleCompletion() {
+        InventoryBatch batch = new InventoryBatch(databaseReference, null, 2);
+        for (int i = 0; i < 5; i++) {
+            batch.setField("Item" + i, "quantity", 0);
+        }
+
+        batch.commit(completionListener);
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        List<DatabaseReference.CompletionListener> listeners = captureChunkListeners(3, chunks);
+
+        // Completion is reported only after every chunk has finished, with the first error
+        DatabaseError error = mock(DatabaseError.class);
+        listeners.get(0).onComplete(null, databaseReference);
+        listeners.get(1).onComplete(error, databaseReference);
+        verify(completionListener, never()).onComplete(any(), any());
+
+        listeners.get(2).onComplete(null, databaseReference);
+        verify(completionListener, times(1)).onComplete(error, databaseReference);
+    }
+
+
+    @Test
+    public void testOnlyAcceptedChunksReachLocalStore() {
+        LocalInventoryStore localStore = mock(LocalInventoryStore.class);
+        InventoryBatch batch = new InventoryBatch(databaseReference, localStore, 1);
+        batch.update("Item1", new InventoryItem("Item1", "Widget", "Description", 5, "Tools"))
+                .delete("Item2");
+
+        batch.commit(completionListener);
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        List<DatabaseReference.CompletionListener> listeners = captureChunkListeners(2, chunks);
+
+        // Nothing is written locally until the database answers
+        verify(localStore, never()).saveItem(any());
+        verify(localStore, never()).deleteItem(any());
+
+        listeners.get(0).onComplete(null, databaseReference);
+        listeners.get(1).onComplete(mock(DatabaseError.class), databaseReference);
+
+        verify(localStore).saveItem(any(InventoryItem.class));
+        verify(localStore, never()).deleteItem(any());
+    }
+
+
+    @Test
+    public void testEmptyBatchCompletesImmediately() {
+        InventoryBatch batch = new InventoryBatch(databaseReference, null, 10);
+
+        batch.commit(completionListener);
+
+        verify(databaseReference, never()).updateChildren(anyMap(), any());
+        verify(completionListener).onComplete(null, databaseReference);
+    }
+
+
+    @Test
+    public void testAddAssignsGeneratedId() {
+        DatabaseReference pushedRef = mock(DatabaseReference.class);
+        when(databaseReference.push()).thenReturn(pushedRef);
+        when(pushedRef.getKey()).thenReturn("NewItem");
+
+        InventoryItem item = InventoryItem.builder().setName("Widget").build();
+        new InventoryBatch(databaseReference, null, 10).add(item).commit(completionListener);
+
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        captureChunkListeners(1, chunks);
+        assertEquals("NewItem", ((Map<?, ?>) chunks.get(0).get("NewItem")).get("id"));
+        assertNull(item.getId());
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code InventoryItemCodec}.
+ * <p>
+ * This class verifies that items round-trip through the stored field map, that the field map
+ * matches the layout written by the reflective mapper plus the normalized tag, and that malformed
+ * values are decoded leniently.
+ */
+public class InventoryItemCodecTest {
+
+    @Test
+    public void testToMapWritesEveryField() {
+        InventoryItem item = new InventoryItem("Item1", "Widget", "Description", 5, " Tools");
+
+        Map<String, Object> values = InventoryItemCodec.toMap(item);
+
+        assertEquals(6, values.size());
+        assertEquals("Item1", values.get("id"));
+        assertEquals("Widget", values.get("name"));
+        assertEquals("Description", values.get("description"));
+        assertEquals(5, values.get("quantity"));
+        assertEquals(" Tools", values.get("tag"));
+        assertEquals("tools", values.get("tagKey"));
+    }
+
+
+    @Test
+    public void testDecodeUsesKeyAsId() {
+        // Firebase hands back whole numbers as Long
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", "Stale");
+        values.put("name", "Widget");
+        values.put("quantity", 7L);
+        values.put("tag", "Tools");
+
+        InventoryItem item = InventoryItemCodec.decode("Item1", values);
+
+        assertEquals("Item1", item.getId());
+        assertEquals("Widget", item.getName());
+        assertNull(item.getDescription());
+        assertEquals(7, item.getQuantity());
+        assertEquals("Tools", item.getTag());
+    }
+
+
+    @Test
+    public void testMalformedValuesAreDecodedLeniently() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", 42L);
+        values.put("quantity", "12");
+
+        InventoryItem item = InventoryItemCodec.decode("Item1", values);
+
+        assertEquals("42", item.getName());
+        assertEquals(12, item.getQuantity());
+        assertNull(InventoryItemCodec.decode("Item2", "not an item"));
+        assertNull(InventoryItemCodec.decode("Item3", null));
+    }
+
+
+    @Test
+    public void testEncodedSizeMatchesJson() {
+        InventoryItem item = new InventoryItem("Item1", "Widget", null, 5, "Tools");
+
+        // {"id":"Item1","name":"Widget","quantity":5,"tag":"Tools","tagKey":"tools"}; the null
+        // description is not stored
+        assertEquals(74, InventoryItemCodec.estimateEncodedSize(InventoryItemCodec.toMap(item)));
+        assertEquals(2, InventoryItemCodec.estimateEncodedSize(new HashMap<>()));
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit test class for {@code InventoryPager}.
+ * <p>
+ * This class verifies that pages are requested in key order after the previous page, that each
+ * page is downloaded once through a single listener on its limited query, either through a private
+ * or a shared {@code SubscriptionManager}, that events slid into a full page's window from the next
+ * page are dropped, that a child pushed out of a full window is not reported as deleted, that keys
+ * are compared in the database's order, and that paging stops once a short page is received.
+ */
+public class InventoryPagerTest {
+
+    private DatabaseReference databaseReference;
+    private Query query;
+    private ChildEventListener childListener;
+    private InventoryPager.PageCallback callback;
+    private InventoryPager pager;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up db reference, a self-returning query chain, and a pager of 2 items before each test.
+        databaseReference = mock(DatabaseReference.class);
+        query = mock(Query.class, RETURNS_SELF);
+        when(databaseReference.orderByKey()).thenReturn(query);
+        childListener = mock(ChildEventListener.class);
+        callback = mock(InventoryPager.PageCallback.class);
+        pager = new InventoryPager(databaseReference, childListener, 2);
+    }
+
+
+    /*
+     * Builds a child snapshot with the given key.
+     */
+    private DataSnapshot child(String key) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        return snapshot;
+    }
+
+
+    /*
+     * Captures the listener of the most recent page.
+     */
+    private ChildEventListener capturePageListener(int pageCount) {
+        ArgumentCaptor<ChildEventListener> captor = ArgumentCaptor.forClass(ChildEventListener.class);
+        verify(query, times(pageCount)).addChildEventListener(captor.capture());
+        return captor.getValue();
+    }
+
+
+    /*
+     * Delivers the given children to the most recent page, then completes its load marker.
+     */
+    private ChildEventListener deliverPage(int pageCount, String... keys) {
+        ChildEventListener page = capturePageListener(pageCount);
+        String previousKey = null;
+        for (String key : keys) {
+            page.onChildAdded(child(key), previousKey);
+            previousKey = key;
+        }
+        ArgumentCaptor<ValueEventListener> captor = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(query, times(pageCount)).addListenerForSingleValueEvent(captor.capture());
+        captor.getValue().onDataChange(mock(DataSnapshot.class));
+        return page;
+    }
+
+
+    @Test
+    public void testFirstPageIsLimitedAndDownloadedOnce() {
+        pager.loadNextPage(callback);
+        verify(query).limitToFirst(2);
+        verify(query, never()).startAfter(anyString());
+        assertTrue(pager.isLoading());
+
+        deliverPage(1, "a", "b");
+
+        // The limited query is the page's only listener; no second range query is attached
+        verify(query, never()).endAt(anyString());
+        verify(childListener, times(2)).onChildAdded(any(DataSnapshot.class), any());
+        verify(callback).onPageLoaded(2, false);
+        assertFalse(pager.isLoading());
+        assertTrue(pager.hasMorePages());
+    }
+
+
+    @Test
+    public void testNextPageStartsAfterPreviousPage() {
+        pager.loadNextPage(callback);
+        deliverPage(1, "a", "b");
+
+        pager.loadNextPage(callback);
+        verify(query).startAfter("b");
+        deliverPage(2, "c");
+
+        verify(callback).onPageLoaded(1, true);
+        assertFalse(pager.hasMorePages());
+        assertEquals(2, pager.getLoadedPageCount());
+    }
+
+
+    /*
+     * Answers the read of a removed child, which does or does not still exist in the database.
+     */
+    private void answerChildRead(String key, boolean exists) {
+        DatabaseReference childReference = databaseReference.child(key);
+        ArgumentCaptor<ValueEventListener> captor = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(childReference).addListenerForSingleValueEvent(captor.capture());
+        DataSnapshot current = child(key);
+        when(current.exists()).thenReturn(exists);
+        captor.getValue().onDataChange(current);
+    }
+
+
+    @Test
+    public void testKeysSlidIntoFullPageAreDropped() {
+        when(databaseReference.child("a")).thenReturn(mock(DatabaseReference.class));
+        pager.loadNextPage(callback);
+        ChildEventListener firstPage = deliverPage(1, "a", "b");
+
+        // Deleting "a" slides "c", which belongs to the next page, into the first page's window
+        DataSnapshot removed = child("a");
+        DataSnapshot slidIn = child("c");
+        firstPage.onChildRemoved(removed);
+        firstPage.onChildAdded(slidIn, "b");
+        verify(childListener, never()).onChildRemoved(removed);
+        answerChildRead("a", false);
+
+        verify(childListener).onChildRemoved(removed);
+        verify(childListener, never()).onChildAdded(slidIn, "b");
+    }
+
+
+    @Test
+    public void testChildPushedOutOfFullPageIsKept() {
+        when(databaseReference.child("b")).thenReturn(mock(DatabaseReference.class));
+        pager.loadNextPage(callback);
+        ChildEventListener firstPage = deliverPage(1, "a", "b");
+
+        // Inserting "ab" pushes "b" out of the window, although it still exists
+        firstPage.onChildAdded(child("ab"), "a");
+        DataSnapshot pushedOut = child("b");
+        firstPage.onChildRemoved(pushedOut);
+        answerChildRead("b", true);
+
+        // The page now listens to its exact range instead of the window
+        verify(childListener, never()).onChildRemoved(pushedOut);
+        verify(query).endAt("b");
+        verify(query, times(2)).addChildEventListener(any(ChildEventListener.class));
+        verify(query).removeEventListener(firstPage);
+    }
+
+
+    @Test
+    public void testKeysFollowTheDatabaseOrder() {
+        // Integer keys sort first and numerically, before any other key
+        assertTrue(InventoryPager.compareKeys("2", "10") < 0);
+        assertTrue(InventoryPager.compareKeys("10", "-a") < 0);
+        assertTrue(InventoryPager.compareKeys("-5", "3") < 0);
+        assertTrue(InventoryPager.compareKeys("99999999999", "a") < 0);
+        assertTrue(InventoryPager.compareKeys("-NbA", "-Nc0") < 0);
+        assertEquals(0, InventoryPager.compareKeys("7", "7"));
+    }
+
+
+    @Test
+    public void testLoadedRangeIsReported() {
+        pager.loadNextPage(callback);
+        deliverPage(1, "a", "b");
+        pager.loadNextPage(callback);
+        deliverPage(2, "c");
+
+        verify(callback).onRangeLoaded(null, "b");
+        verify(callback).onRangeLoaded("b", null);
+    }
+
+
+    @Test
+    public void testFullFinalPageLoadsTheFollowingPage() {
+        pager.loadNextPage(callback);
+        ChildEventListener finalPage = deliverPage(1, "a");
+        assertFalse(pager.hasMorePages());
+
+        // A pushed item fills the open-ended final page, so later items go to a new page
+        finalPage.onChildAdded(child("b"), "a");
+        verify(query).startAfter("b");
+        assertTrue(pager.isLoading());
+        finalPage.onChildAdded(child("c"), "b");
+        verify(childListener, never()).onChildAdded(any(DataSnapshot.class), eq("b"));
+    }
+
+
+    @Test
+    public void testConcurrentAndExhaustedRequestsAreIgnored() {
+        pager.loadNextPage(callback);
+        pager.loadNextPage(callback);
+        deliverPage(1);
+
+        pager.loadNextPage(callback);
+        verify(query, times(1)).addChildEventListener(any(ChildEventListener.class));
+        verify(callback).onPageLoaded(0, true);
+    }
+
+
+    @Test
+    public void testStopDetachesEveryLoadedPage() {
+        pager.loadNextPage(callback);
+        deliverPage(1, "a", "b");
+        pager.loadNextPage(callback);
+        deliverPage(2, "c", "d");
+
+        pager.stop();
+
+        verify(query, times(2)).removeEventListener(any(ChildEventListener.class));
+        assertEquals(0, pager.getLoadedPageCount());
+    }
+
+
+    @Test
+    public void testManagedPagesFollowTheSubscriptionManager() {
+        SubscriptionManager subscriptions = new SubscriptionManager();
+        pager = new InventoryPager(databaseReference, childListener, 2, subscriptions);
+        pager.loadNextPage(callback);
+        deliverPage(1, "a", "b");
+
+        // The page is subscribed through the manager rather than with the caller's listener
+        verify(query, never()).addChildEventListener(childListener);
+        assertEquals(1, subscriptions.getAttachedListenerCount());
+
+        subscriptions.stop();
+        assertEquals(0, subscriptions.getAttachedListenerCount());
+        assertEquals(1, subscriptions.getSubscriptionCount());
+
+        pager.stop();
+        assertEquals(0, subscriptions.getSubscriptionCount());
+        assertEquals(0, pager.getLoadedPageCount());
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.DataSnapshot;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Unit test class for {@code InventorySyncEngine}.
+ * <p>
+ * This class verifies that child events are applied to the keyed in-memory store and that
+ * each event produces exactly one fine-grained notification for the affected item, including
+ * when decoding is moved to a background executor.
+ */
+public class InventorySyncEngineTest {
+
+    private InventorySyncEngine syncEngine;
+    private InventorySyncEngine.Listener listener;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up the engine and a mock listener before each test.
+        syncEngine = new InventorySyncEngine();
+        listener = mock(InventorySyncEngine.Listener.class);
+        syncEngine.addListener(listener);
+    }
+
+
+    /*
+     * Builds a mock child snapshot for the given key, holding the raw field map of the item.
+     */
+    private DataSnapshot snapshotOf(String key, InventoryItem item) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        when(snapshot.getValue()).thenReturn(item == null ? null : InventoryItemCodec.toMap(item));
+        return snapshot;
+    }
+
+
+    @Test
+    public void testChildAddedStoresItem() {
+        InventoryItem item = new InventoryItem(null, "Widget", "Description", 5, "Tools");
+
+        syncEngine.onChildAdded(snapshotOf("Item1", item), null);
+
+        // Key is copied onto the decoded item and the item is stored under it
+        InventoryItem stored = syncEngine.getItem("Item1");
+        assertEquals("Item1", stored.getId());
+        assertEquals("Widget", stored.getName());
+        assertEquals(5, stored.getQuantity());
+        assertEquals(1, syncEngine.size());
+        verify(listener).onItemAdded(stored);
+    }
+
+
+    @Test
+    public void testChildChangedReplacesItem() {
+        InventoryItem original = new InventoryItem(null, "Widget", "Description", 5, "Tools");
+        InventoryItem updated = new InventoryItem(null, "Widget", "Description", 6, "Tools");
+
+        syncEngine.onChildAdded(snapshotOf("Item1", original), null);
+        InventoryItem storedOriginal = syncEngine.getItem("Item1");
+        syncEngine.onChildChanged(snapshotOf("Item1", updated), null);
+
+        // Only the changed item is replaced and reported
+        InventoryItem storedUpdate = syncEngine.getItem("Item1");
+        assertEquals(6, storedUpdate.getQuantity());
+        assertEquals(1, syncEngine.size());
+        verify(listener).onItemChanged(storedOriginal, storedUpdate);
+    }
+
+
+    @Test
+    public void testUnchangedChildIsNotReported() {
+        InventoryItem item = new InventoryItem(null, "Widget", "Description", 5, "Tools");
+
+        syncEngine.onChildAdded(snapshotOf("Item1", item), null);
+        syncEngine.onChildChanged(snapshotOf("Item1", item), null);
+
+        // A child re-delivered after re-attaching is compared once decoded, and dropped if equal
+        assertEquals(5, syncEngine.getItem("Item1").getQuantity());
+        verify(listener, never()).onItemChanged(any(InventoryItem.class), any(InventoryItem.class));
+    }
+
+
+    @Test
+    public void testChildRemovedDeletesItem() {
+        InventoryItem item = new InventoryItem(null, "Widget", "Description", 5, "Tools");
+
+        syncEngine.onChildAdded(snapshotOf("Item1", item), null);
+        InventoryItem stored = syncEngine.getItem("Item1");
+        syncEngine.onChildRemoved(snapshotOf("Item1", item));
+
+        assertNull(syncEngine.getItem("Item1"));
+        assertEquals(0, syncEngine.size());
+        verify(listener).onItemRemoved(stored);
+    }
+
+
+    @Test
+    public void testUnconfirmedSeededItemIsRemovedAfterInitialSync() {
+        InventoryItem confirmed = new InventoryItem("Item1", "Widget", "Description", 5, "Tools");
+        InventoryItem stale = new InventoryItem("Item2", "Gadget", "Description", 3, "Tools");
+        InventoryItem remote = new InventoryItem(null, "Widget", "Description", 7, "Tools");
+
+        // Cached items are seeded, then only one of them is confirmed remotely
+        syncEngine.seedItems(List.of(confirmed, stale));
+        syncEngine.onChildAdded(snapshotOf("Item1", remote), null);
+        InventoryItem stored = syncEngine.getItem("Item1");
+        syncEngine.completeInitialSync();
+
+        assertSame(stored, syncEngine.getItem("Item1"));
+        assertEquals(7, stored.getQuantity());
+        assertNull(syncEngine.getItem("Item2"));
+        verify(listener).onItemChanged(confirmed, stored);
+        verify(listener).onItemRemoved(stale);
+    }
+
+
+    @Test
+    public void testUnconfirmedSeedIsRemovedWhenItsRangeLoads() {
+        InventoryItem stale = new InventoryItem("Item2", "Gadget", "Description", 3, "Tools");
+        InventoryItem later = new InventoryItem("Item7", "Wrench", "Description", 1, "Tools");
+
+        // Only the range holding Item2 has been read; Item7 lies in a page not loaded yet
+        syncEngine.seedItems(List.of(stale, later));
+        syncEngine.completeKeyRange(null, "Item5");
+
+        assertNull(syncEngine.getItem("Item2"));
+        assertSame(later, syncEngine.getItem("Item7"));
+        verify(listener).onItemRemoved(stale);
+        assertFalse(syncEngine.isInitialSyncComplete());
+    }
+
+
+    @Test
+    public void testSeedingAfterInitialSyncIsIgnored() {
+        InventoryItem cached = new InventoryItem("Item1", "Widget", "Description", 5, "Tools");
+
+        syncEngine.completeInitialSync();
+        syncEngine.seedItems(List.of(cached));
+
+        assertEquals(0, syncEngine.size());
+        verify(listener, never()).onItemsSeeded(any());
+    }
+
+
+    @Test
+    public void testRemovingUnknownItemIsIgnored() {
+        syncEngine.onChildRemoved(snapshotOf("Missing", null));
+
+        verify(listener, never()).onItemRemoved(any(InventoryItem.class));
+    }
+
+
+    /*
+     * Runs queued tasks until the queue is empty.
+     */
+    private void runAll(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+
+    @Test
+    public void testSupersededEventIsNotDecoded() {
+        Queue<Runnable> decodeTasks = new ArrayDeque<>();
+        Queue<Runnable> deliveryTasks = new ArrayDeque<>();
+        InventorySyncEngine backgroundEngine = new InventorySyncEngine(decodeTasks::add, deliveryTasks::add);
+        backgroundEngine.addListener(listener);
+
+        DataSnapshot stale = snapshotOf("Item1", new InventoryItem(null, "Widget", "Description", 5, "Tools"));
+        InventoryItem latest = new InventoryItem(null, "Widget", "Description", 6, "Tools");
+        backgroundEngine.onChildAdded(stale, null);
+        backgroundEngine.onChildChanged(snapshotOf("Item1", latest), null);
+
+        // Nothing is applied until decoded items are handed back to the delivering thread
+        assertNull(backgroundEngine.getItem("Item1"));
+        runAll(decodeTasks);
+        assertEquals(1, deliveryTasks.size());
+        runAll(deliveryTasks);
+
+        verify(stale, never()).getValue();
+        InventoryItem stored = backgroundEngine.getItem("Item1");
+        assertEquals(6, stored.getQuantity());
+        verify(listener).onItemAdded(stored);
+    }
+
+
+    @Test
+    public void testInitialSyncWaitsForPendingDecodes() {
+        Queue<Runnable> decodeTasks = new ArrayDeque<>();
+        Queue<Runnable> deliveryTasks = new ArrayDeque<>();
+        InventorySyncEngine backgroundEngine = new InventorySyncEngine(decodeTasks::add, deliveryTasks::add);
+        backgroundEngine.addListener(listener);
+
+        InventoryItem cached = new InventoryItem("Item1", "Widget", "Description", 5, "Tools");
+        InventoryItem remote = new InventoryItem(null, "Widget", "Description", 5, "Tools");
+        backgroundEngine.seedItems(List.of(cached));
+        backgroundEngine.onChildAdded(snapshotOf("Item1", remote), null);
+        backgroundEngine.completeInitialSync();
+
+        // The cached item is confirmed by the pending event, so it must not be removed
+        assertFalse(backgroundEngine.isInitialSyncComplete());
+        runAll(decodeTasks);
+        runAll(deliveryTasks);
+
+        assertTrue(backgroundEngine.isInitialSyncComplete());
+        assertEquals("Item1", backgroundEngine.getItem("Item1").getId());
+        verify(listener, never()).onItemRemoved(any());
+    }
+
+
+    @Test
+    public void testFailedDecodeIsSkippedAndCounted() {
+        Queue<Runnable> decodeTasks = new ArrayDeque<>();
+        Queue<Runnable> deliveryTasks = new ArrayDeque<>();
+        InventorySyncEngine backgroundEngine = new InventorySyncEngine(decodeTasks::add, deliveryTasks::add);
+        backgroundEngine.addListener(listener);
+
+        DataSnapshot corrupt = mock(DataSnapshot.class);
+        when(corrupt.getKey()).thenReturn("Item1");
+        when(corrupt.getValue()).thenThrow(new IllegalStateException("corrupt"));
+        backgroundEngine.onChildAdded(corrupt, null);
+        backgroundEngine.completeInitialSync();
+
+        // The failure neither escapes the decode task nor holds back the deferred initial sync
+        runAll(decodeTasks);
+        runAll(deliveryTasks);
+        assertNull(backgroundEngine.getItem("Item1"));
+        assertTrue(backgroundEngine.isInitialSyncComplete());
+        verify(listener, never()).onItemAdded(any());
+    }
+
+
+    @Test
+    public void testRemoteEventsTakePrecedenceOverLocalChanges() {
+        Queue<Runnable> decodeTasks = new ArrayDeque<>();
+        Queue<Runnable> deliveryTasks = new ArrayDeque<>();
+        InventorySyncEngine backgroundEngine = new InventorySyncEngine(decodeTasks::add, deliveryTasks::add);
+        backgroundEngine.addListener(listener);
+
+        InventoryItem edited = new InventoryItem("Item1", "Widget", "Description", 9, "Tools");
+        backgroundEngine.onChildAdded(snapshotOf("Item1", new InventoryItem(null, "Widget", "Description", 5, "Tools")), null);
+        backgroundEngine.applyLocalChange(edited);
+
+        // The local edit is shown at once, but the remote event in flight is still applied
+        assertSame(edited, backgroundEngine.getItem("Item1"));
+        verify(listener).onItemAdded(edited);
+        runAll(decodeTasks);
+        runAll(deliveryTasks);
+        assertEquals(5, backgroundEngine.getItem("Item1").getQuantity());
+        assertEquals(5, backgroundEngine.getConfirmedItem("Item1").getQuantity());
+
+        backgroundEngine.applyLocalRemoval("Item1");
+        assertNull(backgroundEngine.getItem("Item1"));
+        assertEquals(5, backgroundEngine.getConfirmedItem("Item1").getQuantity());
+
+        backgroundEngine.clearLocalChanges("Item1");
+        assertNull(backgroundEngine.getConfirmedItem("Item1"));
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+/**
+ * Unit test class for {@code PendingWriteTracker}.
+ * <p>
+ * This class verifies that writes are applied to the {@code InventorySyncEngine} before the
+ * database answers, and that a rejected write is rolled back onto the state last delivered by the
+ * database without undoing later writes to the same item that are still in flight.
+ */
+public class PendingWriteTrackerTest {
+
+    private FirebaseDatabaseHelper firebaseDatabaseHelper;
+    private InventorySyncEngine syncEngine;
+    private PendingWriteTracker.Listener listener;
+    private PendingWriteTracker tracker;
+    private InventoryItem original;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up the tracker with a mock db helper and a seeded engine before each test.
+        firebaseDatabaseHelper = mock(FirebaseDatabaseHelper.class);
+        syncEngine = new InventorySyncEngine();
+        original = new InventoryItem("Item1", "Widget", "Description", 5, "Tools");
+        syncEngine.seedItems(List.of(original));
+        listener = mock(PendingWriteTracker.Listener.class);
+        tracker = new PendingWriteTracker(firebaseDatabaseHelper, syncEngine);
+        tracker.setListener(listener);
+    }
+
+
+    /*
+     * Captures the completion listener of the latest update written for the item.
+     */
+    private DatabaseReference.CompletionListener capturedUpdate(InventoryItem item) {
+        ArgumentCaptor<DatabaseReference.CompletionListener> captor =
+                ArgumentCaptor.forClass(DatabaseReference.CompletionListener.class);
+        verify(firebaseDatabaseHelper).updateItem(eq(item.getId()), eq(item), captor.capture());
+        return captor.getValue();
+    }
+
+
+    /*
+     * Captures the completion listener of the quantity adjustment written for the item.
+     */
+    private DatabaseReference.CompletionListener capturedAdjustment(String itemId, int delta) {
+        ArgumentCaptor<DatabaseReference.CompletionListener> captor =
+                ArgumentCaptor.forClass(DatabaseReference.CompletionListener.class);
+        verify(firebaseDatabaseHelper).adjustQuantity(eq(itemId), eq(delta), captor.capture());
+        return captor.getValue();
+    }
+
+
+    @Test
+    public void testUpdateIsAppliedBeforeTheServerAnswers() {
+        InventoryItem edited = original.toBuilder().setName("Blue Widget").build();
+
+        tracker.updateItem(edited);
+
+        assertSame(edited, syncEngine.getItem("Item1"));
+        assertTrue(tracker.hasPendingWrites("Item1"));
+        assertEquals(1, tracker.getPendingCount());
+
+        capturedUpdate(edited).onComplete(null, null);
+        assertSame(edited, syncEngine.getItem("Item1"));
+        assertFalse(tracker.hasPendingWrites("Item1"));
+        assertEquals(0, tracker.getPendingCount());
+        verify(listener, never()).onWriteRolledBack(any(), any());
+    }
+
+
+    @Test
+    public void testRejectedUpdateIsRolledBack() {
+        InventoryItem edited = original.toBuilder().setName("Blue Widget").build();
+        DatabaseError error = mock(DatabaseError.class);
+
+        tracker.updateItem(edited);
+        capturedUpdate(edited).onComplete(error, null);
+
+        assertSame(original, syncEngine.getItem("Item1"));
+        assertFalse(tracker.hasPendingWrites("Item1"));
+
+        ArgumentCaptor<PendingWriteTracker.PendingWrite> captor =
+                ArgumentCaptor.forClass(PendingWriteTracker.PendingWrite.class);
+        verify(listener).onWriteRolledBack(captor.capture(), eq(error));
+        assertEquals(PendingWriteTracker.PendingWrite.Kind.UPDATE, captor.getValue().getKind());
+        assertSame(original, captor.getValue().getBefore());
+    }
+
+
+    @Test
+    public void testRollbackKeepsLaterWritesInFlight() {
+        InventoryItem edited = original.toBuilder().setName("Blue Widget").build();
+
+        tracker.updateItem(edited);
+        tracker.adjustQuantity("Item1", -2);
+        tracker.adjustQuantity("Item1", 10);
+        assertEquals(13, syncEngine.getItem("Item1").getQuantity());
+
+        // Only the rename is undone; both adjustments are replayed on the restored item
+        capturedUpdate(edited).onComplete(mock(DatabaseError.class), null);
+        InventoryItem shown = syncEngine.getItem("Item1");
+        assertEquals("Widget", shown.getName());
+        assertEquals(13, shown.getQuantity());
+        assertEquals(2, tracker.getPendingCount());
+
+        // Rejecting the first adjustment then leaves only the second one applied
+        capturedAdjustment("Item1", -2).onComplete(mock(DatabaseError.class), null);
+        assertEquals(15, syncEngine.getItem("Item1").getQuantity());
+    }
+
+
+    @Test
+    public void testQuantityIsClampedAtZero() {
+        tracker.adjustQuantity("Item1", -8);
+
+        assertEquals(0, syncEngine.getItem("Item1").getQuantity());
+    }
+
+
+    /*
+     * Builds a child snapshot holding the raw field map of the item.
+     */
+    private DataSnapshot snapshotOf(InventoryItem item) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(item.getId());
+        when(snapshot.getValue()).thenReturn(InventoryItemCodec.toMap(item));
+        return snapshot;
+    }
+
+
+    @Test
+    public void testRollbackKeepsRemoteChangeReceivedMeanwhile() {
+        InventoryItem edited = original.toBuilder().setName("Blue Widget").build();
+        InventoryItem remote = original.withQuantity(9);
+
+        tracker.updateItem(edited);
+        syncEngine.onChildChanged(snapshotOf(remote), null);
+        capturedUpdate(edited).onComplete(mock(DatabaseError.class), null);
+
+        // The rejected rename is undone onto the newer remote value, not the value before the edit
+        InventoryItem shown = syncEngine.getItem("Item1");
+        assertEquals("Widget", shown.getName());
+        assertEquals(9, shown.getQuantity());
+    }
+
+
+    @Test
+    public void testRejectedUpdateOfUnknownItemKeepsRemoteItem() {
+        InventoryItem created = new InventoryItem("Item2", "Gadget", "Description", 1, "Tools");
+        InventoryItem remote = created.withQuantity(4);
+
+        tracker.updateItem(created);
+        syncEngine.onChildChanged(snapshotOf(remote), null);
+        capturedUpdate(created).onComplete(mock(DatabaseError.class), null);
+
+        assertEquals(4, syncEngine.getItem("Item2").getQuantity());
+    }
+
+
+    @Test
+    public void testRejectedDeleteRestoresItem() {
+        ArgumentCaptor<DatabaseReference.CompletionListener> captor =
+                ArgumentCaptor.forClass(DatabaseReference.CompletionListener.class);
+
+        tracker.deleteItem("Item1");
+        assertNull(syncEngine.getItem("Item1"));
+
+        verify(firebaseDatabaseHelper).deleteItem(eq("Item1"), captor.capture());
+        captor.getValue().onComplete(mock(DatabaseError.class), null);
+        assertSame(original, syncEngine.getItem("Item1"));
+        verify(listener).onWriteRolledBack(any(), any());
+    }
+
+}
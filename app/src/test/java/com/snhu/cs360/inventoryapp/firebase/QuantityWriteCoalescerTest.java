@@ -0,0 +1,114 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import androidx.annotation.NonNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@code QuantityWriteCoalescer}.
+ * <p>
+ * This class verifies that bursts of quantity taps are merged per item and written to the
+ * {@code FirebaseDatabaseHelper} once per flush, using a manual scheduler in place of the main thread.
+ */
+public class QuantityWriteCoalescerTest {
+
+    private FirebaseDatabaseHelper firebaseDatabaseHelper;
+    private ManualScheduler scheduler;
+    private QuantityWriteCoalescer coalescer;
+
+
+    /*
+     * Scheduler that only runs the flush when the test fires it.
+     */
+    private static class ManualScheduler implements QuantityWriteCoalescer.Scheduler {
+        Runnable scheduledTask;
+        int scheduleCount;
+
+        @Override
+        public void schedule(@NonNull Runnable task, long delayMillis) {
+            scheduledTask = task;
+            scheduleCount++;
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable task) {
+            scheduledTask = null;
+        }
+
+        void fire() {
+            Runnable task = scheduledTask;
+            scheduledTask = null;
+            task.run();
+        }
+    }
+
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up the coalescer with a mock db helper before each test.
+        firebaseDatabaseHelper = mock(FirebaseDatabaseHelper.class);
+        scheduler = new ManualScheduler();
+        coalescer = new QuantityWriteCoalescer(firebaseDatabaseHelper, 500, scheduler);
+    }
+
+
+    @Test
+    public void testTapBurstBecomesSingleWrite() {
+        for (int i = 0; i < 40; i++) {
+            coalescer.adjustQuantity("Item1", 1);
+        }
+
+        // Nothing is written until the window closes, and only one window is opened
+        assertEquals(1, coalescer.getPendingCount());
+        assertEquals(40, coalescer.getPendingDelta("Item1"));
+        assertEquals(1, scheduler.scheduleCount);
+        verify(firebaseDatabaseHelper, never()).adjustQuantity(anyString(), anyInt());
+
+        scheduler.fire();
+
+        verify(firebaseDatabaseHelper, times(1)).adjustQuantity("Item1", 40);
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+
+    @Test
+    public void testDeltasAreMergedPerItem() {
+        coalescer.adjustQuantity("Item1", 1);
+        coalescer.adjustQuantity("Item2", -1);
+        coalescer.adjustQuantity("Item1", 1);
+
+        coalescer.flush();
+
+        verify(firebaseDatabaseHelper).adjustQuantity("Item1", 2);
+        verify(firebaseDatabaseHelper).adjustQuantity("Item2", -1);
+    }
+
+
+    @Test
+    public void testCancelledOutTapsAreNotWritten() {
+        coalescer.adjustQuantity("Item1", 1);
+        coalescer.adjustQuantity("Item1", -1);
+
+        coalescer.flush();
+
+        verify(firebaseDatabaseHelper, never()).adjustQuantity(anyString(), anyInt());
+    }
+
+
+    @Test
+    public void testFlushWithNothingPendingDoesNotWrite() {
+        coalescer.flush();
+
+        verify(firebaseDatabaseHelper, never()).adjustQuantity(anyString(), anyInt());
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.snhu.cs360.inventoryapp.firebase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code SubscriptionManager}.
+ * <p>
+ * This class verifies that identical queries share one database listener, that late subscribers
+ * are sent the query's current children, that the live listener count follows handles and the
+ * lifecycle, and that re-attaching after a stop reports additions, changes, and deletions.
+ */
+public class SubscriptionManagerTest {
+
+    private SubscriptionManager manager;
+    private Query query;
+    private ChildEventListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up a manager, a query, and a subscriber before each test.
+        manager = new SubscriptionManager();
+        query = mock(Query.class);
+        listener = mock(ChildEventListener.class);
+    }
+
+
+    /*
+     * Builds a child snapshot with the given key and value.
+     */
+    private DataSnapshot child(String key, Object value) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        when(snapshot.getValue()).thenReturn(value);
+        return snapshot;
+    }
+
+
+    /*
+     * Captures the shared child listener after the given number of attaches.
+     */
+    private ChildEventListener captureSharedListener(int attachCount) {
+        ArgumentCaptor<ChildEventListener> captor = ArgumentCaptor.forClass(ChildEventListener.class);
+        verify(query, times(attachCount)).addChildEventListener(captor.capture());
+        return captor.getValue();
+    }
+
+
+    /*
+     * Completes the most recent single read of the query, which holds the given children.
+     */
+    private void completeLoad(int readCount, DataSnapshot... children) {
+        ArgumentCaptor<ValueEventListener> captor = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(query, times(readCount)).addListenerForSingleValueEvent(captor.capture());
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getChildren()).thenReturn(List.of(children));
+        when(snapshot.child(any(String.class))).thenAnswer(invocation -> child(invocation.getArgument(0), null));
+        captor.getValue().onDataChange(snapshot);
+    }
+
+
+    @Test
+    public void testIdenticalQueriesShareOneListener() {
+        ChildEventListener second = mock(ChildEventListener.class);
+        SubscriptionManager.Subscription first = manager.subscribe("inventory", query, listener);
+        SubscriptionManager.Subscription other = manager.subscribe("inventory", query, second);
+
+        verify(query, times(1)).addChildEventListener(any(ChildEventListener.class));
+        assertEquals(1, manager.getAttachedListenerCount());
+        assertEquals(2, manager.getSubscriptionCount());
+
+        // Events reach both subscribers
+        DataSnapshot item = child("a", Map.of("name", "Widget"));
+        captureSharedListener(1).onChildAdded(item, null);
+        verify(listener).onChildAdded(item, null);
+        verify(second).onChildAdded(item, null);
+
+        first.close();
+        first.close();
+        verify(query, never()).removeEventListener(any(ChildEventListener.class));
+        assertEquals(1, manager.getSubscriptionCount());
+
+        other.close();
+        verify(query).removeEventListener(any(ChildEventListener.class));
+        assertEquals(0, manager.getAttachedListenerCount());
+        assertEquals(0, manager.getSubscriptionCount());
+        assertTrue(other.isClosed());
+    }
+
+
+    @Test
+    public void testLateSubscriberReceivesDeliveredChildren() {
+        manager.subscribe("inventory", query, listener);
+        ChildEventListener shared = captureSharedListener(1);
+        DataSnapshot first = child("a", 1L);
+        DataSnapshot second = child("b", 2L);
+        shared.onChildAdded(first, null);
+        shared.onChildAdded(second, "a");
+        completeLoad(1, first, second);
+
+        ChildEventListener late = mock(ChildEventListener.class);
+        Runnable loaded = mock(Runnable.class);
+        manager.subscribe("inventory", query, late, loaded);
+
+        // Events raised before the replay read completes are covered by it, so are held back
+        shared.onChildChanged(child("a", 3L), null);
+        verify(late, never()).onChildChanged(any(DataSnapshot.class), any());
+        completeLoad(2, first, second);
+
+        verify(late).onChildAdded(first, null);
+        verify(late).onChildAdded(second, "a");
+        verify(loaded).run();
+        verify(query, times(1)).addChildEventListener(any(ChildEventListener.class));
+    }
+
+
+    @Test
+    public void testRestartReportsAdditionsChangesAndDeletions() {
+        manager.subscribe("inventory", query, listener);
+        ChildEventListener shared = captureSharedListener(1);
+        shared.onChildAdded(child("a", "x"), null);
+        shared.onChildAdded(child("b", "y"), "a");
+        shared.onChildAdded(child("c", "z"), "b");
+        completeLoad(1);
+
+        manager.stop();
+        verify(query).removeEventListener(shared);
+        assertEquals(0, manager.getAttachedListenerCount());
+
+        manager.start();
+        assertEquals(1, manager.getAttachedListenerCount());
+        DataSnapshot unchanged = child("a", "x");
+        DataSnapshot changed = child("b", "y2");
+        DataSnapshot added = child("d", "w");
+        shared.onChildAdded(unchanged, null);
+        shared.onChildAdded(changed, "a");
+        shared.onChildAdded(added, "b");
+        completeLoad(2);
+
+        // Known children arrive as changes for the subscriber to compare, and only the new one as added
+        verify(listener, times(4)).onChildAdded(any(DataSnapshot.class), any());
+        verify(listener).onChildAdded(added, "b");
+        verify(listener).onChildChanged(unchanged, null);
+        verify(listener).onChildChanged(changed, "a");
+        ArgumentCaptor<DataSnapshot> removed = ArgumentCaptor.forClass(DataSnapshot.class);
+        verify(listener).onChildRemoved(removed.capture());
+        assertEquals("c", removed.getValue().getKey());
+    }
+
+
+    @Test
+    public void testInitialLoadCallbackRunsOnce() {
+        Runnable loaded = mock(Runnable.class);
+        manager.subscribe("inventory", query, listener, loaded);
+        verify(loaded, never()).run();
+
+        completeLoad(1);
+        manager.stop();
+        manager.start();
+        completeLoad(2);
+
+        verify(loaded, times(1)).run();
+    }
+
+
+    @Test
+    public void testValueSubscriptionRedeliversValueOnRestart() {
+        ValueEventListener valueListener = mock(ValueEventListener.class);
+        manager.subscribe("inventory", query, valueListener);
+        ArgumentCaptor<ValueEventListener> captor = ArgumentCaptor.forClass(ValueEventListener.class);
+        verify(query).addValueEventListener(captor.capture());
+        ValueEventListener shared = captor.getValue();
+
+        shared.onDataChange(child("inventory", Map.of("a", 1L)));
+        manager.stop();
+        manager.start();
+        // The value is passed on even if it looks unchanged; subscribers compare it themselves
+        shared.onDataChange(child("inventory", Map.of("a", 1L)));
+        verify(valueListener, times(2)).onDataChange(any(DataSnapshot.class));
+    }
+
+
+    @Test
+    public void testUnsubscribeClosesEveryHandleOfListener() {
+        manager.subscribe("inventory", query, listener);
+        manager.subscribe("inventory?tag=Tools", mock(Query.class), listener);
+        assertEquals(2, manager.getAttachedListenerCount());
+
+        manager.unsubscribe(listener);
+
+        assertEquals(0, manager.getAttachedListenerCount());
+        assertEquals(0, manager.getSubscriptionCount());
+    }
+
+
+    @Test
+    public void testBoundLifecycleAttachesOnlyWhileStarted() {
+        Lifecycle lifecycle = mock(Lifecycle.class);
+        when(lifecycle.getCurrentState()).thenReturn(Lifecycle.State.CREATED);
+        LifecycleOwner owner = mock(LifecycleOwner.class);
+        when(owner.getLifecycle()).thenReturn(lifecycle);
+
+        manager.bindTo(lifecycle);
+        verify(lifecycle).addObserver(manager);
+        manager.subscribe("inventory", query, listener);
+        verify(query, never()).addChildEventListener(any(ChildEventListener.class));
+        assertEquals(0, manager.getAttachedListenerCount());
+
+        manager.onStart(owner);
+        assertEquals(1, manager.getAttachedListenerCount());
+        manager.onStop(owner);
+        assertEquals(0, manager.getAttachedListenerCount());
+
+        // Destroying the owner releases every subscription, so none outlives the screen
+        manager.onDestroy(owner);
+        verify(lifecycle).removeObserver(manager);
+        assertEquals(0, manager.getSubscriptionCount());
+    }
+
+}
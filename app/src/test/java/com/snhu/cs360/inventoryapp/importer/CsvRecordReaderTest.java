@@ -0,0 +1,97 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code CsvRecordReader}.
+ * <p>
+ * This class verifies that records are read one at a time from CSV text, including quoted fields,
+ * byte order marks, blank lines, and short rows, and that malformed files are reported.
+ */
+public class CsvRecordReaderTest {
+
+    private static CsvRecordReader reader(String text) {
+        return new CsvRecordReader(new StringReader(text));
+    }
+
+
+    @Test
+    public void testRecordsAreKeyedByHeader() throws IOException {
+        CsvRecordReader reader = reader("Name, Quantity ,Tag\r\nWidget,3,Tools\nGadget,5,Electronics\n");
+
+        Map<String, String> first = reader.readRecord();
+        assertEquals("Widget", first.get("name"));
+        assertEquals("3", first.get("quantity"));
+        assertEquals("Tools", first.get("tag"));
+
+        assertEquals("Gadget", reader.readRecord().get("name"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testQuotedFields() throws IOException {
+        CsvRecordReader reader = reader("name,quantity,description\n"
+                + "\"Bolt, hex\",10,\"Says \"\"M6\"\"\nsecond line\"\n");
+
+        Map<String, String> record = reader.readRecord();
+        assertEquals("Bolt, hex", record.get("name"));
+        assertEquals("10", record.get("quantity"));
+        assertEquals("Says \"M6\"\nsecond line", record.get("description"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testByteOrderMarkAndBlankLinesAreSkipped() throws IOException {
+        CsvRecordReader reader = reader("\uFEFFname,quantity\n\nWidget,3\n\n");
+
+        assertEquals("Widget", reader.readRecord().get("name"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testShortRowLeavesMissingFieldsAbsent() throws IOException {
+        CsvRecordReader reader = reader("name,quantity,tag\nWidget\n");
+
+        Map<String, String> record = reader.readRecord();
+        assertEquals("Widget", record.get("name"));
+        assertFalse(record.containsKey("quantity"));
+    }
+
+
+    @Test
+    public void testHeaderWithoutRequiredColumnsIsRejected() {
+        assertThrows(IOException.class, () -> reader("name;quantity\nWidget;3\n").readRecord());
+    }
+
+
+    @Test
+    public void testUnterminatedQuoteIsRejected() throws IOException {
+        CsvRecordReader reader = reader("name,quantity\n\"Widget,3\n");
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+
+
+    @Test
+    public void testOverlongFieldIsRejected() {
+        StringBuilder text = new StringBuilder("name,quantity\n");
+        for (int i = 0; i <= CsvRecordReader.MAX_FIELD_LENGTH; i++) {
+            text.append('x');
+        }
+        CsvRecordReader reader = reader(text.append(",1\n").toString());
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
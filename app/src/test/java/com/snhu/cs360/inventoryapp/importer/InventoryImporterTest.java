@@ -0,0 +1,230 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.snhu.cs360.inventoryapp.firebase.FirebaseDatabaseHelper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit test class for {@code InventoryImporter}.
+ * <p>
+ * This class verifies that imported records are written in chunks, that invalid rows are counted
+ * without stopping the import, that checkpoints are saved, resumed from, and kept on failure, that
+ * a read interrupted by cancelling is reported as cancelled, and that reading pauses while too
+ * many chunks await confirmation.
+ */
+public class InventoryImporterTest {
+
+    private static final String SOURCE_KEY = "content://files/items.csv:1024";
+
+    private DatabaseReference databaseReference;
+    private FirebaseDatabaseHelper helper;
+    private ImportCheckpointStore checkpointStore;
+    private InventoryImporter.Listener listener;
+    private List<Map<String, Object>> writes;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // Setting up a db reference that confirms every write at once, and a mock store and listener before each test.
+        databaseReference = mock(DatabaseReference.class);
+        DatabaseReference pushedReference = mock(DatabaseReference.class);
+        when(databaseReference.push()).thenReturn(pushedReference);
+        when(pushedReference.getKey()).thenReturn("-Import");
+
+        writes = new ArrayList<>();
+        doAnswer(invocation -> {
+            writes.add(invocation.getArgument(0));
+            DatabaseReference.CompletionListener completion = invocation.getArgument(1);
+            completion.onComplete(null, databaseReference);
+            return null;
+        }).when(databaseReference).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+
+        helper = new FirebaseDatabaseHelper(databaseReference);
+        checkpointStore = mock(ImportCheckpointStore.class);
+        listener = mock(InventoryImporter.Listener.class);
+    }
+
+
+    private static InputStream csv(int rows) {
+        StringBuilder text = new StringBuilder("name,quantity,tag\n");
+        for (int i = 1; i <= rows; i++) {
+            text.append("Item").append(i).append(',').append(i).append(",Tools\n");
+        }
+        return new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private InventoryImporter importer(int chunkSize) {
+        return new InventoryImporter(helper, checkpointStore, Runnable::run, Runnable::run, chunkSize, 2);
+    }
+
+
+    private InventoryImporter.Progress captureCompletion() {
+        ArgumentCaptor<InventoryImporter.Progress> captor = ArgumentCaptor.forClass(InventoryImporter.Progress.class);
+        verify(listener).onComplete(captor.capture());
+        return captor.getValue();
+    }
+
+
+    @Test
+    public void testRecordsAreWrittenInChunks() {
+        importer(10).start(SOURCE_KEY, csv(25), InventoryImporter.Format.CSV, listener);
+
+        assertEquals(3, writes.size());
+        assertEquals(10, writes.get(0).size());
+        assertEquals(5, writes.get(2).size());
+        assertTrue(writes.get(0).containsKey(InventoryImporter.generatedId("-Import", 1)));
+
+        verify(listener, times(3)).onProgress(any(InventoryImporter.Progress.class));
+        verify(checkpointStore).save(SOURCE_KEY, new ImportCheckpoint("-Import", 10, 10, 0));
+        verify(checkpointStore).clear(SOURCE_KEY);
+        assertEquals(25, captureCompletion().getImportedCount());
+    }
+
+
+    @Test
+    public void testInvalidRowsAreRejectedWithoutStopping() {
+        String text = "name,quantity\nWidget,3\n,4\nGadget,many\nBolt,5\n";
+        importer(10).start(SOURCE_KEY, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                InventoryImporter.Format.CSV, listener);
+
+        InventoryImporter.Progress progress = captureCompletion();
+        assertEquals(2, progress.getImportedCount());
+        assertEquals(2, progress.getRejectedCount());
+        assertEquals("Row 2: Missing name", progress.getRejections().get(0));
+        assertEquals("Row 3: Quantity \"many\" is not a whole number", progress.getRejections().get(1));
+    }
+
+
+    @Test
+    public void testImportResumesAfterCheckpoint() {
+        when(checkpointStore.load(SOURCE_KEY)).thenReturn(new ImportCheckpoint("-Earlier", 20, 19, 1));
+
+        importer(10).start(SOURCE_KEY, csv(25), InventoryImporter.Format.CSV, listener);
+
+        assertEquals(1, writes.size());
+        assertEquals(5, writes.get(0).size());
+        // Generated IDs continue from the earlier import's key
+        assertTrue(writes.get(0).containsKey(InventoryImporter.generatedId("-Earlier", 21)));
+
+        InventoryImporter.Progress progress = captureCompletion();
+        assertEquals(20, progress.getResumedAfter());
+        assertEquals(24, progress.getImportedCount());
+        assertEquals(1, progress.getRejectedCount());
+    }
+
+
+    @Test
+    public void testRejectedChunkKeepsCheckpoint() {
+        DatabaseError error = mock(DatabaseError.class);
+        when(error.getMessage()).thenReturn("Permission denied");
+        int[] calls = { 0 };
+        doAnswer(invocation -> {
+            DatabaseReference.CompletionListener completion = invocation.getArgument(1);
+            completion.onComplete(++calls[0] == 2 ? error : null, databaseReference);
+            return null;
+        }).when(databaseReference).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+
+        importer(10).start(SOURCE_KEY, csv(50), InventoryImporter.Format.CSV, listener);
+
+        // Reading stops once the failure is known, and only the first chunk is checkpointed
+        assertEquals(2, calls[0]);
+        verify(checkpointStore).save(SOURCE_KEY, new ImportCheckpoint("-Import", 10, 10, 0));
+        verify(checkpointStore, never()).clear(anyString());
+        verify(listener).onFailed(any(InventoryImporter.Progress.class), eq("The database rejected the import: Permission denied"));
+    }
+
+
+    @Test
+    public void testMalformedFileFails() {
+        String json = "[{\"name\": \"Widget\", \"quantity\": 3}, {\"name\": ";
+        importer(10).start(SOURCE_KEY, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                InventoryImporter.Format.JSON, listener);
+
+        verify(listener).onFailed(any(InventoryImporter.Progress.class), anyString());
+        verify(listener, never()).onComplete(any(InventoryImporter.Progress.class));
+    }
+
+
+    @Test
+    public void testInterruptedReadIsReportedAsCancelled() {
+        InventoryImporter importer = importer(10);
+        byte[] header = "name,quantity,tag\n".getBytes(StandardCharsets.UTF_8);
+        InputStream input = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws InterruptedIOException {
+                if (position < header.length) {
+                    return header[position++];
+                }
+                // The stream blocks until cancel() interrupts the worker
+                importer.cancel();
+                throw new InterruptedIOException();
+            }
+        };
+
+        importer.start(SOURCE_KEY, input, InventoryImporter.Format.CSV, listener);
+
+        verify(listener).onFailed(any(InventoryImporter.Progress.class), eq(InventoryImporter.REASON_CANCELLED));
+    }
+
+
+    @Test
+    public void testReadingPausesWhileChunksAwaitConfirmation() {
+        List<DatabaseReference.CompletionListener> completions = new ArrayList<>();
+        doAnswer(invocation -> {
+            synchronized (completions) {
+                completions.add(invocation.getArgument(1));
+            }
+            return null;
+        }).when(databaseReference).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+
+        ExecutorService workExecutor = Executors.newSingleThreadExecutor();
+        try {
+            new InventoryImporter(helper, checkpointStore, workExecutor, Runnable::run, 10, 2)
+                    .start(SOURCE_KEY, csv(50), InventoryImporter.Format.CSV, listener);
+
+            // Only two chunks may be unconfirmed at once
+            verify(databaseReference, timeout(1000).times(2)).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+            verify(databaseReference, after(200).times(2)).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+
+            synchronized (completions) {
+                completions.get(0).onComplete(null, databaseReference);
+            }
+            verify(databaseReference, timeout(1000).times(3)).updateChildren(anyMap(), any(DatabaseReference.CompletionListener.class));
+            verify(listener, never()).onComplete(any(InventoryImporter.Progress.class));
+        } finally {
+            workExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code InventoryRowValidator}.
+ * <p>
+ * This class verifies that valid records become items with the add item dialog's defaults, and
+ * that records with missing fields, bad quantities, or unusable IDs are rejected with a reason.
+ */
+public class InventoryRowValidatorTest {
+
+    private static Map<String, String> record(String... fields) {
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            record.put(fields[i], fields[i + 1]);
+        }
+        return record;
+    }
+
+
+    @Test
+    public void testValidRecordWithDefaults() {
+        InventoryItem item = InventoryRowValidator.toItem(record("name", "  Widget ", "quantity", " 3 "));
+
+        assertNull(item.getId());
+        assertEquals("Widget", item.getName());
+        assertEquals("", item.getDescription());
+        assertEquals(3, item.getQuantity());
+        assertEquals(InventoryRowValidator.DEFAULT_TAG, item.getTag());
+    }
+
+
+    @Test
+    public void testRecordIdIsKept() {
+        InventoryItem item = InventoryRowValidator.toItem(record("id", "-Nx1", "name", "Widget", "quantity", "3",
+                "tag", "Tools", "description", "Blue"));
+
+        assertEquals("-Nx1", item.getId());
+        assertEquals("Tools", item.getTag());
+        assertEquals("Blue", item.getDescription());
+    }
+
+
+    @Test
+    public void testMissingFieldsAreRejected() {
+        IllegalArgumentException noName = assertThrows(IllegalArgumentException.class,
+                () -> InventoryRowValidator.toItem(record("name", " ", "quantity", "3")));
+        assertEquals("Missing name", noName.getMessage());
+
+        IllegalArgumentException noQuantity = assertThrows(IllegalArgumentException.class,
+                () -> InventoryRowValidator.toItem(record("name", "Widget")));
+        assertEquals("Missing quantity", noQuantity.getMessage());
+    }
+
+
+    @Test
+    public void testQuantityParsing() {
+        assertEquals(12, InventoryRowValidator.parseQuantity("12"));
+        assertEquals(12, InventoryRowValidator.parseQuantity("12.0"));
+        assertEquals(12, InventoryRowValidator.parseQuantity("1.2e1"));
+
+        assertThrows(IllegalArgumentException.class, () -> InventoryRowValidator.parseQuantity("1.5"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryRowValidator.parseQuantity("ten"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryRowValidator.parseQuantity("3000000000"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryRowValidator.parseQuantity("-1"));
+    }
+
+
+    @Test
+    public void testInvalidIdsAreRejected() {
+        assertTrue(InventoryRowValidator.isValidKey("-Nx1_item"));
+        assertFalse(InventoryRowValidator.isValidKey("a.b"));
+        assertFalse(InventoryRowValidator.isValidKey("a/b"));
+        assertFalse(InventoryRowValidator.isValidKey("a\nb"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> InventoryRowValidator.toItem(record("id", "x#1", "name", "Widget", "quantity", "3")));
+    }
+}
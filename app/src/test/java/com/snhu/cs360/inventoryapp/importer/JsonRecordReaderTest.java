@@ -0,0 +1,83 @@
+package com.snhu.cs360.inventoryapp.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+/**
+ * Unit test class for {@code JsonRecordReader}.
+ * <p>
+ * This class verifies that records are streamed from each accepted JSON layout, that keys of an
+ * object of items become item IDs, and that values are passed on as text.
+ */
+public class JsonRecordReaderTest {
+
+    private static JsonRecordReader reader(String json) {
+        return new JsonRecordReader(new StringReader(json));
+    }
+
+
+    @Test
+    public void testArrayOfItems() throws IOException {
+        JsonRecordReader reader = reader("[{\"Name\": \"Widget\", \"quantity\": 3}, {\"name\": \"Gadget\", \"quantity\": 5.0}]");
+
+        Map<String, String> first = reader.readRecord();
+        assertEquals("Widget", first.get("name"));
+        assertEquals("3", first.get("quantity"));
+        assertFalse(first.containsKey("id"));
+
+        assertEquals("5.0", reader.readRecord().get("quantity"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testObjectKeysBecomeIds() throws IOException {
+        JsonRecordReader reader = reader("{\"-Nx1\": {\"name\": \"Widget\", \"quantity\": 3},"
+                + " \"-Nx2\": {\"id\": \"Own\", \"name\": \"Gadget\", \"quantity\": 5}}");
+
+        assertEquals("-Nx1", reader.readRecord().get("id"));
+        assertEquals("Own", reader.readRecord().get("id"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testDatabaseRootExport() throws IOException {
+        JsonRecordReader reader = reader("{\"inventory\": {\"-Nx1\": {\"name\": \"Widget\", \"quantity\": 3}}}");
+
+        Map<String, String> record = reader.readRecord();
+        assertEquals("-Nx1", record.get("id"));
+        assertEquals("Widget", record.get("name"));
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testNestedAndNullValuesAreSkipped() throws IOException {
+        JsonRecordReader reader = reader("[{\"name\": \"Widget\", \"tags\": [\"a\", \"b\"], \"meta\": {\"x\": 1},"
+                + " \"tag\": null, \"quantity\": 3}, 42]");
+
+        Map<String, String> record = reader.readRecord();
+        assertEquals(2, record.size());
+        assertEquals("3", record.get("quantity"));
+
+        // A non-object element yields an empty record for the validator to reject
+        assertTrue(reader.readRecord().isEmpty());
+        assertNull(reader.readRecord());
+    }
+
+
+    @Test
+    public void testScalarDocumentIsRejected() {
+        assertThrows(IOException.class, () -> reader("\"items\"").readRecord());
+    }
+}
@@ -0,0 +1,123 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit test class for {@code InventoryFuzzyIndex}.
+ * <p>
+ * This class verifies that misspelled names and tags are found, that results are ranked by how
+ * closely they match, that short terms and digits are matched exactly, and that the index stays
+ * correct as items are changed and removed.
+ */
+public class InventoryFuzzyIndexTest {
+
+    private InventoryFuzzyIndex fuzzyIndex;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up an index with a few items before each test.
+        fuzzyIndex = new InventoryFuzzyIndex();
+        fuzzyIndex.addItem(new InventoryItem("Item1", "Blue Widget", "Small part", 3, "Tools"));
+        fuzzyIndex.addItem(new InventoryItem("Item2", "Widgets Pack", null, 7, "Paint"));
+        fuzzyIndex.addItem(new InventoryItem("Item3", "Hammer", "Blue handle", 2, "Widget"));
+        fuzzyIndex.addItem(new InventoryItem("Item4", "Bolt sku1234", null, 40, "Hardware"));
+    }
+
+
+    @Test
+    public void testMisspelledNamesAreFound() {
+        assertEquals(List.of("Item3"), fuzzyIndex.search("hamer"));
+        assertEquals(List.of("Item3"), fuzzyIndex.search("hammre"));
+        assertEquals(List.of("Item4"), fuzzyIndex.search("blot"));
+        assertEquals(List.of("Item1", "Item2", "Item3"), fuzzyIndex.search("wdiget"));
+    }
+
+
+    @Test
+    public void testMisspelledTagIsFound() {
+        assertEquals(List.of("Item1"), fuzzyIndex.search("tols"));
+    }
+
+
+    @Test
+    public void testExactMatchRanksAboveTypo() {
+        fuzzyIndex.addItem(new InventoryItem("Item5", "Widgte", null, 1, null));
+
+        // An exact name word, then the tag, then the longer word, then the typo
+        assertEquals(List.of("Item1", "Item3", "Item2", "Item5"), fuzzyIndex.search("widget"));
+    }
+
+
+    @Test
+    public void testPartialWordMatchesWhileTyping() {
+        assertEquals(List.of("Item1", "Item2", "Item3"), fuzzyIndex.search("widg"));
+        assertEquals(List.of("Item3"), fuzzyIndex.search("hamm"));
+    }
+
+
+    @Test
+    public void testMultipleTermsAreAnded() {
+        assertEquals(List.of("Item1"), fuzzyIndex.search("bleu wdget"));
+        assertTrue(fuzzyIndex.search("blue hamer").isEmpty());
+    }
+
+
+    @Test
+    public void testShortTermsAndDigitsMustMatchExactly() {
+        assertTrue(fuzzyIndex.search("bk").isEmpty());
+        assertTrue(fuzzyIndex.search("sku1235").isEmpty());
+        assertEquals(List.of("Item4"), fuzzyIndex.search("sku1243"));
+
+        fuzzyIndex.addItem(new InventoryItem("Item5", "Valve X100", null, 1, null));
+        assertTrue(fuzzyIndex.search("xi00").isEmpty());
+    }
+
+
+    @Test
+    public void testChangedItemIsReindexed() {
+        fuzzyIndex.addItem(new InventoryItem("Item3", "Mallet", "Blue handle", 2, "Tools"));
+
+        assertTrue(fuzzyIndex.search("hamer").isEmpty());
+        assertEquals(List.of("Item3"), fuzzyIndex.search("malet"));
+        assertEquals(List.of("Item1", "Item3"), fuzzyIndex.search("tools"));
+        assertEquals(4, fuzzyIndex.size());
+    }
+
+
+    @Test
+    public void testRemovedItemIsNotFound() {
+        fuzzyIndex.removeItem("Item1");
+
+        assertEquals(List.of("Item2", "Item3"), fuzzyIndex.search("wdiget"));
+        assertTrue(fuzzyIndex.search("tols").isEmpty());
+        assertEquals(3, fuzzyIndex.size());
+    }
+
+
+    @Test
+    public void testSingleItemScoreMatchesSearch() {
+        Set<String> terms = Set.of("wdiget");
+
+        assertEquals((float) fuzzyIndex.scoreAll(terms).get("Item2"), fuzzyIndex.score("Item2", terms));
+        assertEquals(0f, fuzzyIndex.score("Item4", terms));
+    }
+
+
+    @Test
+    public void testDistanceCountsSwapsAsOneEdit() {
+        assertEquals(1, InventoryFuzzyIndex.distance("wdiget", "widget", 2));
+        assertEquals(2, InventoryFuzzyIndex.distance("wdgiet", "widget", 2));
+        assertEquals(3, InventoryFuzzyIndex.distance("gizmo", "widget", 2));
+
+        // A letter typed in place of a digit makes a different code
+        assertEquals(2, InventoryFuzzyIndex.distance("xi00", "x100", 1));
+    }
+
+}
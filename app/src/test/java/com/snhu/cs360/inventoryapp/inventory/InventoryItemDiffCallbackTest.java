@@ -0,0 +1,67 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@code InventoryItemDiffCallback}.
+ * <p>
+ * This class verifies that items are matched by ID and that any change to a displayed field
+ * is reported as a content change.
+ */
+public class InventoryItemDiffCallbackTest {
+
+    private InventoryItemDiffCallback diffCallback;
+    private InventoryItem inventoryItem;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up the callback and a reference item before each test.
+        diffCallback = new InventoryItemDiffCallback();
+        inventoryItem = new InventoryItem("Item1", "Test Item", "Test Description", 10, "Test Tag");
+    }
+
+
+    @Test
+    public void testSameIdIsSameItem() {
+        InventoryItem renamedItem = new InventoryItem("Item1", "Renamed Item", "Test Description", 10, "Test Tag");
+
+        assertTrue(diffCallback.areItemsTheSame(inventoryItem, renamedItem));
+    }
+
+
+    @Test
+    public void testDifferentIdIsDifferentItem() {
+        InventoryItem otherItem = new InventoryItem("Item2", "Test Item", "Test Description", 10, "Test Tag");
+
+        assertFalse(diffCallback.areItemsTheSame(inventoryItem, otherItem));
+    }
+
+
+    @Test
+    public void testEqualFieldsAreSameContents() {
+        InventoryItem copy = new InventoryItem("Item1", "Test Item", "Test Description", 10, "Test Tag");
+
+        assertTrue(diffCallback.areContentsTheSame(inventoryItem, copy));
+    }
+
+
+    @Test
+    public void testChangedQuantityIsDifferentContents() {
+        InventoryItem updatedItem = new InventoryItem("Item1", "Test Item", "Test Description", 11, "Test Tag");
+
+        assertFalse(diffCallback.areContentsTheSame(inventoryItem, updatedItem));
+    }
+
+
+    @Test
+    public void testChangedTagIsDifferentContents() {
+        InventoryItem retaggedItem = new InventoryItem("Item1", "Test Item", "Test Description", 10, "Other Tag");
+
+        assertFalse(diffCallback.areContentsTheSame(inventoryItem, retaggedItem));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.snhu.cs360.inventoryapp.inventory;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,7 @@ import java.util.ArrayList;
  * <p>
  * This class tests various methods and scenarios related to the InventoryItem class, including:
  * - Verifying the parameterized constructor <p>
+ * - Checking that copies leave the original item unchanged and that tags are interned <p>
  * - Testing the compareTo method for equality, order, and sorting <p>
  * - Checking the correct handling of lexicographical comparisons <p>
  * - Ensuring proper sorting behavior in scenarios involving multiple items <p>
@@ -42,11 +44,44 @@ public class InventoryItemTest {
     }
 
 
+    @Test
+    public void testCopyLeavesOriginalUnchanged() {
+        InventoryItem copy = inventoryItem.withQuantity(3);
+
+        assertEquals(3, copy.getQuantity());
+        assertEquals(10, inventoryItem.getQuantity());
+        assertEquals("Test Tag", copy.getTag());
+
+        // Unchanged values return the same instance
+        assertSame(inventoryItem, inventoryItem.withQuantity(10));
+        assertSame(inventoryItem, inventoryItem.withId("Test Item"));
+    }
+
+
+    @Test
+    public void testTagsAreInterned() {
+        InventoryItem anotherItem = new InventoryItem("Another Item", "Another Item", "Description", 5, new String("Test Tag"));
+
+        assertSame(inventoryItem.getTag(), anotherItem.getTag());
+    }
+
+
+    @Test
+    public void testCompareToIgnoresCase() {
+        InventoryItem anotherItem = new InventoryItem("Another Item", "TEST ITEM", "Description", 5, "Tag");
+
+        assertEquals("test item", anotherItem.getNormalizedName());
+        assertEquals(0, inventoryItem.compareTo(anotherItem));
+    }
+
+
     @Test
     public void testCompareTo() {
         // Testing equality in the compareTo method
-        InventoryItem anotherItem = new InventoryItem("Another Item", "Another Item", "Description", 5, "Tag");
-        anotherItem.setName("Test Item");
+        InventoryItem anotherItem = new InventoryItem("Another Item", "Another Item", "Description", 5, "Tag")
+                .toBuilder()
+                .setName("Test Item")
+                .build();
 
         assertEquals(0, inventoryItem.compareTo(anotherItem));
     }
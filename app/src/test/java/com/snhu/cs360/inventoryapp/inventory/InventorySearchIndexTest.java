@@ -0,0 +1,75 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Unit test class for {@code InventorySearchIndex}.
+ * <p>
+ * This class verifies prefix matching across name, description and tag, multi-term AND queries,
+ * and that the index stays correct as items are changed and removed.
+ */
+public class InventorySearchIndexTest {
+
+    private InventorySearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up an index with a few items before each test.
+        searchIndex = new InventorySearchIndex();
+        searchIndex.addItem(new InventoryItem("Item1", "Blue Widget", "Small part", 3, "Tools"));
+        searchIndex.addItem(new InventoryItem("Item2", "Red Widget", null, 7, "Paint"));
+        searchIndex.addItem(new InventoryItem("Item3", "Hammer", "Blue handle", 2, "Tools"));
+    }
+
+
+    @Test
+    public void testPrefixMatchIgnoresCase() {
+        assertEquals(List.of("Item1", "Item2"), searchIndex.search("WIDG"));
+    }
+
+
+    @Test
+    public void testMatchesDescriptionAndTag() {
+        assertEquals(List.of("Item1", "Item3"), searchIndex.search("blue"));
+        assertEquals(List.of("Item2"), searchIndex.search("paint"));
+    }
+
+
+    @Test
+    public void testMultipleTermsAreAnded() {
+        assertEquals(List.of("Item1"), searchIndex.search("blue wid"));
+        assertTrue(searchIndex.search("blue paint").isEmpty());
+    }
+
+
+    @Test
+    public void testEmptyQueryReturnsEverything() {
+        assertEquals(List.of("Item1", "Item2", "Item3"), searchIndex.search("  "));
+    }
+
+
+    @Test
+    public void testChangedItemIsReindexed() {
+        searchIndex.addItem(new InventoryItem("Item1", "Green Gizmo", "", 3, "Tools"));
+
+        assertEquals(List.of("Item2"), searchIndex.search("widget"));
+        assertEquals(List.of("Item1"), searchIndex.search("gizmo"));
+        assertEquals(3, searchIndex.size());
+    }
+
+
+    @Test
+    public void testRemovedItemIsNotFound() {
+        searchIndex.removeItem("Item3");
+
+        assertEquals(List.of("Item1"), searchIndex.search("blue"));
+        assertEquals(2, searchIndex.size());
+    }
+
+}
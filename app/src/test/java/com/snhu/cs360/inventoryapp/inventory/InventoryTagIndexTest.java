@@ -0,0 +1,81 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit test class for {@code InventoryTagIndex}.
+ * <p>
+ * This class verifies case-insensitive tag buckets, per-tag counts, moving items between tags,
+ * and the tag added/removed notifications used to update the filter spinner in place.
+ */
+public class InventoryTagIndexTest {
+
+    private InventoryTagIndex tagIndex;
+    private InventoryTagIndex.Listener listener;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up an index with a mock listener before each test.
+        tagIndex = new InventoryTagIndex();
+        listener = mock(InventoryTagIndex.Listener.class);
+        tagIndex.setListener(listener);
+
+        tagIndex.addItem(new InventoryItem("Item1", "Widget", "", 3, "Tools"));
+        tagIndex.addItem(new InventoryItem("Item2", "Hammer", "", 2, "tools "));
+        tagIndex.addItem(new InventoryItem("Item3", "Paint", "", 7, "Paint"));
+    }
+
+
+    @Test
+    public void testTagsAreGroupedIgnoringCase() {
+        assertEquals(Set.of("Item1", "Item2"), tagIndex.getItemIds("TOOLS"));
+        assertEquals(2, tagIndex.getCount("tools"));
+        assertEquals(List.of("Tools", "Paint"), tagIndex.getTags());
+
+        // Only the first spelling of a tag is announced
+        verify(listener).onTagAdded("Tools");
+        verify(listener).onTagAdded("Paint");
+    }
+
+
+    @Test
+    public void testRetaggedItemMovesBucket() {
+        tagIndex.addItem(new InventoryItem("Item3", "Paint", "", 7, "Tools"));
+
+        assertEquals(3, tagIndex.getCount("Tools"));
+        assertEquals(0, tagIndex.getCount("Paint"));
+        verify(listener).onTagRemoved("Paint");
+    }
+
+
+    @Test
+    public void testRemovingLastItemRemovesTag() {
+        tagIndex.removeItem("Item1");
+        verify(listener, never()).onTagRemoved(anyString());
+
+        tagIndex.removeItem("Item2");
+        verify(listener).onTagRemoved("Tools");
+        assertTrue(tagIndex.getItemIds("Tools").isEmpty());
+    }
+
+
+    @Test
+    public void testUntaggedItemsAreNotIndexed() {
+        tagIndex.addItem(new InventoryItem("Item4", "Loose", "", 1, "  "));
+        tagIndex.addItem(new InventoryItem("Item5", "Loose", "", 1, null));
+
+        assertEquals(List.of("Tools", "Paint"), tagIndex.getTags());
+    }
+
+}
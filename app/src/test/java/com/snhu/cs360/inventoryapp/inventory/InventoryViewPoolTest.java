@@ -0,0 +1,36 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@code InventoryViewPool}.
+ * <p>
+ * This class verifies how many ViewHolders the shared pool keeps for each layout, which must
+ * cover a full screen of rows so that switching layouts does not inflate new rows.
+ */
+public class InventoryViewPoolTest {
+
+    @Test
+    public void testCapacityCoversOneScreenPlusExtraRows() {
+        // 800dp fits 9 list rows, the last one partly visible
+        assertEquals(9 + InventoryViewPool.EXTRA_ROWS,
+                InventoryViewPool.capacityFor(800, InventoryViewPool.LIST_ROW_HEIGHT_DP, 1));
+        // 800dp fits exactly 4 grid rows of 2 columns
+        assertEquals((4 + InventoryViewPool.EXTRA_ROWS) * 2,
+                InventoryViewPool.capacityFor(800, InventoryViewPool.GRID_ROW_HEIGHT_DP, 2));
+    }
+
+
+    @Test
+    public void testCapacityGrowsWithScreenHeight() {
+        int phone = InventoryViewPool.capacityFor(640, InventoryViewPool.GRID_ROW_HEIGHT_DP, 2);
+        int tablet = InventoryViewPool.capacityFor(1280, InventoryViewPool.GRID_ROW_HEIGHT_DP, 2);
+
+        assertTrue(tablet > phone);
+        assertTrue(phone >= 2 * 640 / InventoryViewPool.GRID_ROW_HEIGHT_DP);
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit test class for {@code LiveInventoryView}.
+ * <p>
+ * This class verifies that search, tag filter, and sort order stay in effect together, that names
+ * are ordered by locale collation, that a single item change is reported as a single positional
+ * update, that items which do not match the active inputs cause no updates at all, and that fuzzy
+ * mode ranks typo matches by relevance.
+ */
+public class LiveInventoryViewTest {
+
+    private LiveInventoryView view;
+    private LiveInventoryView.Listener listener;
+
+    private final InventoryItem widget = new InventoryItem("Item1", "Widget", "Blue", 3, "Tools");
+    private final InventoryItem hammer = new InventoryItem("Item2", "Hammer", "Steel", 2, "tools ");
+    private final InventoryItem paint = new InventoryItem("Item3", "Paint", "Blue", 7, "Paint");
+    private final InventoryItem wrench = new InventoryItem("Item4", "Wrench", "Steel", 1, "Tools");
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up a view of four items with a mock listener before each test.
+        view = new LiveInventoryView(Locale.US);
+        view.addItem(widget);
+        view.addItem(hammer);
+        view.addItem(paint);
+        view.addItem(wrench);
+        listener = mock(LiveInventoryView.Listener.class);
+        view.setListener(listener);
+    }
+
+
+    /*
+     * Returns the names of the displayed items, in order.
+     */
+    private List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (InventoryItem item : view.getItems()) {
+            names.add(item.getName());
+        }
+        return names;
+    }
+
+
+    @Test
+    public void testItemsAreShownInAddedOrderByDefault() {
+        assertEquals(List.of("Widget", "Hammer", "Paint", "Wrench"), names());
+    }
+
+
+    @Test
+    public void testInputsStayInEffectTogether() {
+        view.setTag("TOOLS");
+        view.setSortOrder(LiveInventoryView.SortOrder.ASCENDING);
+        assertEquals(List.of("Hammer", "Widget", "Wrench"), names());
+
+        // Searching keeps the filter and the sort order, and sorting keeps the search
+        view.setQuery("w");
+        assertEquals(List.of("Widget", "Wrench"), names());
+        view.setSortOrder(LiveInventoryView.SortOrder.DESCENDING);
+        assertEquals(List.of("Wrench", "Widget"), names());
+
+        view.setTag(null);
+        view.setQuery("blue");
+        assertEquals(List.of("Widget", "Paint"), names());
+    }
+
+
+    @Test
+    public void testNameOrderIgnoresCaseAndBreaksTiesById() {
+        view.addItem(new InventoryItem("Item0", "widget", "", 1, "Tools"));
+        view.addItem(new InventoryItem("Item5", "anvil", "", 1, "Tools"));
+
+        view.setSortOrder(LiveInventoryView.SortOrder.ASCENDING);
+        assertEquals(List.of("anvil", "Hammer", "Paint", "widget", "Widget", "Wrench"), names());
+
+        // Descending walks the same order backwards, ties included
+        view.setSortOrder(LiveInventoryView.SortOrder.DESCENDING);
+        assertEquals(List.of("Wrench", "Widget", "widget", "Paint", "Hammer", "anvil"), names());
+    }
+
+
+    @Test
+    public void testMatchingAddIsInsertedAtItsSortedPosition() {
+        view.setSortOrder(LiveInventoryView.SortOrder.ASCENDING);
+        InventoryItem drill = new InventoryItem("Item5", "Drill", "", 4, "Tools");
+
+        view.addItem(drill);
+
+        verify(listener).onItemInserted(0, drill);
+        assertEquals(List.of("Drill", "Hammer", "Paint", "Widget", "Wrench"), names());
+    }
+
+
+    @Test
+    public void testNonMatchingChangesCauseNoUpdates() {
+        view.setTag("Paint");
+        clearInvocations(listener);
+
+        view.addItem(new InventoryItem("Item5", "Drill", "", 4, "Tools"));
+        view.addItem(widget.toBuilder().setQuantity(9).build());
+        view.removeItem(hammer.getId());
+
+        verifyNoInteractions(listener);
+        assertEquals(List.of("Paint"), names());
+    }
+
+
+    @Test
+    public void testChangeIsReportedAtItsPosition() {
+        InventoryItem restocked = hammer.toBuilder().setQuantity(20).build();
+
+        view.addItem(restocked);
+
+        verify(listener).onItemChanged(1, hammer, restocked);
+        verify(listener, never()).onItemMoved(anyInt(), anyInt(), any(InventoryItem.class));
+        verify(listener, never()).onListReplaced(anyList());
+    }
+
+
+    @Test
+    public void testRenameMovesItemInSortedView() {
+        view.setSortOrder(LiveInventoryView.SortOrder.ASCENDING);
+        InventoryItem renamed = paint.toBuilder().setName("Anchor Paint").build();
+
+        view.addItem(renamed);
+
+        verify(listener).onItemMoved(1, 0, paint);
+        verify(listener).onItemChanged(0, paint, renamed);
+        assertEquals(List.of("Anchor Paint", "Hammer", "Widget", "Wrench"), names());
+    }
+
+
+    @Test
+    public void testChangeLeavingTheFilterIsRemoved() {
+        view.setTag("Tools");
+        InventoryItem retagged = widget.toBuilder().setTag("Paint").build();
+
+        view.addItem(retagged);
+
+        verify(listener).onItemRemoved(0, widget);
+        assertEquals(List.of("Hammer", "Wrench"), names());
+        assertEquals(retagged, view.getItem(widget.getId()));
+    }
+
+
+    @Test
+    public void testRemovedItemIsReportedAtItsPosition() {
+        view.removeItem(paint.getId());
+
+        verify(listener).onItemRemoved(2, paint);
+        assertNull(view.getItem(paint.getId()));
+        assertEquals(3, view.size());
+    }
+
+
+    @Test
+    public void testFuzzyModeFindsTyposByRelevance() {
+        view.addItem(new InventoryItem("Item5", "Wrenches", "", 4, "Tools"));
+        view.setQuery("wrnech");
+        assertEquals(List.of(), names());
+
+        view.setFuzzy(true);
+        assertEquals(List.of("Wrench", "Wrenches"), names());
+
+        // A remote change is placed by its new relevance
+        view.addItem(wrench.toBuilder().setName("Wrenching Bar").build());
+        assertEquals(List.of("Wrenches", "Wrenching Bar"), names());
+
+        view.setSortOrder(LiveInventoryView.SortOrder.DESCENDING);
+        assertEquals(List.of("Wrenching Bar", "Wrenches"), names());
+        view.setFuzzy(false);
+        assertEquals(List.of(), names());
+    }
+
+
+    @Test
+    public void testUnchangedInputsAreIgnored() {
+        view.setQuery("  ");
+        view.setTag(null);
+        view.setSortOrder(LiveInventoryView.SortOrder.NONE);
+
+        verifyNoInteractions(listener);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@code LatencyHistogram}.
+ * <p>
+ * This class verifies that recorded latencies land in buckets whose edges stay within the
+ * histogram's precision, and that counts, means, maxima, and percentiles are read back correctly.
+ */
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up an empty histogram before each test.
+        histogram = new LatencyHistogram();
+    }
+
+
+    @Test
+    public void testBucketsCoverEveryValueWithinPrecision() {
+        long previousUpper = 0;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            long upper = LatencyHistogram.upperBoundMicros(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousUpper));
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper - 1));
+
+            // Each bucket is at most a quarter of its lower edge wide
+            assertTrue(upper - previousUpper <= Math.max(1, previousUpper / 4));
+            previousUpper = upper;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE / 1000));
+    }
+
+
+    @Test
+    public void testPercentilesAreReadFromBuckets() {
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50_500_000L, histogram.getMeanNanos());
+        assertEquals(100_000_000L, histogram.getMaxNanos());
+
+        long median = histogram.getPercentileNanos(50);
+        assertTrue(median >= 50_000_000L && median <= 50_000_000L * 5 / 4, "median " + median);
+        assertEquals(100_000_000L, histogram.getPercentileNanos(100));
+    }
+
+
+    @Test
+    public void testResetClearsEverything() {
+        histogram.record(5_000);
+        histogram.record(-1);
+        assertEquals(2, histogram.getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+}
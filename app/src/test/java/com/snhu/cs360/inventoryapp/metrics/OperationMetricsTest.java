@@ -0,0 +1,71 @@
+package com.snhu.cs360.inventoryapp.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit test class for {@code OperationMetrics}.
+ * <p>
+ * This class verifies that latencies, failures, and payload sizes are recorded per operation, and
+ * that the report lists only recorded operations and can be dumped to a file.
+ */
+public class OperationMetricsTest {
+
+    private OperationMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up a fresh set of metrics before each test.
+        metrics = new OperationMetrics();
+    }
+
+
+    @Test
+    public void testRecordsPerOperation() {
+        metrics.recordElapsed(OperationMetrics.Operation.UPDATE_ITEM, 2_000_000, 120, false);
+        metrics.recordElapsed(OperationMetrics.Operation.UPDATE_ITEM, 4_000_000, 80, true);
+        metrics.record(OperationMetrics.Operation.BIND_VIEW_HOLDER, OperationMetrics.startTimer());
+
+        OperationMetrics.Stats updates = metrics.getStats(OperationMetrics.Operation.UPDATE_ITEM);
+        assertEquals(2, updates.getCount());
+        assertEquals(1, updates.getFailureCount());
+        assertEquals(200, updates.getPayloadBytes());
+        assertEquals(3_000_000, updates.getLatency().getMeanNanos());
+        assertEquals(1, metrics.getStats(OperationMetrics.Operation.BIND_VIEW_HOLDER).getCount());
+        assertEquals(0, metrics.getStats(OperationMetrics.Operation.DELETE_ITEM).getCount());
+    }
+
+
+    @Test
+    public void testReportListsRecordedOperations() {
+        metrics.recordElapsed(OperationMetrics.Operation.SNAPSHOT_DECODE, 10_000, 64, false);
+
+        String report = metrics.formatReport();
+        assertTrue(report.contains("sync.decode"));
+        assertFalse(report.contains("db.deleteItem"));
+
+        metrics.reset();
+        assertFalse(metrics.formatReport().contains("sync.decode"));
+    }
+
+
+    @Test
+    public void testDumpToFileWritesReport(@TempDir Path directory) throws IOException {
+        metrics.recordElapsed(OperationMetrics.Operation.PAGE_LOAD, 30_000_000, 0, false);
+
+        File file = metrics.dumpToFile(directory.resolve("metrics").toFile());
+        assertTrue(file.isFile());
+        assertTrue(Files.readString(file.toPath()).contains("db.pageLoad"));
+    }
+
+}
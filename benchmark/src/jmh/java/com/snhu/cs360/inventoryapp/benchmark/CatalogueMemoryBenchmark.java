@@ -0,0 +1,132 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.firebase.InventoryItemCodec;
+import com.snhu.cs360.inventoryapp.inventory.ColumnarInventoryStore;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares the memory cost of holding a whole catalogue as a list of {@link InventoryItem} beans
+ * (an ID map as kept by the sync engine plus the adapter's list) with a
+ * {@link ColumnarInventoryStore}.
+ * <p>
+ * {@code reload} rebuilds the model from the decoded snapshot values; run it with
+ * {@code -prof gc} to see the allocation rate and young collections it causes. {@code fullGc}
+ * times a full collection while the model is live, i.e. the pause spent tracing it, and reports the
+ * heap the model retains as the {@code retainedKilobytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CatalogueMemoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    @Param({"beans", "columnar"})
+    public String model;
+
+    private List<String> keys;
+    private List<Map<String, Object>> rawValues;
+    private Object liveCatalogue;
+    private long retainedBytes;
+
+
+    /**
+     * Reports the heap retained by the live catalogue alongside the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedKilobytes;
+    }
+
+
+    @Setup
+    public void setUp() {
+        keys = new ArrayList<>(itemCount);
+        rawValues = new ArrayList<>(itemCount);
+        for (InventoryItem item : InventoryCatalogue.generate(itemCount)) {
+            keys.add(item.getId());
+
+            // Firebase hands back whole numbers as Long
+            Map<String, Object> values = InventoryItemCodec.toMap(item);
+            values.put("quantity", (long) item.getQuantity());
+            rawValues.add(values);
+        }
+
+        long usedBefore = usedHeapAfterGc();
+        liveCatalogue = load();
+        retainedBytes = usedHeapAfterGc() - usedBefore;
+    }
+
+
+    @Benchmark
+    public Object reload() {
+        return load();
+    }
+
+
+    @Benchmark
+    public Object fullGc(Footprint footprint) {
+        System.gc();
+        footprint.retainedKilobytes = retainedBytes / 1024;
+        return liveCatalogue;
+    }
+
+
+    /*
+     * Decodes every item into the selected model, as a full reload of the inventory would.
+     */
+    private Object load() {
+        if (model.equals("columnar")) {
+            ColumnarInventoryStore store = new ColumnarInventoryStore(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                store.put(InventoryItemCodec.decode(keys.get(i), rawValues.get(i)));
+            }
+            return store;
+        }
+
+        Map<String, InventoryItem> itemsById = new LinkedHashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            InventoryItem item = InventoryItemCodec.decode(keys.get(i), rawValues.get(i));
+            itemsById.put(item.getId(), item);
+        }
+        return new Object[] {itemsById, new ArrayList<>(itemsById.values())};
+    }
+
+
+    /*
+     * Returns the used heap after collecting garbage until it stops shrinking.
+     */
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long nowUsed = runtime.totalMemory() - runtime.freeMemory();
+            if (nowUsed >= used) {
+                break;
+            }
+            used = nowUsed;
+        }
+        return used;
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryFuzzyIndex;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures answering a misspelled query with the {@link InventoryFuzzyIndex} as the catalogue
+ * grows, against the 16 ms frame budget of an interactive search, and the cost of keeping the
+ * index current when an item changes. The misspelled queries are checked to find items before
+ * they are timed, so a change to the matching rules cannot make them fast by matching nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzySearchBenchmark {
+
+    /** {@link InventoryCatalogue#SEARCH_TERM} with two letters swapped. */
+    private static final String MISSPELLED_TERM = "blot";
+
+    /** Two misspelled words, each matching roughly one item name in ten. */
+    private static final String MISSPELLED_QUERY = "wahser brakcet";
+
+    /** The number at the end of some item names, typed with two digits swapped. */
+    private static final String NUMERIC_TERM = "1243";
+
+    @Param({"1000", "10000", "50000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+    private InventoryFuzzyIndex fuzzyIndex;
+    private int nextItem;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+        fuzzyIndex = new InventoryFuzzyIndex();
+        for (InventoryItem item : items) {
+            fuzzyIndex.addItem(item);
+        }
+
+        for (String query : new String[] {MISSPELLED_TERM, MISSPELLED_QUERY}) {
+            if (fuzzyIndex.search(query).isEmpty()) {
+                throw new IllegalStateException("No items found for \"" + query + "\"");
+            }
+        }
+    }
+
+
+    @Benchmark
+    public List<String> misspelledTerm() {
+        return fuzzyIndex.search(MISSPELLED_TERM);
+    }
+
+
+    @Benchmark
+    public List<String> misspelledQuery() {
+        return fuzzyIndex.search(MISSPELLED_QUERY);
+    }
+
+
+    /*
+     * A tag carried by one item in fifty, typed exactly.
+     */
+    @Benchmark
+    public List<String> exactTag() {
+        return fuzzyIndex.search(InventoryCatalogue.FILTER_TAG);
+    }
+
+
+    /*
+     * Item numbers share their leading trigrams with thousands of others, which makes this the
+     * widest candidate set per term.
+     */
+    @Benchmark
+    public List<String> numericTerm() {
+        return fuzzyIndex.search(NUMERIC_TERM);
+    }
+
+
+    @Benchmark
+    public int indexUpdate() {
+        InventoryItem item = items.get(nextItem);
+        nextItem = (nextItem + 1) % items.size();
+        fuzzyIndex.addItem(new InventoryItem(item.getId(), item.getName().toUpperCase(Locale.ROOT),
+                item.getDescription(), item.getQuantity(), item.getTag()));
+        return fuzzyIndex.size();
+    }
+
+}
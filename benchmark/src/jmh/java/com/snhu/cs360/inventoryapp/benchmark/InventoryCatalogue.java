@@ -0,0 +1,55 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Generates synthetic inventories for the benchmarks.
+ * <p>
+ * Catalogues are built from a fixed seed, so every run and every benchmark measures the same data.
+ * Names and descriptions are drawn from a small vocabulary so that searches match a realistic share
+ * of items, and items are spread over {@link #TAG_COUNT} tags in mixed case.
+ */
+final class InventoryCatalogue {
+
+    static final int TAG_COUNT = 50;
+
+    /** A word that appears in roughly one item name in ten. */
+    static final String SEARCH_TERM = "bolt";
+
+    /** A tag carried by roughly one item in {@value #TAG_COUNT}. */
+    static final String FILTER_TAG = "Tag7";
+
+    private static final String[] WORDS = {
+            "Bolt", "Nut", "Washer", "Screw", "Hinge", "Bracket", "Cable", "Switch", "Socket", "Valve",
+            "Spring", "Gasket", "Pulley", "Clamp", "Rivet", "Anchor", "Hook", "Chain", "Filter", "Fuse"
+    };
+
+
+    private InventoryCatalogue() {
+    }
+
+
+    /**
+     * Builds a catalogue of items with unique IDs.
+     * <p>
+     * @param itemCount the number of items to generate
+     * @return a new list of items, in ID order
+     */
+    static List<InventoryItem> generate(int itemCount) {
+        Random random = new Random(42);
+        List<InventoryItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = "Steel " + WORDS[random.nextInt(WORDS.length)].toLowerCase() + " for aisle " + random.nextInt(40);
+            String tag = (random.nextBoolean() ? "Tag" : "tag") + random.nextInt(TAG_COUNT);
+            items.add(new InventoryItem(String.format("item%07d", i), name, description, random.nextInt(500), tag));
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures {@link InventoryItem#compareTo}, the case-insensitive name comparison used whenever
+ * items are ordered by name, by comparing every item with its neighbour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryItemCompareBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+    }
+
+
+    @Benchmark
+    public int compareNeighbours() {
+        int sum = 0;
+        for (int i = 1; i < items.size(); i++) {
+            sum += items.get(i - 1).compareTo(items.get(i));
+        }
+        return sum;
+    }
+
+}
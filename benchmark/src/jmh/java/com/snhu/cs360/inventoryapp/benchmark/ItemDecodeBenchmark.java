@@ -0,0 +1,96 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.firebase.InventoryItemCodec;
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures converting the raw value trees of a snapshot into items: {@link InventoryItemCodec}
+ * against a bean-reflection mapper that works like the one behind
+ * {@code DataSnapshot.getValue(InventoryItem.class)} (one cached setter call per field, here on
+ * the item's builder since items are immutable).
+ * <p>
+ * The Firebase SDK is an Android library and cannot run here; the on-device comparison with its
+ * actual mapper is {@code InventoryItemCodecBenchmark} in the app's instrumented tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemDecodeBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<String> keys;
+    private List<Map<String, Object>> rawValues;
+    private Map<String, Method> setters;
+
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        keys = new ArrayList<>(itemCount);
+        rawValues = new ArrayList<>(itemCount);
+        for (InventoryItem item : InventoryCatalogue.generate(itemCount)) {
+            keys.add(item.getId());
+
+            // Firebase hands back whole numbers as Long
+            Map<String, Object> values = InventoryItemCodec.toMap(item);
+            values.put("quantity", (long) item.getQuantity());
+            rawValues.add(values);
+        }
+
+        setters = new HashMap<>();
+        for (Method method : InventoryItem.Builder.class.getMethods()) {
+            if (method.getName().startsWith("set") && method.getParameterCount() == 1) {
+                String property = method.getName().substring(3);
+                setters.put(property.substring(0, 1).toLowerCase(Locale.ROOT) + property.substring(1), method);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public void decodeWithCodec(Blackhole blackhole) {
+        for (int i = 0; i < rawValues.size(); i++) {
+            blackhole.consume(InventoryItemCodec.decode(keys.get(i), rawValues.get(i)));
+        }
+    }
+
+
+    @Benchmark
+    public void decodeWithReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        for (int i = 0; i < rawValues.size(); i++) {
+            InventoryItem.Builder builder = InventoryItem.builder();
+            for (Map.Entry<String, Object> field : rawValues.get(i).entrySet()) {
+                Method setter = setters.get(field.getKey());
+                Object value = field.getValue();
+                if (setter == null || value == null) {
+                    continue;
+                }
+                if (setter.getParameterTypes()[0] == int.class) {
+                    value = ((Number) value).intValue();
+                }
+                setter.invoke(builder, value);
+            }
+            blackhole.consume(builder.setId(keys.get(i)).build());
+        }
+    }
+}
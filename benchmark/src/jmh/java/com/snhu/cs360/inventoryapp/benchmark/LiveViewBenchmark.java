@@ -0,0 +1,102 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventorySearchIndex;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+import com.snhu.cs360.inventoryapp.inventory.LiveInventoryView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures keeping a combined search, tag filter, and sort up to date under remote churn: a single
+ * item change applied to the {@link LiveInventoryView} against rebuilding the same view from the
+ * indexes, as each input used to do on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LiveViewBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+    private LiveInventoryView liveView;
+    private InventorySearchIndex searchIndex;
+    private InventoryTagIndex tagIndex;
+    private int nextItem;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+        liveView = new LiveInventoryView(Locale.US);
+        searchIndex = new InventorySearchIndex();
+        tagIndex = new InventoryTagIndex();
+        for (InventoryItem item : items) {
+            liveView.addItem(item);
+            searchIndex.addItem(item);
+            tagIndex.addItem(item);
+        }
+        liveView.setTag(InventoryCatalogue.FILTER_TAG);
+        liveView.setQuery(InventoryCatalogue.SEARCH_TERM);
+        liveView.setSortOrder(LiveInventoryView.SortOrder.DESCENDING);
+    }
+
+
+    /*
+     * Returns a changed copy of the next item, alternating its quantity so every call is a change.
+     */
+    private InventoryItem nextChange() {
+        InventoryItem item = items.get(nextItem);
+        nextItem = (nextItem + 1) % items.size();
+        return item.toBuilder().setQuantity(item.getQuantity() + 1).build();
+    }
+
+
+    @Benchmark
+    public int applyOneChange() {
+        InventoryItem changed = nextChange();
+        liveView.addItem(changed);
+        return liveView.size();
+    }
+
+
+    /*
+     * One change followed by re-running search, tag filter, and sort over the whole inventory.
+     */
+    @Benchmark
+    public List<InventoryItem> rebuildAfterOneChange() {
+        InventoryItem changed = nextChange();
+        searchIndex.addItem(changed);
+        tagIndex.addItem(changed);
+
+        Set<String> matches = new HashSet<>(searchIndex.search(InventoryCatalogue.SEARCH_TERM));
+        matches.retainAll(tagIndex.getItemIds(InventoryCatalogue.FILTER_TAG));
+        List<InventoryItem> view = new ArrayList<>(matches.size());
+        for (InventoryItem item : items) {
+            if (matches.contains(item.getId())) {
+                view.add(item);
+            }
+        }
+        view.sort(Collections.reverseOrder());
+        return view;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventorySearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures answering one keystroke of the search box: the original linear scan over every item
+ * name against a lookup in the {@link InventorySearchIndex}, and the cost of keeping the index
+ * current when an item changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+    private InventorySearchIndex searchIndex;
+    private int nextItem;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+        searchIndex = new InventorySearchIndex();
+        for (InventoryItem item : items) {
+            searchIndex.addItem(item);
+        }
+    }
+
+
+    /*
+     * The loop formerly run by MainActivity.initSearchView on every keystroke.
+     */
+    @Benchmark
+    public List<InventoryItem> linearScan() {
+        List<InventoryItem> matches = new ArrayList<>();
+        for (InventoryItem item : items) {
+            if (item.getName().toLowerCase().contains(InventoryCatalogue.SEARCH_TERM.toLowerCase())) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+
+    @Benchmark
+    public List<String> indexLookup() {
+        return searchIndex.search(InventoryCatalogue.SEARCH_TERM);
+    }
+
+
+    @Benchmark
+    public int indexUpdate() {
+        InventoryItem item = items.get(nextItem);
+        nextItem = (nextItem + 1) % items.size();
+        searchIndex.addItem(new InventoryItem(item.getId(), item.getName().toUpperCase(Locale.ROOT),
+                item.getDescription(), item.getQuantity(), item.getTag()));
+        return searchIndex.size();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.LiveInventoryView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+
+/**
+ * Measures ordering the inventory by name: the original stream sort on every sort-menu selection
+ * against toggling the sort direction of the {@link LiveInventoryView}, which keeps its items in
+ * name order, and the cost of repositioning one changed item in the view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+    private LiveInventoryView liveView;
+    private boolean descending;
+    private int nextItem;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+        Collections.shuffle(items, new Random(7));
+        liveView = new LiveInventoryView(Locale.US);
+        for (InventoryItem item : items) {
+            liveView.addItem(item);
+        }
+        liveView.setSortOrder(LiveInventoryView.SortOrder.ASCENDING);
+    }
+
+
+    /*
+     * The sort formerly run by MainActivity.setSortOrder.
+     */
+    @Benchmark
+    public List<InventoryItem> streamSortDescending() {
+        return new ArrayList<>(items.stream().sorted(Collections.reverseOrder()).collect(Collectors.toList()));
+    }
+
+
+    /*
+     * Switching direction reverses the displayed list without comparing any items.
+     */
+    @Benchmark
+    public List<InventoryItem> toggleSortDirection() {
+        descending = !descending;
+        liveView.setSortOrder(descending ? LiveInventoryView.SortOrder.DESCENDING : LiveInventoryView.SortOrder.ASCENDING);
+        return liveView.getItems();
+    }
+
+
+    @Benchmark
+    public int repositionOneItem() {
+        InventoryItem item = items.get(nextItem);
+        nextItem = (nextItem + 1) % items.size();
+        liveView.addItem(new InventoryItem(item.getId(), "Renamed " + item.getName(),
+                item.getDescription(), item.getQuantity(), item.getTag()));
+        liveView.addItem(item);
+        return liveView.size();
+    }
+
+}
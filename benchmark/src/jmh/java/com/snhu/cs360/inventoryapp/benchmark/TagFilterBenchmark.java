@@ -0,0 +1,75 @@
+package com.snhu.cs360.inventoryapp.benchmark;
+
+import com.snhu.cs360.inventoryapp.inventory.InventoryItem;
+import com.snhu.cs360.inventoryapp.inventory.InventoryTagIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures filtering the inventory by tag: the original scan comparing every item's tag against
+ * a lookup of the matching bucket in the {@link InventoryTagIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TagFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private List<InventoryItem> items;
+    private Map<String, InventoryItem> itemsById;
+    private InventoryTagIndex tagIndex;
+
+
+    @Setup
+    public void setUp() {
+        items = InventoryCatalogue.generate(itemCount);
+        itemsById = new HashMap<>();
+        tagIndex = new InventoryTagIndex();
+        for (InventoryItem item : items) {
+            itemsById.put(item.getId(), item);
+            tagIndex.addItem(item);
+        }
+    }
+
+
+    /*
+     * The loop formerly run by MainActivity.applyFilter on every spinner selection.
+     */
+    @Benchmark
+    public List<InventoryItem> linearScan() {
+        List<InventoryItem> matches = new ArrayList<>();
+        for (InventoryItem item : items) {
+            if (item.getTag() != null && item.getTag().equalsIgnoreCase(InventoryCatalogue.FILTER_TAG)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+
+    @Benchmark
+    public List<InventoryItem> indexLookup() {
+        List<InventoryItem> matches = new ArrayList<>();
+        for (String itemId : tagIndex.getItemIds(InventoryCatalogue.FILTER_TAG)) {
+            matches.add(itemsById.get(itemId));
+        }
+        return matches;
+    }
+
+}
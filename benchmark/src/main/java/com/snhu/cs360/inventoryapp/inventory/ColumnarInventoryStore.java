@@ -0,0 +1,654 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Memory-compact, column-oriented store for very large inventories.
+ * <p>
+ * Instead of one {@link InventoryItem} and three or four {@code String} objects per item, every
+ * field is held in a primitive column indexed by row number: quantities in an {@code int[]}, tags
+ * as codes into a small dictionary of distinct tags, and the characters of every ID, name, and
+ * description appended to a single shared {@code char[]} pool addressed by offset and length. IDs
+ * are located through an open-addressing table of row numbers, so no map entries or boxed values
+ * are allocated either. A catalogue of any size is therefore a fixed handful of arrays, which the
+ * garbage collector never has to trace item by item.
+ * <p>
+ * The store is read through row accessors ({@link #getName(int)}, {@link #getQuantity(int)}, ...),
+ * and only rows that are actually displayed need to be turned into objects with {@link #toItem(int)}.
+ * Tag filtering and search scan the columns directly without allocating per item.
+ * <p>
+ * Rows are numbered {@code 0} to {@code size() - 1}. Removing an item moves the last row into its
+ * place, so row numbers are only valid until the next removal; keep item IDs across changes.
+ * <p>
+ * The app does not use this store; it is kept here as the comparison point for
+ * {@code CatalogueMemoryBenchmark}. Decoded items share their strings with the snapshot values,
+ * which the list of beans keeps by reference while this store copies them into its pool, so at
+ * 100k items it retained more heap than the beans, reloaded more slowly, and showed no
+ * measurable difference in full-GC time.
+ */
+public class ColumnarInventoryStore {
+
+    // Text length recorded for a null string
+    private static final int NULL_TEXT = -1;
+
+    // Tag code recorded for an item without a tag
+    private static final int NO_TAG = -1;
+
+    // Pools smaller than this are never compacted
+    private static final int MIN_COMPACT_LENGTH = 4096;
+
+    private int size;
+    private int[] idHashes;
+    private int[] idOffsets;
+    private int[] idLengths;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private int[] descriptionOffsets;
+    private int[] descriptionLengths;
+    private int[] quantities;
+    private int[] tagCodes;
+
+    private char[] text;
+    private int textLength;
+    private int unusedTextLength;
+
+    // Open-addressing table of row + 1, with 0 marking an empty slot
+    private int[] slots;
+
+    private final List<String> tags = new ArrayList<>();
+    private final Map<String, Integer> tagCodeByTag = new HashMap<>();
+
+
+    /**
+     * Creates an empty store.
+     */
+    public ColumnarInventoryStore() {
+        this(16);
+    }
+
+
+    /**
+     * Creates an empty store with room for the given number of items before its columns grow.
+     * <p>
+     * @param initialCapacity the expected number of items
+     */
+    public ColumnarInventoryStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        allocateColumns(Math.max(initialCapacity, 1));
+        text = new char[Math.max(initialCapacity, 1) * 32];
+        slots = new int[tableSizeFor(initialCapacity)];
+    }
+
+
+    /**
+     * Returns the number of stored items.
+     * <p>
+     * @return the item count
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Adds an item, or overwrites the fields of the stored item with the same ID. Items without an
+     * ID are ignored.
+     * <p>
+     * @param item the item that was added or changed
+     */
+    public void put(@NonNull InventoryItem item) {
+        String itemId = item.getId();
+        if (itemId == null) {
+            return;
+        }
+
+        int row = rowOf(itemId);
+        if (row < 0) {
+            row = appendRow(itemId);
+            nameLengths[row] = NULL_TEXT;
+            descriptionLengths[row] = NULL_TEXT;
+        }
+
+        if (!textEquals(nameOffsets[row], nameLengths[row], item.getName())) {
+            releaseText(nameLengths[row]);
+            nameOffsets[row] = appendText(item.getName());
+            nameLengths[row] = textLengthOf(item.getName());
+        }
+        if (!textEquals(descriptionOffsets[row], descriptionLengths[row], item.getDescription())) {
+            releaseText(descriptionLengths[row]);
+            descriptionOffsets[row] = appendText(item.getDescription());
+            descriptionLengths[row] = textLengthOf(item.getDescription());
+        }
+        quantities[row] = item.getQuantity();
+        tagCodes[row] = tagCodeOf(item.getTag());
+
+        compactTextIfWasteful();
+    }
+
+
+    /**
+     * Adds or overwrites several items, growing the columns once for all of them, e.g. when a
+     * whole catalogue is reloaded into an empty store.
+     * <p>
+     * @param items the items that were added or changed
+     */
+    public void putAll(@NonNull Collection<InventoryItem> items) {
+        ensureCapacity(size + items.size());
+        for (InventoryItem item : items) {
+            put(item);
+        }
+    }
+
+
+    /**
+     * Removes an item. The last row is moved into the freed row.
+     * <p>
+     * @param itemId the unique identifier of the item that was removed
+     * @return {@code true} if the item was stored
+     */
+    public boolean remove(@NonNull String itemId) {
+        int row = rowOf(itemId);
+        if (row < 0) {
+            return false;
+        }
+
+        deleteSlot(slotOf(row));
+        releaseText(idLengths[row]);
+        releaseText(nameLengths[row]);
+        releaseText(descriptionLengths[row]);
+
+        int last = size - 1;
+        if (row != last) {
+            slots[slotOf(last)] = row + 1;
+            idHashes[row] = idHashes[last];
+            idOffsets[row] = idOffsets[last];
+            idLengths[row] = idLengths[last];
+            nameOffsets[row] = nameOffsets[last];
+            nameLengths[row] = nameLengths[last];
+            descriptionOffsets[row] = descriptionOffsets[last];
+            descriptionLengths[row] = descriptionLengths[last];
+            quantities[row] = quantities[last];
+            tagCodes[row] = tagCodes[last];
+        }
+        size--;
+
+        compactTextIfWasteful();
+        return true;
+    }
+
+
+    /**
+     * Removes every item. The columns keep their capacity.
+     */
+    public void clear() {
+        size = 0;
+        textLength = 0;
+        unusedTextLength = 0;
+        Arrays.fill(slots, 0);
+        tags.clear();
+        tagCodeByTag.clear();
+    }
+
+
+    /**
+     * Returns the row holding an item.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return the row number, or -1 if the item is not stored
+     */
+    public int rowOf(@Nullable String itemId) {
+        if (itemId == null) {
+            return -1;
+        }
+
+        int hash = itemId.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (idHashes[row] == hash && textEquals(idOffsets[row], idLengths[row], itemId)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+
+    /*
+     *  Row accessors
+     */
+    public String getId(int row) { return textAt(idOffsets[checkRow(row)], idLengths[row]); }
+    public String getName(int row) { return textAt(nameOffsets[checkRow(row)], nameLengths[row]); }
+    public String getDescription(int row) { return textAt(descriptionOffsets[checkRow(row)], descriptionLengths[row]); }
+    public int getQuantity(int row) { return quantities[checkRow(row)]; }
+    public String getTag(int row) { return tagCodes[checkRow(row)] == NO_TAG ? null : tags.get(tagCodes[row]); }
+
+
+    /**
+     * Materializes a row as an {@link InventoryItem}, for display or editing.
+     * <p>
+     * @param row the row number
+     * @return a new item with the row's fields
+     */
+    @NonNull
+    public InventoryItem toItem(int row) {
+        return new InventoryItem(getId(row), getName(row), getDescription(row), getQuantity(row), getTag(row));
+    }
+
+
+    /**
+     * Returns every row, in row order.
+     * <p>
+     * @return a new array of row numbers
+     */
+    @NonNull
+    public int[] allRows() {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+
+
+    /**
+     * Finds the rows of the items carrying a tag, ignoring case and surrounding whitespace like
+     * {@link InventoryTagIndex}. The tag is resolved against the dictionary once, after which only
+     * the tag code column is scanned.
+     * <p>
+     * @param tag the tag to look up
+     * @return the matching row numbers, in row order
+     */
+    @NonNull
+    public int[] findRowsWithTag(@Nullable String tag) {
+        String normalizedTag = InventoryTagIndex.normalize(tag);
+        if (normalizedTag == null) {
+            return new int[0];
+        }
+
+        boolean[] matchingCodes = new boolean[tags.size()];
+        boolean anyMatch = false;
+        for (int code = 0; code < tags.size(); code++) {
+            matchingCodes[code] = normalizedTag.equals(InventoryTagIndex.normalize(tags.get(code)));
+            anyMatch |= matchingCodes[code];
+        }
+        if (!anyMatch) {
+            return new int[0];
+        }
+
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int code = tagCodes[row];
+            if (code != NO_TAG && matchingCodes[code]) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+
+    /**
+     * Finds the rows matching every term of a query, with the same rules as
+     * {@link InventorySearchIndex#search}: each term must be a prefix of a word in the item's name,
+     * description, or tag, ignoring case. The pooled text is compared in place.
+     * <p>
+     * @param query the text typed by the user
+     * @return the matching row numbers, in row order; every row when the query has no terms
+     */
+    @NonNull
+    public int[] search(@NonNull String query) {
+        Set<String> termSet = new HashSet<>();
+        InventorySearchIndex.tokenize(query, termSet);
+        String[] terms = termSet.toArray(new String[0]);
+
+        // Tags are few, so each term is matched against each distinct tag once
+        boolean[][] tagMatches = new boolean[terms.length][tags.size()];
+        for (int t = 0; t < terms.length; t++) {
+            for (int code = 0; code < tags.size(); code++) {
+                String tag = tags.get(code);
+                tagMatches[t][code] = matchesWordPrefix(tag.toCharArray(), 0, tag.length(), terms[t]);
+            }
+        }
+
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            boolean matchesAll = true;
+            for (int t = 0; t < terms.length && matchesAll; t++) {
+                matchesAll = (tagCodes[row] != NO_TAG && tagMatches[t][tagCodes[row]])
+                        || matchesWordPrefix(text, nameOffsets[row], nameLengths[row], terms[t])
+                        || matchesWordPrefix(text, descriptionOffsets[row], descriptionLengths[row], terms[t]);
+            }
+            if (matchesAll) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+
+    /**
+     * Checks whether a lower-case term is a prefix of any word in a run of characters. Words are
+     * split on every character that is not a letter or digit, as in
+     * {@link InventorySearchIndex#tokenize}.
+     * <p>
+     * @param chars the characters to search
+     * @param offset the start of the run
+     * @param length the length of the run, or {@link #NULL_TEXT}
+     * @param term a lower-case term made of letters and digits
+     * @return {@code true} if a word starts with the term
+     */
+    private static boolean matchesWordPrefix(char[] chars, int offset, int length, String term) {
+        int end = offset + length - term.length();
+        for (int start = offset; start <= end; start++) {
+            if (start > offset && Character.isLetterOrDigit(chars[start - 1])) {
+                continue;
+            }
+            int i = 0;
+            while (i < term.length() && Character.toLowerCase(chars[start + i]) == term.charAt(i)) {
+                i++;
+            }
+            if (i == term.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Appends a new row for an ID and registers it in the ID table.
+     * <p>
+     * @param itemId the unique identifier of the item
+     * @return the new row number
+     */
+    private int appendRow(String itemId) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        idHashes[row] = itemId.hashCode();
+        idOffsets[row] = appendText(itemId);
+        idLengths[row] = itemId.length();
+
+        int mask = slots.length - 1;
+        int slot = spread(idHashes[row]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row + 1;
+        return row;
+    }
+
+
+    /**
+     * Finds the ID table slot pointing at a row.
+     * <p>
+     * @param row a stored row
+     * @return the slot index
+     */
+    private int slotOf(int row) {
+        int mask = slots.length - 1;
+        int slot = spread(idHashes[row]) & mask;
+        while (slots[slot] != row + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+
+    /**
+     * Empties a slot of the ID table, shifting later entries of the same probe run back so that
+     * every entry stays reachable from its home slot.
+     * <p>
+     * @param slot the slot to empty
+     */
+    private void deleteSlot(int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int home = spread(idHashes[slots[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+
+    /**
+     * Returns the dictionary code of a tag, adding the tag if it is new. Tags keep their exact
+     * spelling; case-insensitive matching is done when filtering.
+     * <p>
+     * @param tag the tag, possibly {@code null}
+     * @return the tag code, or {@link #NO_TAG}
+     */
+    private int tagCodeOf(@Nullable String tag) {
+        if (tag == null) {
+            return NO_TAG;
+        }
+        Integer code = tagCodeByTag.get(tag);
+        if (code == null) {
+            code = tags.size();
+            tags.add(tag);
+            tagCodeByTag.put(tag, code);
+        }
+        return code;
+    }
+
+
+    /**
+     * Grows the columns and the ID table to hold at least the given number of rows.
+     * <p>
+     * @param capacity the number of rows required
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > quantities.length) {
+            int newCapacity = Math.max(capacity, quantities.length + (quantities.length >> 1));
+            idHashes = Arrays.copyOf(idHashes, newCapacity);
+            idOffsets = Arrays.copyOf(idOffsets, newCapacity);
+            idLengths = Arrays.copyOf(idLengths, newCapacity);
+            nameOffsets = Arrays.copyOf(nameOffsets, newCapacity);
+            nameLengths = Arrays.copyOf(nameLengths, newCapacity);
+            descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+            quantities = Arrays.copyOf(quantities, newCapacity);
+            tagCodes = Arrays.copyOf(tagCodes, newCapacity);
+        }
+
+        if (capacity * 2 > slots.length) {
+            slots = new int[tableSizeFor(capacity)];
+            int mask = slots.length - 1;
+            for (int row = 0; row < size; row++) {
+                int slot = spread(idHashes[row]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = row + 1;
+            }
+        }
+    }
+
+
+    /**
+     * Allocates empty columns.
+     * <p>
+     * @param capacity the number of rows
+     */
+    private void allocateColumns(int capacity) {
+        idHashes = new int[capacity];
+        idOffsets = new int[capacity];
+        idLengths = new int[capacity];
+        nameOffsets = new int[capacity];
+        nameLengths = new int[capacity];
+        descriptionOffsets = new int[capacity];
+        descriptionLengths = new int[capacity];
+        quantities = new int[capacity];
+        tagCodes = new int[capacity];
+    }
+
+
+    /**
+     * Appends a string to the text pool.
+     * <p>
+     * @param value the string, possibly {@code null}
+     * @return the offset of the appended characters
+     */
+    private int appendText(@Nullable String value) {
+        int offset = textLength;
+        if (value != null) {
+            if (textLength + value.length() > text.length) {
+                text = Arrays.copyOf(text, Math.max(textLength + value.length(), text.length + (text.length >> 1)));
+            }
+            value.getChars(0, value.length(), text, textLength);
+            textLength += value.length();
+        }
+        return offset;
+    }
+
+
+    /**
+     * Records that a run of pooled characters is no longer referenced.
+     * <p>
+     * @param length the length of the run, or {@link #NULL_TEXT}
+     */
+    private void releaseText(int length) {
+        if (length > 0) {
+            unusedTextLength += length;
+        }
+    }
+
+
+    /**
+     * Rewrites the text pool without its unreferenced characters once they make up more than half
+     * of it, so repeated edits do not grow the pool without bound.
+     */
+    private void compactTextIfWasteful() {
+        if (textLength < MIN_COMPACT_LENGTH || unusedTextLength * 2 <= textLength) {
+            return;
+        }
+
+        char[] oldText = text;
+        text = new char[Math.max(MIN_COMPACT_LENGTH, (textLength - unusedTextLength) * 2)];
+        textLength = 0;
+        unusedTextLength = 0;
+        for (int row = 0; row < size; row++) {
+            idOffsets[row] = moveText(oldText, idOffsets[row], idLengths[row]);
+            nameOffsets[row] = moveText(oldText, nameOffsets[row], nameLengths[row]);
+            descriptionOffsets[row] = moveText(oldText, descriptionOffsets[row], descriptionLengths[row]);
+        }
+    }
+
+
+    /**
+     * Copies a run of characters from a previous pool to the end of the current one.
+     * <p>
+     * @param oldText the previous pool
+     * @param offset the offset of the run in the previous pool
+     * @param length the length of the run, or {@link #NULL_TEXT}
+     * @return the offset of the run in the current pool
+     */
+    private int moveText(char[] oldText, int offset, int length) {
+        int newOffset = textLength;
+        if (length > 0) {
+            System.arraycopy(oldText, offset, text, textLength, length);
+            textLength += length;
+        }
+        return newOffset;
+    }
+
+
+    /**
+     * Compares a run of pooled characters with a string.
+     * <p>
+     * @param offset the offset of the run
+     * @param length the length of the run, or {@link #NULL_TEXT}
+     * @param value the string, possibly {@code null}
+     * @return {@code true} if both are null or both hold the same characters
+     */
+    private boolean textEquals(int offset, int length, @Nullable String value) {
+        if (value == null || length == NULL_TEXT) {
+            return value == null && length == NULL_TEXT;
+        }
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text[offset + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Creates a string from a run of pooled characters.
+     * <p>
+     * @param offset the offset of the run
+     * @param length the length of the run, or {@link #NULL_TEXT}
+     * @return the string, or {@code null}
+     */
+    @Nullable
+    private String textAt(int offset, int length) {
+        return length == NULL_TEXT ? null : new String(text, offset, length);
+    }
+
+
+    /**
+     * Returns the recorded length of a string.
+     * <p>
+     * @param value the string, possibly {@code null}
+     * @return its length, or {@link #NULL_TEXT}
+     */
+    private static int textLengthOf(@Nullable String value) {
+        return value == null ? NULL_TEXT : value.length();
+    }
+
+
+    /**
+     * Validates a row number.
+     * <p>
+     * @param row the row number
+     * @return the same row number
+     */
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of range for size " + size);
+        }
+        return row;
+    }
+
+
+    /**
+     * Mixes the high bits of a hash into the low bits used to pick a slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * Returns the ID table size for a number of rows: a power of two at least twice as large.
+     */
+    private static int tableSizeFor(int capacity) {
+        int tableSize = 16;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.snhu.cs360.inventoryapp.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit test class for {@code ColumnarInventoryStore}.
+ * <p>
+ * This class verifies that items round-trip through the columns, that updates and removals keep
+ * every remaining ID reachable, and that tag filtering and search match the rules of the tag and
+ * search indexes.
+ */
+public class ColumnarInventoryStoreTest {
+
+    private ColumnarInventoryStore store;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up a store of three items before each test.
+        store = new ColumnarInventoryStore(2);
+        store.put(new InventoryItem("Item1", "Blue Widget", "Small part", 3, "Tools"));
+        store.put(new InventoryItem("Item2", "Claw Hammer", null, 2, "tools "));
+        store.put(new InventoryItem("Item3", "Wall Paint", "Widget coating", 7, "Paint"));
+    }
+
+
+    /*
+     * Collects the IDs of the given rows.
+     */
+    private Set<String> idsOf(int[] rows) {
+        Set<String> ids = new HashSet<>();
+        for (int row : rows) {
+            ids.add(store.getId(row));
+        }
+        return ids;
+    }
+
+
+    @Test
+    public void testItemsRoundTrip() {
+        InventoryItem item = store.toItem(store.rowOf("Item2"));
+
+        assertEquals(3, store.size());
+        assertEquals("Item2", item.getId());
+        assertEquals("Claw Hammer", item.getName());
+        assertNull(item.getDescription());
+        assertEquals(2, item.getQuantity());
+        assertEquals("tools ", item.getTag());
+        assertEquals(-1, store.rowOf("Missing"));
+    }
+
+
+    @Test
+    public void testPutOverwritesExistingItem() {
+        store.put(new InventoryItem("Item1", "Red Widget", "Small part", 9, "Paint"));
+
+        int row = store.rowOf("Item1");
+        assertEquals(3, store.size());
+        assertEquals("Red Widget", store.getName(row));
+        assertEquals(9, store.getQuantity(row));
+        assertEquals("Paint", store.getTag(row));
+    }
+
+
+    @Test
+    public void testRemoveKeepsOtherItemsReachable() {
+        assertTrue(store.remove("Item1"));
+        assertFalse(store.remove("Item1"));
+
+        assertEquals(2, store.size());
+        assertEquals(-1, store.rowOf("Item1"));
+        assertEquals("Wall Paint", store.getName(store.rowOf("Item3")));
+        assertEquals("Claw Hammer", store.getName(store.rowOf("Item2")));
+    }
+
+
+    @Test
+    public void testManyEditsStayConsistent() {
+        // Enough churn to grow the columns and compact the text pool
+        for (int i = 0; i < 5000; i++) {
+            store.put(new InventoryItem("Bulk" + (i % 700), "Name " + i, "Description " + i, i, "Tag" + (i % 5)));
+            if (i % 3 == 0) {
+                store.remove("Bulk" + ((i * 7) % 700));
+            }
+        }
+
+        for (int row = 0; row < store.size(); row++) {
+            assertEquals(row, store.rowOf(store.getId(row)));
+        }
+        assertEquals("Blue Widget", store.getName(store.rowOf("Item1")));
+    }
+
+
+    @Test
+    public void testFindRowsWithTagIgnoresCase() {
+        assertEquals(Set.of("Item1", "Item2"), idsOf(store.findRowsWithTag(" TOOLS")));
+        assertEquals(0, store.findRowsWithTag("Garden").length);
+        assertEquals(0, store.findRowsWithTag(null).length);
+    }
+
+
+    @Test
+    public void testSearchMatchesWordPrefixesOfEveryTerm() {
+        assertEquals(Set.of("Item1", "Item3"), idsOf(store.search("widg")));
+        assertEquals(Set.of("Item3"), idsOf(store.search("WIDGET paint")));
+        assertEquals(Set.of("Item1", "Item2"), idsOf(store.search("tool")));
+
+        // Terms only match at the start of a word
+        assertEquals(0, store.search("idget").length);
+        assertArrayEquals(store.allRows(), store.search("  "));
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.snhu.cs360.inventoryapp.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+/**
+ * Generates the baseline profile shipped in {@code app/src/main/baseline-prof.txt}.
+ * <p>
+ * The profile covers the cold path from {@code LoginActivity} to the first inventory rows in
+ * {@code MainActivity}, and binding rows while the list is flung. Run this class on a rooted
+ * device or an emulator image without Google Play, then copy the generated
+ * {@code BaselineProfileGenerator_generate-baseline-prof.txt} from the test output over the
+ * shipped file.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @BeforeClass
+    public static void seedBackend() throws IOException {
+        LocalBackend.ensureUser();
+        LocalBackend.seedInventory(LocalBackend.SEEDED_ITEM_COUNT);
+    }
+
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(LocalBackend.TARGET_PACKAGE, scope -> {
+            scope.pressHome();
+            LocalBackend.logIn(scope);
+            scope.startActivityAndWait(LocalBackend.inventoryIntent());
+            ScrollBenchmark.flingThroughList(scope.getDevice());
+            return Unit.INSTANCE;
+        });
+    }
+
+}
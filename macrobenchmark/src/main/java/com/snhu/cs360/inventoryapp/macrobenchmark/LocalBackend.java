@@ -0,0 +1,156 @@
+package com.snhu.cs360.inventoryapp.macrobenchmark;
+
+import android.content.Intent;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Prepares the local Firebase emulator suite and the app under test for a benchmark run.
+ * <p>
+ * The emulators are started on the host with {@code firebase emulators:start} and reached from the
+ * Android emulator at {@value #HOST}. The Realtime Database namespace of the app's Firebase project
+ * is passed as the {@code databaseNamespace} instrumentation argument.
+ */
+final class LocalBackend {
+
+    static final String TARGET_PACKAGE = "com.snhu.cs360.inventoryapp";
+    static final int SEEDED_ITEM_COUNT = 10_000;
+
+    private static final String HOST = "10.0.2.2";
+    private static final String EMAIL = "benchmark@example.com";
+    private static final String PASSWORD = "benchmark-password";
+    private static final long UI_TIMEOUT_MILLIS = 10_000;
+
+
+    private LocalBackend() {
+    }
+
+
+    /**
+     * Replaces the emulator's "inventory" node with a synthetic inventory, bypassing security rules.
+     * <p>
+     * @param itemCount the number of items to write
+     * @throws IOException if the database emulator cannot be reached
+     */
+    static void seedInventory(int itemCount) throws IOException {
+        StringBuilder json = new StringBuilder(itemCount * 120).append('{');
+        for (int i = 0; i < itemCount; i++) {
+            String itemId = String.format("item%07d", i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(itemId).append("\":{")
+                    .append("\"id\":\"").append(itemId).append("\",")
+                    .append("\"name\":\"Item ").append(i).append("\",")
+                    .append("\"description\":\"Seeded benchmark item ").append(i).append("\",")
+                    .append("\"quantity\":").append(i % 500).append(',')
+                    .append("\"tag\":\"Tag").append(i % 50).append("\"}");
+        }
+        json.append('}');
+
+        String namespace = InstrumentationRegistry.getArguments().getString("databaseNamespace");
+        if (namespace == null) {
+            throw new IllegalStateException("Pass the database namespace as the databaseNamespace instrumentation argument");
+        }
+        send("PUT", "http://" + HOST + ":9000/inventory.json?ns=" + namespace, json.toString(), true);
+    }
+
+
+    /**
+     * Creates the benchmark account in the authentication emulator, if it does not exist yet.
+     * <p>
+     * @throws IOException if the authentication emulator cannot be reached
+     */
+    static void ensureUser() throws IOException {
+        String body = "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\",\"returnSecureToken\":true}";
+        // A 400 response means the account already exists
+        send("POST", "http://" + HOST + ":9099/identitytoolkit.googleapis.com/v1/accounts:signUp?key=fake-api-key", body, false);
+    }
+
+
+    /**
+     * Launches the app and, if the login screen is shown, signs in with the benchmark account and
+     * waits for the inventory list.
+     * <p>
+     * @param scope the scope of the running benchmark
+     */
+    static void logIn(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+
+        UiObject2 emailField = device.findObject(By.res(TARGET_PACKAGE, "email_field"));
+        if (emailField != null) {
+            emailField.setText(EMAIL);
+            device.findObject(By.res(TARGET_PACKAGE, "password_field")).setText(PASSWORD);
+            device.findObject(By.res(TARGET_PACKAGE, "login_button")).click();
+        }
+        device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "recyclerView")), UI_TIMEOUT_MILLIS);
+    }
+
+
+    /**
+     * Returns an intent opening the inventory screen directly, which the {@code benchmark} build
+     * type exports.
+     * <p>
+     * @return the intent
+     */
+    static Intent inventoryIntent() {
+        return new Intent().setClassName(TARGET_PACKAGE, TARGET_PACKAGE + ".MainActivity");
+    }
+
+
+    /**
+     * Waits until the inventory list is showing rows.
+     * <p>
+     * @param device the device under test
+     * @return the RecyclerView holding the rows
+     */
+    static UiObject2 awaitInventoryRows(UiDevice device) {
+        device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "itemNameTextView")), UI_TIMEOUT_MILLIS);
+        return device.findObject(By.res(TARGET_PACKAGE, "recyclerView"));
+    }
+
+
+    /**
+     * Sends a JSON request to an emulator.
+     * <p>
+     * @param method the HTTP method
+     * @param url the full URL
+     * @param body the JSON request body
+     * @param requireSuccess whether an error response should fail the benchmark
+     * @throws IOException if the request fails
+     */
+    private static void send(String method, String url, String body, boolean requireSuccess) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            // Administrative access to the emulators, ignoring security rules
+            connection.setRequestProperty("Authorization", "Bearer owner");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+
+            int status = connection.getResponseCode();
+            if (requireSuccess && status / 100 != 2) {
+                throw new IOException(method + " " + url + " failed with HTTP " + status);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.snhu.cs360.inventoryapp.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Macrobenchmark measuring frame timing while flinging through a seeded inventory of
+ * {@value LocalBackend#SEEDED_ITEM_COUNT} items, which exercises row binding in
+ * {@code InventoryAdapter} and page loading as the end of the list approaches, and while switching
+ * a populated list between the list and grid layouts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    private static final int ITERATIONS = 5;
+    private static final int FLINGS_PER_ITERATION = 8;
+    private static final int TOGGLES_PER_ITERATION = 6;
+    private static final long MENU_TIMEOUT_MILLIS = 2_000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedBackend() throws IOException {
+        LocalBackend.ensureUser();
+        LocalBackend.seedInventory(LocalBackend.SEEDED_ITEM_COUNT);
+    }
+
+
+    @Test
+    public void flingInventoryList() {
+        benchmarkRule.measureRepeated(LocalBackend.TARGET_PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    LocalBackend.logIn(scope);
+                    scope.startActivityAndWait(LocalBackend.inventoryIntent());
+                    LocalBackend.awaitInventoryRows(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    flingThroughList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+
+
+    @Test
+    public void toggleInventoryLayout() {
+        benchmarkRule.measureRepeated(LocalBackend.TARGET_PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    LocalBackend.logIn(scope);
+                    scope.startActivityAndWait(LocalBackend.inventoryIntent());
+                    // Switch away from the top of the list, where the scroll position is trivially kept
+                    UiObject2 recyclerView = LocalBackend.awaitInventoryRows(scope.getDevice());
+                    recyclerView.setGestureMargin(scope.getDevice().getDisplayWidth() / 5);
+                    recyclerView.fling(Direction.DOWN);
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    for (int i = 0; i < TOGGLES_PER_ITERATION; i++) {
+                        switchLayout(scope.getDevice());
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+
+
+    /**
+     * Switches the inventory between the list and grid layouts through the options menu, and
+     * waits for the switched list to settle.
+     * <p>
+     * @param device the device under test
+     */
+    static void switchLayout(UiDevice device) {
+        device.findObject(By.res(LocalBackend.TARGET_PACKAGE, "activity_main_menu")).click();
+        device.wait(Until.findObject(By.text("Switch Layouts")), MENU_TIMEOUT_MILLIS).click();
+        device.waitForIdle();
+    }
+
+
+    /**
+     * Flings the inventory list downwards repeatedly, waiting for each fling to settle.
+     * <p>
+     * @param device the device under test
+     */
+    static void flingThroughList(UiDevice device) {
+        UiObject2 recyclerView = LocalBackend.awaitInventoryRows(device);
+        // Keep gestures clear of the system navigation area
+        recyclerView.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < FLINGS_PER_ITERATION; i++) {
+            recyclerView.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+    }
+
+}
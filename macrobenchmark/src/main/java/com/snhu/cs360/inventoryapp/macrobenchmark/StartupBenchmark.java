@@ -0,0 +1,107 @@
+package com.snhu.cs360.inventoryapp.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Macrobenchmark measuring cold start of the app against a seeded local backend.
+ * <p>
+ * Time to initial display is reported for the launcher's {@code LoginActivity} and for
+ * {@code MainActivity}; time to full display is reported for {@code MainActivity}, which calls
+ * {@code reportFullyDrawn()} once the first inventory rows are listed. Each case runs both with
+ * the shipped baseline profile and without any ahead-of-time compilation, to show its effect.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedBackend() throws IOException {
+        LocalBackend.ensureUser();
+        LocalBackend.seedInventory(LocalBackend.SEEDED_ITEM_COUNT);
+    }
+
+
+    @Test
+    public void loginScreenColdStartWithBaselineProfile() {
+        measureLoginScreen(new CompilationMode.Partial());
+    }
+
+
+    @Test
+    public void loginScreenColdStartWithoutCompilation() {
+        measureLoginScreen(new CompilationMode.None());
+    }
+
+
+    @Test
+    public void inventoryColdStartWithBaselineProfile() {
+        measureInventory(new CompilationMode.Partial());
+    }
+
+
+    @Test
+    public void inventoryColdStartWithoutCompilation() {
+        measureInventory(new CompilationMode.None());
+    }
+
+
+    /*
+     * Cold-starts the launcher activity.
+     */
+    private void measureLoginScreen(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(LocalBackend.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+
+
+    /*
+     * Logs in once, then cold-starts the inventory screen until its first rows are listed.
+     */
+    private void measureInventory(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(LocalBackend.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    LocalBackend.logIn(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait(LocalBackend.inventoryIntent());
+                    LocalBackend.awaitInventoryRows(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+
+}